@@ -1,5 +1,6 @@
 package ru.tokarev.configuration;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
@@ -12,12 +13,17 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import ru.tokarev.security.BoundedPasswordEncoder;
+import ru.tokarev.security.PasswordHashingExecutor;
+import ru.tokarev.security.PrincipalCache;
 import ru.tokarev.security.jwt.AuthTokenFilter;
 import ru.tokarev.security.jwt.JwtUtils;
+import ru.tokarev.security.jwt.TokenRevocationRegistry;
+import ru.tokarev.security.ratelimit.RateLimitFilter;
+import ru.tokarev.security.ratelimit.RateLimiter;
 
 @EnableGlobalMethodSecurity(
         prePostEnabled = true,
@@ -31,6 +37,16 @@ public class SpringSecurityConfiguration {
 
     private final JwtUtils jwtUtils;
 
+    private final PrincipalCache principalCache;
+
+    private final TokenRevocationRegistry tokenRevocationRegistry;
+
+    private final PasswordHashingExecutor passwordHashingExecutor;
+
+    private final RateLimiter rateLimiter;
+
+    private final ObjectMapper objectMapper;
+
     @Value("${start_endpoint_prefix}")
     private String startEndpointPrefix;
 
@@ -40,20 +56,37 @@ public class SpringSecurityConfiguration {
     @Value("${endpoint_login_prefix}")
     private String endpointLoginPrefix;
 
+    @Value("${security.password-hashing.bcrypt-strength:10}")
+    private int bcryptStrength;
+
     @Autowired
-    public SpringSecurityConfiguration(UserDetailsService userDetailsService, JwtUtils jwtUtils) {
+    public SpringSecurityConfiguration(UserDetailsService userDetailsService, JwtUtils jwtUtils,
+                                       PrincipalCache principalCache,
+                                       TokenRevocationRegistry tokenRevocationRegistry,
+                                       PasswordHashingExecutor passwordHashingExecutor, RateLimiter rateLimiter,
+                                       ObjectMapper objectMapper) {
         this.userDetailsService = userDetailsService;
         this.jwtUtils = jwtUtils;
+        this.principalCache = principalCache;
+        this.tokenRevocationRegistry = tokenRevocationRegistry;
+        this.passwordHashingExecutor = passwordHashingExecutor;
+        this.rateLimiter = rateLimiter;
+        this.objectMapper = objectMapper;
     }
 
     @Bean
     public AuthTokenFilter authenticationJwtTokenFilter() {
-        return new AuthTokenFilter(jwtUtils, userDetailsService);
+        return new AuthTokenFilter(jwtUtils, userDetailsService, principalCache, tokenRevocationRegistry);
+    }
+
+    @Bean
+    public RateLimitFilter rateLimitFilter() {
+        return new RateLimitFilter(rateLimiter, objectMapper);
     }
 
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return new BoundedPasswordEncoder(bcryptStrength, passwordHashingExecutor);
     }
 
     @Bean
@@ -78,6 +111,7 @@ public class SpringSecurityConfiguration {
                 .anyRequest().authenticated();
 
         http.addFilterBefore(authenticationJwtTokenFilter(), UsernamePasswordAuthenticationFilter.class);
+        http.addFilterAfter(rateLimitFilter(), AuthTokenFilter.class);
 
         return http.build();
     }
@@ -1,5 +1,6 @@
 package ru.tokarev.controller;
 
+import io.jsonwebtoken.Claims;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -14,14 +15,18 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestAttribute;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import ru.tokarev.dto.ApiErrorDto;
 import ru.tokarev.dto.userdto.AuthenticationRequestDto;
 import ru.tokarev.dto.userdto.LoginResponseDto;
+import ru.tokarev.exception.userexception.UserBadRequestException;
 import ru.tokarev.security.UserDetailsImpl;
+import ru.tokarev.security.jwt.AuthTokenFilter;
 import ru.tokarev.security.jwt.JwtUtils;
+import ru.tokarev.security.jwt.TokenRevocationRegistry;
 
 import javax.validation.Valid;
 import java.util.List;
@@ -36,10 +41,14 @@ public class AuthenticationController {
 
     private final JwtUtils jwtUtils;
 
+    private final TokenRevocationRegistry tokenRevocationRegistry;
+
     @Autowired
-    public AuthenticationController(AuthenticationManager authenticationManager, JwtUtils jwtUtils) {
+    public AuthenticationController(AuthenticationManager authenticationManager, JwtUtils jwtUtils,
+                                    TokenRevocationRegistry tokenRevocationRegistry) {
         this.authenticationManager = authenticationManager;
         this.jwtUtils = jwtUtils;
+        this.tokenRevocationRegistry = tokenRevocationRegistry;
     }
 
 
@@ -79,4 +88,28 @@ public class AuthenticationController {
 
         return new ResponseEntity<>(loginResponseDto, HttpStatus.OK);
     }
+
+    @PostMapping("/logout")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Token revoked"),
+            @ApiResponse(responseCode = "400", description = "Bad request",
+                    content = @Content(schema = @Schema(implementation = ApiErrorDto.class))),
+            @ApiResponse(responseCode = "401", description = "Unauthorized",
+                    content = @Content(schema = @Schema(implementation = ApiErrorDto.class))),
+    })
+    public ResponseEntity<Object> logout(@RequestAttribute(name = AuthTokenFilter.CLAIMS_ATTRIBUTE, required = false)
+                                                 Claims claims) {
+
+        if (claims == null || claims.getId() == null) {
+            throw new UserBadRequestException("Jwt token has no id and can not be revoked");
+        }
+
+        log.info("POST request for /logout with username {} and token id {}", claims.getSubject(), claims.getId());
+
+        tokenRevocationRegistry.revoke(claims.getId(), claims.getExpiration().toInstant());
+
+        log.info("Response for POST request for /logout: token {} revoked", claims.getId());
+
+        return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+    }
 }
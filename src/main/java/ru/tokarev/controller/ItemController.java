@@ -1,5 +1,6 @@
 package ru.tokarev.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -7,36 +8,111 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import lombok.extern.slf4j.Slf4j;
 import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.tokarev.dto.ApiErrorDto;
+import ru.tokarev.dto.ImportJobDto;
+import ru.tokarev.dto.ImportSummaryDto;
 import ru.tokarev.dto.MarketplaceDto;
 import ru.tokarev.dto.item.*;
+import ru.tokarev.entity.item.DailyPriceStats;
 import ru.tokarev.entity.item.Item;
 import ru.tokarev.exception.itemexception.ItemBadRequestException;
+import ru.tokarev.service.itemservice.DailyPriceService;
+import ru.tokarev.service.itemservice.ItemCompactionService;
+import ru.tokarev.service.itemservice.ItemImportRow;
+import ru.tokarev.service.itemservice.ItemImportRowResult;
+import ru.tokarev.service.itemservice.ItemImportRowStatus;
+import ru.tokarev.service.itemservice.ItemPartitionService;
 import ru.tokarev.service.itemservice.ItemService;
+import ru.tokarev.service.itemservice.ItemWriteBehindService;
+import ru.tokarev.service.itemservice.ItemWriteTicket;
+import ru.tokarev.service.jobservice.ImportJob;
+import ru.tokarev.service.jobservice.ImportJobService;
+import ru.tokarev.utils.JsonArrayChunkReader;
 import ru.tokarev.utils.MapperUtil;
 
+import javax.validation.ConstraintViolation;
 import javax.validation.Valid;
+import javax.validation.Validator;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Slf4j
 @RequestMapping("/api/items")
 @RestController
 public class ItemController {
 
+    private static final String PRICE_INTERVALS_FORMAT = "intervals";
+
+    private static final String PRICE_COLUMNS_FORMAT = "columns";
+
+    private static final String PRICE_INTERVALS_MEDIA_TYPE = "application/vnd.price-intervals+json";
+
+    private static final String PRICE_COLUMNS_MEDIA_TYPE = "application/vnd.price-columns+json";
+
+    private static final String ASYNC_IMPORT_MODE = "async";
+
+    private static final String STREAM_IMPORT_MODE = "stream";
+
+    private static final String CHUNKED_IMPORT_MODE = "chunked";
+
+    private static final String UPSERT_IMPORT_MODE = "upsert";
+
+    private static final String WRITE_BEHIND_MODE = "write-behind";
+
+    private static final int IMPORT_CHUNK_SIZE = 1000;
+
+    private static final String CSV_MEDIA_TYPE = "text/csv";
+
+    private static final String ITEMS_IMPORT_JOB_TYPE = "items";
+
     private final ItemService itemService;
 
     private final ModelMapper modelMapper;
 
+    private final ObjectMapper objectMapper;
+
+    private final ImportJobService importJobService;
+
+    private final Validator validator;
+
+    private final ItemWriteBehindService itemWriteBehindService;
+
+    private final ItemCompactionService itemCompactionService;
+
+    private final ItemPartitionService itemPartitionService;
+
+    private final DailyPriceService dailyPriceService;
+
     @Autowired
-    public ItemController(ItemService itemService, ModelMapper modelMapper) {
+    public ItemController(ItemService itemService, ModelMapper modelMapper, ObjectMapper objectMapper,
+                          ImportJobService importJobService, Validator validator,
+                          ItemWriteBehindService itemWriteBehindService,
+                          ItemCompactionService itemCompactionService, ItemPartitionService itemPartitionService,
+                          DailyPriceService dailyPriceService) {
         this.itemService = itemService;
         this.modelMapper = modelMapper;
+        this.objectMapper = objectMapper;
+        this.importJobService = importJobService;
+        this.validator = validator;
+        this.itemWriteBehindService = itemWriteBehindService;
+        this.itemCompactionService = itemCompactionService;
+        this.itemPartitionService = itemPartitionService;
+        this.dailyPriceService = dailyPriceService;
     }
 
     @GetMapping
@@ -104,10 +180,12 @@ public class ItemController {
             @RequestParam(name = "product_id") Long productId,
             @RequestParam(name = "date_start") String dateStart,
             @RequestParam(name = "date_end") String dateEnd,
-            @RequestParam(name = "marketplace_id", required = false) Long marketplaceId) {
+            @RequestParam(name = "marketplace_id", required = false) Long marketplaceId,
+            @RequestParam(name = "format", required = false) String format,
+            @RequestHeader(name = HttpHeaders.ACCEPT, required = false) String accept) {
 
-        log.info("GET request for /check-price-dynamic with params: {}, {}, {}, {}",
-                productId, dateStart, dateEnd, marketplaceId);
+        log.info("GET request for /check-price-dynamic with params: {}, {}, {}, {}, {}",
+                productId, dateStart, dateEnd, marketplaceId, format);
 
         LocalDate dateStartConverted = LocalDate.parse(dateStart);
         LocalDate dateEndConverted = LocalDate.parse(dateEnd).plusDays(1);
@@ -116,6 +194,39 @@ public class ItemController {
             throw new ItemBadRequestException("Date end cannot be before date start");
         }
 
+        if (PRICE_INTERVALS_FORMAT.equals(format) || isAccepted(accept, PRICE_INTERVALS_MEDIA_TYPE)) {
+            List<ProductPriceIntervalsDto> productPriceIntervalsDtos = new ArrayList<>();
+
+            if (marketplaceId != null) {
+                productPriceIntervalsDtos.add(itemService.checkPriceIntervalsForOneItemAndOneMarketplace(
+                        productId, dateStartConverted, dateEndConverted, marketplaceId));
+            } else {
+                productPriceIntervalsDtos = itemService.checkPriceIntervalsForOneItem(
+                        productId, dateStartConverted, dateEndConverted);
+            }
+
+            log.info("Response for GET request for /check-price-dynamic with intervals: {}",
+                    productPriceIntervalsDtos);
+
+            return new ResponseEntity<>(productPriceIntervalsDtos, HttpStatus.OK);
+        }
+
+        if (PRICE_COLUMNS_FORMAT.equals(format) || isAccepted(accept, PRICE_COLUMNS_MEDIA_TYPE)) {
+            List<ProductPriceColumnsDto> productPriceColumnsDtos = new ArrayList<>();
+
+            if (marketplaceId != null) {
+                productPriceColumnsDtos.add(itemService.checkPriceColumnsForOneItemAndOneMarketplace(
+                        productId, dateStartConverted, dateEndConverted, marketplaceId));
+            } else {
+                productPriceColumnsDtos = itemService.checkPriceColumnsForOneItem(
+                        productId, dateStartConverted, dateEndConverted);
+            }
+
+            log.info("Response for GET request for /check-price-dynamic with columns: {}", productPriceColumnsDtos);
+
+            return new ResponseEntity<>(productPriceColumnsDtos, HttpStatus.OK);
+        }
+
         List<ProductPriceDifferenceDto> productPriceDifferenceDtos = new ArrayList<>();
 
         if (marketplaceId != null) {
@@ -175,6 +286,39 @@ public class ItemController {
         return new ResponseEntity<>(productPriceComparingDtoList, HttpStatus.OK);
     }
 
+    @GetMapping(value = "/compare-prices", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "OK",
+                    content = @Content(schema = @Schema(implementation = ProductPriceComparingDto.class))),
+            @ApiResponse(responseCode = "403", description = "Forbidden",
+                    content = @Content(schema = @Schema(implementation = ApiErrorDto.class))),
+            @ApiResponse(responseCode = "404", description = "Products or items not found",
+                    content = @Content(schema = @Schema(implementation = ApiErrorDto.class)))
+    })
+    public ResponseEntity<StreamingResponseBody> streamItemPriceComparing(
+            @RequestParam(name = "product_id", required = false) Long productId,
+            @RequestParam(name = "date_start") String dateStart,
+            @RequestParam(name = "date_end") String dateEnd) {
+
+        log.info("GET request for /compare-prices as {} with params: {}, {}, {}",
+                MediaType.APPLICATION_NDJSON_VALUE, productId, dateStart, dateEnd);
+
+        LocalDate dateStartConverted = LocalDate.parse(dateStart);
+        LocalDate dateEndConverted = LocalDate.parse(dateEnd).plusDays(1);
+
+        StreamingResponseBody responseBody;
+        if (productId == null) {
+            responseBody = outputStream -> itemService.streamItemsPriceComparing(dateStartConverted, dateEndConverted,
+                    productPriceComparingDto -> writeJsonLine(outputStream, productPriceComparingDto));
+        } else {
+            ProductPriceComparingDto productPriceComparingDto = itemService.getItemPriceComparing(
+                    productId, dateStartConverted, dateEndConverted);
+            responseBody = outputStream -> writeJsonLine(outputStream, productPriceComparingDto);
+        }
+
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(responseBody);
+    }
+
     @ApiResponses(value = {
             @ApiResponse(responseCode = "201", description = "Created",
                     content = @Content(schema = @Schema(implementation = ItemDto.class))),
@@ -212,6 +356,54 @@ public class ItemController {
         return new ResponseEntity<>(createdItemDto, HttpStatus.CREATED);
     }
 
+    @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE, params = "mode=" + WRITE_BEHIND_MODE)
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Accepted",
+                    content = @Content(schema = @Schema(implementation = ItemWriteTicketDto.class))),
+            @ApiResponse(responseCode = "403", description = "Forbidden",
+                    content = @Content(schema = @Schema(implementation = ApiErrorDto.class))),
+            @ApiResponse(responseCode = "503", description = "Write-behind queue is full",
+                    content = @Content(schema = @Schema(implementation = ApiErrorDto.class)))
+    })
+    public ResponseEntity<ItemWriteTicketDto> createItemWriteBehind(@Valid @RequestBody ItemDto itemDto) {
+
+        log.info("POST request for /items in {} mode with data:" +
+                        " productId {}, price {}, marketplaceId {} dateStart {}, dateEnd {}",
+                WRITE_BEHIND_MODE, itemDto.getProductForItemDto().getId(), itemDto.getPrice(),
+                itemDto.getMarketplaceForItemRequestDto().getId(),
+                itemDto.getDateStart(), itemDto.getDateEnd());
+
+        ItemWriteTicketDto itemWriteTicketDto = convertToItemWriteTicketDto(
+                itemWriteBehindService.submit(convertToCheckedItemEntity(itemDto)));
+
+        log.info("Response for POST request for /items in {} mode with ticket id {}",
+                WRITE_BEHIND_MODE, itemWriteTicketDto.getId());
+
+        return ResponseEntity.accepted().location(URI.create("/api/items/tickets/" + itemWriteTicketDto.getId()))
+                .body(itemWriteTicketDto);
+    }
+
+    @GetMapping(value = "/tickets/{id}")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "OK",
+                    content = @Content(schema = @Schema(implementation = ItemWriteTicketDto.class))),
+            @ApiResponse(responseCode = "403", description = "Forbidden",
+                    content = @Content(schema = @Schema(implementation = ApiErrorDto.class))),
+            @ApiResponse(responseCode = "404", description = "Ticket not found",
+                    content = @Content(schema = @Schema(implementation = ApiErrorDto.class)))
+    })
+    public ResponseEntity<ItemWriteTicketDto> getWriteTicket(@PathVariable String id) {
+
+        log.info("GET request for /items/tickets/{}", id);
+
+        ItemWriteTicketDto itemWriteTicketDto = convertToItemWriteTicketDto(itemWriteBehindService.getTicket(id));
+
+        log.info("Response for GET request for /items/tickets/{} with status {}, item id {}",
+                id, itemWriteTicketDto.getStatus(), itemWriteTicketDto.getItemId());
+
+        return new ResponseEntity<>(itemWriteTicketDto, HttpStatus.OK);
+    }
+
     @PostMapping(value = "/import", consumes = MediaType.APPLICATION_JSON_VALUE)
     @ApiResponses(value = {
             @ApiResponse(responseCode = "201", description = "Created",
@@ -256,6 +448,259 @@ public class ItemController {
         return new ResponseEntity<>(createdProductsOnMarketDtoList, HttpStatus.CREATED);
     }
 
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_JSON_VALUE, params = "mode=" + ASYNC_IMPORT_MODE)
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Accepted",
+                    content = @Content(schema = @Schema(implementation = ImportJobDto.class))),
+            @ApiResponse(responseCode = "403", description = "Forbidden",
+                    content = @Content(schema = @Schema(implementation = ApiErrorDto.class))),
+            @ApiResponse(responseCode = "503", description = "Import queue is full",
+                    content = @Content(schema = @Schema(implementation = ApiErrorDto.class)))
+    })
+    public ResponseEntity<ImportJobDto> importItemsAsync(
+            @Valid @RequestBody List<ItemDto> itemDtoList) {
+
+        log.info("POST request for /items/import in {} mode with {} rows", ASYNC_IMPORT_MODE, itemDtoList.size());
+
+        for (ItemDto itemDto : itemDtoList) {
+            if (itemDto.getDateEnd().isBefore((itemDto.getDateStart()))) {
+                throw new ItemBadRequestException("Date end cannot be before date start");
+            }
+        }
+
+        List<Item> itemList = MapperUtil.convertList(itemDtoList, this::convertToItemEntity);
+        ImportJobDto importJobDto = convertToImportJobDto(
+                importJobService.submit(ITEMS_IMPORT_JOB_TYPE, itemList, itemService::createItems));
+
+        log.info("Response for POST request for /items/import in {} mode with job id {}",
+                ASYNC_IMPORT_MODE, importJobDto.getId());
+
+        return ResponseEntity.accepted().location(URI.create("/api/jobs/" + importJobDto.getId())).body(importJobDto);
+    }
+
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_JSON_VALUE, params = "mode=" + STREAM_IMPORT_MODE)
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Created",
+                    content = @Content(schema = @Schema(implementation = ImportSummaryDto.class))),
+            @ApiResponse(responseCode = "400", description = "Malformed or invalid item",
+                    content = @Content(schema = @Schema(implementation = ApiErrorDto.class))),
+            @ApiResponse(responseCode = "403", description = "Forbidden",
+                    content = @Content(schema = @Schema(implementation = ApiErrorDto.class))),
+            @ApiResponse(responseCode = "404", description = "Products or marketplaces not found",
+                    content = @Content(schema = @Schema(implementation = ApiErrorDto.class))),
+            @ApiResponse(responseCode = "409", description = "Item for this period already added",
+                    content = @Content(schema = @Schema(implementation = ApiErrorDto.class)))
+    })
+    public ResponseEntity<ImportSummaryDto> importItemsStream(InputStream inputStream) {
+
+        log.info("POST request for /items/import in {} mode", STREAM_IMPORT_MODE);
+
+        JsonArrayChunkReader<ItemDto, Item> itemChunkReader = new JsonArrayChunkReader<>(objectMapper, validator,
+                inputStream, ItemDto.class, this::convertToCheckedItemEntity, IMPORT_CHUNK_SIZE);
+        ImportSummaryDto importSummaryDto = new ImportSummaryDto(itemService.createItemsInChunks(itemChunkReader));
+
+        log.info("Response for POST request for /items/import in {} mode with rows imported {}",
+                STREAM_IMPORT_MODE, importSummaryDto.getRowsImported());
+
+        return new ResponseEntity<>(importSummaryDto, HttpStatus.CREATED);
+    }
+
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_JSON_VALUE, params = "mode=" + CHUNKED_IMPORT_MODE)
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "OK",
+                    content = @Content(schema = @Schema(implementation = ItemImportReportDto.class))),
+            @ApiResponse(responseCode = "400", description = "Malformed json",
+                    content = @Content(schema = @Schema(implementation = ApiErrorDto.class))),
+            @ApiResponse(responseCode = "403", description = "Forbidden",
+                    content = @Content(schema = @Schema(implementation = ApiErrorDto.class)))
+    })
+    public ResponseEntity<ItemImportReportDto> importItemsChunked(InputStream inputStream) {
+
+        log.info("POST request for /items/import in {} mode", CHUNKED_IMPORT_MODE);
+
+        AtomicLong rowCounter = new AtomicLong();
+        JsonArrayChunkReader<ItemDto, ItemImportRow> rowChunkReader = new JsonArrayChunkReader<>(objectMapper,
+                inputStream, ItemDto.class, itemDto -> convertToItemImportRow(rowCounter.getAndIncrement(), itemDto),
+                IMPORT_CHUNK_SIZE);
+        ItemImportReportDto itemImportReportDto =
+                convertToItemImportReportDto(itemService.importItemsInChunks(rowChunkReader));
+
+        log.info("Response for POST request for /items/import in {} mode with rows accepted {}, overlapping {}," +
+                        " invalid {}", CHUNKED_IMPORT_MODE, itemImportReportDto.getRowsAccepted(),
+                itemImportReportDto.getRowsOverlapping(), itemImportReportDto.getRowsInvalid());
+
+        return new ResponseEntity<>(itemImportReportDto, HttpStatus.OK);
+    }
+
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_JSON_VALUE, params = "mode=" + UPSERT_IMPORT_MODE)
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "OK",
+                    content = @Content(schema = @Schema(implementation = ItemImportReportDto.class))),
+            @ApiResponse(responseCode = "403", description = "Forbidden",
+                    content = @Content(schema = @Schema(implementation = ApiErrorDto.class))),
+            @ApiResponse(responseCode = "409", description = "Concurrent import of the same period",
+                    content = @Content(schema = @Schema(implementation = ApiErrorDto.class)))
+    })
+    public ResponseEntity<ItemImportReportDto> importItemsUpsert(@RequestBody List<ItemDto> itemDtoList) {
+
+        log.info("POST request for /items/import in {} mode with {} rows", UPSERT_IMPORT_MODE, itemDtoList.size());
+
+        List<ItemImportRow> rowList = new ArrayList<>(itemDtoList.size());
+        for (int i = 0; i < itemDtoList.size(); i++) {
+            rowList.add(convertToItemImportRow(i, itemDtoList.get(i)));
+        }
+        ItemImportReportDto itemImportReportDto = convertToItemImportReportDto(itemService.upsertItems(rowList));
+
+        log.info("Response for POST request for /items/import in {} mode with {} rows accepted, {} merged," +
+                        " {} unchanged, {} overlapping, {} invalid",
+                UPSERT_IMPORT_MODE, itemImportReportDto.getRowsAccepted(), itemImportReportDto.getRowsMerged(),
+                itemImportReportDto.getRowsUnchanged(), itemImportReportDto.getRowsOverlapping(),
+                itemImportReportDto.getRowsInvalid());
+
+        return new ResponseEntity<>(itemImportReportDto, HttpStatus.OK);
+    }
+
+    @PostMapping(value = "/import.csv", consumes = CSV_MEDIA_TYPE)
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Created",
+                    content = @Content(schema = @Schema(implementation = ItemCsvImportDto.class))),
+            @ApiResponse(responseCode = "400", description = "Malformed csv",
+                    content = @Content(schema = @Schema(implementation = ApiErrorDto.class))),
+            @ApiResponse(responseCode = "403", description = "Forbidden",
+                    content = @Content(schema = @Schema(implementation = ApiErrorDto.class)))
+    })
+    public ResponseEntity<ItemCsvImportDto> importItemsCsv(InputStream inputStream) {
+
+        log.info("POST request for /items/import.csv");
+
+        ItemCsvImportDto itemCsvImportDto =
+                modelMapper.map(itemService.importItemsFromCsv(inputStream), ItemCsvImportDto.class);
+
+        log.info("Response for POST request for /items/import.csv with rows received {}, imported {}, rejected {}",
+                itemCsvImportDto.getRowsReceived(), itemCsvImportDto.getRowsImported(),
+                itemCsvImportDto.getRowsRejected());
+        log.info("Rejected rows of /items/import.csv: missing value {}, non-positive price {}, empty period {}," +
+                        " unknown product {}, unknown marketplace {}, overlapping {}",
+                itemCsvImportDto.getRowsMissingValue(), itemCsvImportDto.getRowsNonPositivePrice(),
+                itemCsvImportDto.getRowsEmptyPeriod(), itemCsvImportDto.getRowsUnknownProduct(),
+                itemCsvImportDto.getRowsUnknownMarketplace(), itemCsvImportDto.getRowsOverlapping());
+
+        return new ResponseEntity<>(itemCsvImportDto, HttpStatus.CREATED);
+    }
+
+    @GetMapping("/daily-prices")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "OK",
+                    content = @Content(schema = @Schema(implementation = DailyPriceDto.class))),
+            @ApiResponse(responseCode = "400", description = "Either product or category must be set",
+                    content = @Content(schema = @Schema(implementation = ApiErrorDto.class))),
+            @ApiResponse(responseCode = "403", description = "Forbidden",
+                    content = @Content(schema = @Schema(implementation = ApiErrorDto.class))),
+            @ApiResponse(responseCode = "404", description = "Prices for this period not found",
+                    content = @Content(schema = @Schema(implementation = ApiErrorDto.class)))
+    })
+    public ResponseEntity<List<DailyPriceDto>> getDailyPrices(
+            @RequestParam(name = "product_id", required = false) Long productId,
+            @RequestParam(name = "category_id", required = false) Long categoryId,
+            @RequestParam(name = "date_start") String dateStart,
+            @RequestParam(name = "date_end") String dateEnd) {
+
+        log.info("GET request for /items/daily-prices with params: {}, {}, {}, {}",
+                productId, categoryId, dateStart, dateEnd);
+
+        if ((productId == null) == (categoryId == null)) {
+            throw new ItemBadRequestException("Either product_id or category_id must be set");
+        }
+
+        LocalDate dateStartConverted = LocalDate.parse(dateStart);
+        LocalDate dateEndConverted = LocalDate.parse(dateEnd).plusDays(1);
+
+        List<DailyPriceStats> dailyPriceStatsList = productId != null ?
+                dailyPriceService.getProductDailyPrices(productId, dateStartConverted, dateEndConverted) :
+                dailyPriceService.getCategoryDailyPrices(categoryId, dateStartConverted, dateEndConverted);
+        List<DailyPriceDto> dailyPriceDtoList = MapperUtil.convertList(dailyPriceStatsList,
+                dailyPriceStats -> modelMapper.map(dailyPriceStats, DailyPriceDto.class));
+
+        log.info("Response for GET request for /items/daily-prices with {} days", dailyPriceDtoList.size());
+
+        return new ResponseEntity<>(dailyPriceDtoList, HttpStatus.OK);
+    }
+
+    @PostMapping(value = "/daily-prices/rebuild")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "OK"),
+            @ApiResponse(responseCode = "403", description = "Forbidden",
+                    content = @Content(schema = @Schema(implementation = ApiErrorDto.class)))
+    })
+    public ResponseEntity<Long> rebuildDailyPrices() {
+
+        log.info("POST request for /items/daily-prices/rebuild");
+
+        long rebuilt = dailyPriceService.rebuild();
+
+        log.info("Response for POST request for /items/daily-prices/rebuild with {} rows", rebuilt);
+
+        return new ResponseEntity<>(rebuilt, HttpStatus.OK);
+    }
+
+    @GetMapping(value = "/compaction")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "OK",
+                    content = @Content(schema = @Schema(implementation = ItemCompactionReportDto.class))),
+            @ApiResponse(responseCode = "403", description = "Forbidden",
+                    content = @Content(schema = @Schema(implementation = ApiErrorDto.class))),
+            @ApiResponse(responseCode = "404", description = "No compaction pass finished yet",
+                    content = @Content(schema = @Schema(implementation = ApiErrorDto.class)))
+    })
+    public ResponseEntity<ItemCompactionReportDto> getLastCompactionReport() {
+
+        log.info("GET request for /items/compaction");
+
+        ItemCompactionReportDto itemCompactionReportDto =
+                modelMapper.map(itemCompactionService.getLastReport(), ItemCompactionReportDto.class);
+
+        log.info("Response for GET request for /items/compaction with {} rows removed, {} bytes reclaimed",
+                itemCompactionReportDto.getRowsRemoved(), itemCompactionReportDto.getBytesReclaimed());
+
+        return new ResponseEntity<>(itemCompactionReportDto, HttpStatus.OK);
+    }
+
+    @PostMapping(value = "/partitions/detach")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "OK"),
+            @ApiResponse(responseCode = "400", description = "Partitions of the current quarter cannot be detached",
+                    content = @Content(schema = @Schema(implementation = ApiErrorDto.class))),
+            @ApiResponse(responseCode = "403", description = "Forbidden",
+                    content = @Content(schema = @Schema(implementation = ApiErrorDto.class)))
+    })
+    public ResponseEntity<List<String>> detachPartitions(@RequestParam(name = "before") String before) {
+
+        log.info("POST request for /items/partitions/detach with params: {}", before);
+
+        List<String> detachedPartitions = itemPartitionService.detachPartitionsBefore(LocalDate.parse(before));
+
+        log.info("Response for POST request for /items/partitions/detach with data {}", detachedPartitions);
+
+        return new ResponseEntity<>(detachedPartitions, HttpStatus.OK);
+    }
+
+    @PostMapping(value = "/partitions/split-default")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "OK"),
+            @ApiResponse(responseCode = "403", description = "Forbidden",
+                    content = @Content(schema = @Schema(implementation = ApiErrorDto.class)))
+    })
+    public ResponseEntity<Long> splitDefaultPartition(@RequestParam(name = "date") String date) {
+
+        log.info("POST request for /items/partitions/split-default with params: {}", date);
+
+        long moved = itemPartitionService.splitDefaultPartition(LocalDate.parse(date));
+
+        log.info("Response for POST request for /items/partitions/split-default with data {}", moved);
+
+        return new ResponseEntity<>(moved, HttpStatus.OK);
+    }
+
     @DeleteMapping(value = "/{serial-number}")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "OK",
@@ -276,6 +721,20 @@ public class ItemController {
         return new ResponseEntity<>("Item deleted successfully", HttpStatus.OK);
     }
 
+    private boolean isAccepted(String accept, String mediaType) {
+        if (accept == null) {
+            return false;
+        }
+
+        try {
+            return MediaType.parseMediaTypes(accept).stream().anyMatch(acceptedMediaType ->
+                    acceptedMediaType.equalsTypeAndSubtype(MediaType.valueOf(mediaType)));
+        } catch (InvalidMediaTypeException e) {
+            log.info("Malformed Accept header {} is treated as not accepting {}", accept, mediaType);
+            return false;
+        }
+    }
+
     private ItemDto convertToItemDto(Item item) {
         ProductForItemDto productForItemDto = modelMapper.map(item.getProduct(), ProductForItemDto.class);
         MarketplaceForItemRequestDto marketplaceForItemRequestDto
@@ -290,4 +749,70 @@ public class ItemController {
     private Item convertToItemEntity(ItemDto itemDto) {
         return modelMapper.map(itemDto, Item.class);
     }
+
+    private Item convertToCheckedItemEntity(ItemDto itemDto) {
+        if (itemDto.getDateEnd().isBefore((itemDto.getDateStart()))) {
+            throw new ItemBadRequestException("Date end cannot be before date start");
+        }
+
+        return convertToItemEntity(itemDto);
+    }
+
+    private ItemImportRow convertToItemImportRow(long row, ItemDto itemDto) {
+        Set<ConstraintViolation<ItemDto>> violations = validator.validate(itemDto);
+        if (!violations.isEmpty()) {
+            List<String> errors = new ArrayList<>();
+            for (ConstraintViolation<ItemDto> violation : violations) {
+                errors.add(violation.getPropertyPath() + ": " + violation.getMessage());
+            }
+            return ItemImportRow.invalid(row, String.join(", ", errors));
+        }
+        if (itemDto.getDateEnd().isBefore((itemDto.getDateStart()))) {
+            return ItemImportRow.invalid(row, "Date end cannot be before date start");
+        }
+
+        return ItemImportRow.valid(row, convertToItemEntity(itemDto));
+    }
+
+    private ItemImportReportDto convertToItemImportReportDto(List<ItemImportRowResult> rowResultList) {
+        long rowsAccepted = 0;
+        long rowsMerged = 0;
+        long rowsUnchanged = 0;
+        long rowsOverlapping = 0;
+        List<ItemImportRowDto> itemImportRowDtoList = new ArrayList<>(rowResultList.size());
+        for (ItemImportRowResult rowResult : rowResultList) {
+            if (rowResult.getStatus() == ItemImportRowStatus.ACCEPTED) {
+                rowsAccepted++;
+            } else if (rowResult.getStatus() == ItemImportRowStatus.MERGED) {
+                rowsMerged++;
+            } else if (rowResult.getStatus() == ItemImportRowStatus.UNCHANGED) {
+                rowsUnchanged++;
+            } else if (rowResult.getStatus() == ItemImportRowStatus.OVERLAP) {
+                rowsOverlapping++;
+            }
+            itemImportRowDtoList.add(modelMapper.map(rowResult, ItemImportRowDto.class));
+        }
+
+        return new ItemImportReportDto(rowsAccepted, rowsMerged, rowsUnchanged, rowsOverlapping,
+                rowResultList.size() - rowsAccepted - rowsMerged - rowsUnchanged - rowsOverlapping,
+                itemImportRowDtoList);
+    }
+
+    private ItemWriteTicketDto convertToItemWriteTicketDto(ItemWriteTicket itemWriteTicket) {
+        return modelMapper.map(itemWriteTicket, ItemWriteTicketDto.class);
+    }
+
+    private ImportJobDto convertToImportJobDto(ImportJob importJob) {
+        return modelMapper.map(importJob, ImportJobDto.class);
+    }
+
+    private void writeJsonLine(OutputStream outputStream, Object value) {
+        try {
+            outputStream.write(objectMapper.writeValueAsBytes(value));
+            outputStream.write('\n');
+            outputStream.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 }
@@ -0,0 +1,57 @@
+package ru.tokarev.controller;
+
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import lombok.extern.slf4j.Slf4j;
+import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import ru.tokarev.dto.ApiErrorDto;
+import ru.tokarev.dto.ImportJobDto;
+import ru.tokarev.service.jobservice.ImportJob;
+import ru.tokarev.service.jobservice.ImportJobService;
+
+@Slf4j
+@RequestMapping("/api/jobs")
+@RestController
+public class JobController {
+
+    private final ImportJobService importJobService;
+
+    private final ModelMapper modelMapper;
+
+    @Autowired
+    public JobController(ImportJobService importJobService, ModelMapper modelMapper) {
+        this.importJobService = importJobService;
+        this.modelMapper = modelMapper;
+    }
+
+    @GetMapping(value = "/{id}")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "OK",
+                    content = @Content(schema = @Schema(implementation = ImportJobDto.class))),
+            @ApiResponse(responseCode = "403", description = "Forbidden",
+                    content = @Content(schema = @Schema(implementation = ApiErrorDto.class))),
+            @ApiResponse(responseCode = "404", description = "Job not found",
+                    content = @Content(schema = @Schema(implementation = ApiErrorDto.class)))
+    })
+    public ResponseEntity<ImportJobDto> getById(@PathVariable String id) {
+
+        log.info("GET request for /jobs/{}", id);
+
+        ImportJobDto importJobDto = convertToImportJobDto(importJobService.getById(id));
+
+        log.info("Response for GET request for /jobs/{} with status {}, rows processed {}, rows per second {}",
+                id, importJobDto.getStatus(), importJobDto.getRowsProcessed(), importJobDto.getRowsPerSecond());
+
+        return new ResponseEntity<>(importJobDto, HttpStatus.OK);
+    }
+
+    private ImportJobDto convertToImportJobDto(ImportJob importJob) {
+        return modelMapper.map(importJob, ImportJobDto.class);
+    }
+}
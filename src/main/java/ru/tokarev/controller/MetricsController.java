@@ -0,0 +1,96 @@
+package ru.tokarev.controller;
+
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import lombok.extern.slf4j.Slf4j;
+import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import ru.tokarev.dto.ApiErrorDto;
+import ru.tokarev.dto.ItemResultCacheStatsDto;
+import ru.tokarev.dto.PasswordHashingStatsDto;
+import ru.tokarev.dto.RateLimitStatsDto;
+import ru.tokarev.service.metricsservice.MetricsService;
+
+@Slf4j
+@RequestMapping("/api/metrics")
+@RestController
+public class MetricsController {
+
+    private final MetricsService metricsService;
+
+    private final ModelMapper modelMapper;
+
+    @Autowired
+    public MetricsController(MetricsService metricsService, ModelMapper modelMapper) {
+        this.metricsService = metricsService;
+        this.modelMapper = modelMapper;
+    }
+
+    @GetMapping(value = "/item-result-cache")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "OK",
+                    content = @Content(schema = @Schema(implementation = ItemResultCacheStatsDto.class))),
+            @ApiResponse(responseCode = "403", description = "Forbidden",
+                    content = @Content(schema = @Schema(implementation = ApiErrorDto.class)))
+    })
+    public ResponseEntity<ItemResultCacheStatsDto> getItemResultCacheStats() {
+
+        log.info("GET request for /metrics/item-result-cache");
+
+        ItemResultCacheStatsDto itemResultCacheStatsDto =
+                modelMapper.map(metricsService.getItemResultCacheStats(), ItemResultCacheStatsDto.class);
+
+        log.info("Response for GET request for /metrics/item-result-cache with {} hits, {} misses, {} evictions",
+                itemResultCacheStatsDto.getHitCount(), itemResultCacheStatsDto.getMissCount(),
+                itemResultCacheStatsDto.getEvictionCount());
+
+        return new ResponseEntity<>(itemResultCacheStatsDto, HttpStatus.OK);
+    }
+
+    @GetMapping(value = "/password-hashing")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "OK",
+                    content = @Content(schema = @Schema(implementation = PasswordHashingStatsDto.class))),
+            @ApiResponse(responseCode = "403", description = "Forbidden",
+                    content = @Content(schema = @Schema(implementation = ApiErrorDto.class)))
+    })
+    public ResponseEntity<PasswordHashingStatsDto> getPasswordHashingStats() {
+
+        log.info("GET request for /metrics/password-hashing");
+
+        PasswordHashingStatsDto passwordHashingStatsDto =
+                modelMapper.map(metricsService.getPasswordHashingStats(), PasswordHashingStatsDto.class);
+
+        log.info("Response for GET request for /metrics/password-hashing with queue depth {}, {} completed, " +
+                        "{} rejected", passwordHashingStatsDto.getQueueDepth(),
+                passwordHashingStatsDto.getCompletedCount(), passwordHashingStatsDto.getRejectedCount());
+
+        return new ResponseEntity<>(passwordHashingStatsDto, HttpStatus.OK);
+    }
+
+    @GetMapping(value = "/rate-limit")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "OK",
+                    content = @Content(schema = @Schema(implementation = RateLimitStatsDto.class))),
+            @ApiResponse(responseCode = "403", description = "Forbidden",
+                    content = @Content(schema = @Schema(implementation = ApiErrorDto.class)))
+    })
+    public ResponseEntity<RateLimitStatsDto> getRateLimitStats() {
+
+        log.info("GET request for /metrics/rate-limit");
+
+        RateLimitStatsDto rateLimitStatsDto = modelMapper.map(metricsService.getRateLimitStats(),
+                RateLimitStatsDto.class);
+
+        log.info("Response for GET request for /metrics/rate-limit with {} allowed, {} crud rejected, " +
+                        "{} analytics rejected", rateLimitStatsDto.getAllowedCount(),
+                rateLimitStatsDto.getCrudRejectedCount(), rateLimitStatsDto.getAnalyticsRejectedCount());
+
+        return new ResponseEntity<>(rateLimitStatsDto, HttpStatus.OK);
+    }
+}
@@ -1,5 +1,6 @@
 package ru.tokarev.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -13,13 +14,21 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import ru.tokarev.dto.ApiErrorDto;
 import ru.tokarev.dto.CategoryDto;
+import ru.tokarev.dto.ImportJobDto;
+import ru.tokarev.dto.ImportSummaryDto;
 import ru.tokarev.dto.productdto.CategoryForProductRequestDto;
 import ru.tokarev.dto.productdto.ProductDto;
 import ru.tokarev.entity.Product;
+import ru.tokarev.service.jobservice.ImportJob;
+import ru.tokarev.service.jobservice.ImportJobService;
 import ru.tokarev.service.productservice.ProductService;
+import ru.tokarev.utils.JsonArrayChunkReader;
 import ru.tokarev.utils.MapperUtil;
 
 import javax.validation.Valid;
+import javax.validation.Validator;
+import java.io.InputStream;
+import java.net.URI;
 import java.util.List;
 
 @Slf4j
@@ -27,14 +36,32 @@ import java.util.List;
 @RestController
 public class ProductController {
 
+    private static final String ASYNC_IMPORT_MODE = "async";
+
+    private static final String PRODUCTS_IMPORT_JOB_TYPE = "products";
+
+    private static final String STREAM_IMPORT_MODE = "stream";
+
+    private static final int IMPORT_CHUNK_SIZE = 1000;
+
     private final ProductService productService;
 
     private final ModelMapper modelMapper;
 
+    private final ImportJobService importJobService;
+
+    private final ObjectMapper objectMapper;
+
+    private final Validator validator;
+
     @Autowired
-    public ProductController(ProductService productService, ModelMapper modelMapper) {
+    public ProductController(ProductService productService, ModelMapper modelMapper,
+                             ImportJobService importJobService, ObjectMapper objectMapper, Validator validator) {
         this.productService = productService;
         this.modelMapper = modelMapper;
+        this.importJobService = importJobService;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
     }
 
     @GetMapping
@@ -139,6 +166,54 @@ public class ProductController {
         return new ResponseEntity<>(createdProductDtoList, HttpStatus.CREATED);
     }
 
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_JSON_VALUE, params = "mode=" + ASYNC_IMPORT_MODE)
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Accepted",
+                    content = @Content(schema = @Schema(implementation = ImportJobDto.class))),
+            @ApiResponse(responseCode = "403", description = "Forbidden",
+                    content = @Content(schema = @Schema(implementation = ApiErrorDto.class))),
+            @ApiResponse(responseCode = "503", description = "Import queue is full",
+                    content = @Content(schema = @Schema(implementation = ApiErrorDto.class)))
+    })
+    public ResponseEntity<ImportJobDto> createProductsAsync(@Valid @RequestBody List<ProductDto> productDtoList) {
+
+        log.info("POST request for /products/import in {} mode with {} rows",
+                ASYNC_IMPORT_MODE, productDtoList.size());
+
+        List<Product> productList = MapperUtil.convertList(productDtoList, this::convertToProductEntity);
+        ImportJobDto importJobDto = convertToImportJobDto(
+                importJobService.submit(PRODUCTS_IMPORT_JOB_TYPE, productList, productService::createProducts));
+
+        log.info("Response for POST request for /products/import in {} mode with job id {}",
+                ASYNC_IMPORT_MODE, importJobDto.getId());
+
+        return ResponseEntity.accepted().location(URI.create("/api/jobs/" + importJobDto.getId())).body(importJobDto);
+    }
+
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_JSON_VALUE, params = "mode=" + STREAM_IMPORT_MODE)
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Created",
+                    content = @Content(schema = @Schema(implementation = ImportSummaryDto.class))),
+            @ApiResponse(responseCode = "403", description = "Forbidden",
+                    content = @Content(schema = @Schema(implementation = ApiErrorDto.class))),
+            @ApiResponse(responseCode = "401", description = "Bad request",
+                    content = @Content(schema = @Schema(implementation = ApiErrorDto.class)))
+    })
+    public ResponseEntity<ImportSummaryDto> createProductsStream(InputStream inputStream) {
+
+        log.info("POST request for /products/import in {} mode", STREAM_IMPORT_MODE);
+
+        JsonArrayChunkReader<ProductDto, Product> productChunkReader = new JsonArrayChunkReader<>(objectMapper,
+                validator, inputStream, ProductDto.class, this::convertToProductEntity, IMPORT_CHUNK_SIZE);
+        ImportSummaryDto importSummaryDto =
+                new ImportSummaryDto(productService.createProductsInChunks(productChunkReader));
+
+        log.info("Response for POST request for /products/import in {} mode with rows imported {}",
+                STREAM_IMPORT_MODE, importSummaryDto.getRowsImported());
+
+        return new ResponseEntity<>(importSummaryDto, HttpStatus.CREATED);
+    }
+
     @PatchMapping(value = "/{id}", consumes = MediaType.APPLICATION_JSON_VALUE)
     @ApiResponses(value = {
             @ApiResponse(responseCode = "201", description = "Created",
@@ -198,4 +273,8 @@ public class ProductController {
     private Product convertToProductEntity(ProductDto productDto) {
         return modelMapper.map(productDto, Product.class);
     }
+
+    private ImportJobDto convertToImportJobDto(ImportJob importJob) {
+        return modelMapper.map(importJob, ImportJobDto.class);
+    }
 }
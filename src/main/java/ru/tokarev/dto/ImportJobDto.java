@@ -0,0 +1,37 @@
+package ru.tokarev.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportJobDto {
+
+    private String id;
+
+    private String type;
+
+    private String status;
+
+    private Long totalRows;
+
+    private Long rowsProcessed;
+
+    private String committedRowRange;
+
+    private Double rowsPerSecond;
+
+    private List<String> errors;
+
+    private String createdAt;
+
+    private String startedAt;
+
+    private String finishedAt;
+}
@@ -0,0 +1,15 @@
+package ru.tokarev.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportSummaryDto {
+
+    private Long rowsImported;
+}
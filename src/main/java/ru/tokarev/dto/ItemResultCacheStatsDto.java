@@ -0,0 +1,29 @@
+package ru.tokarev.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemResultCacheStatsDto {
+
+    private Long hitCount;
+
+    private Long missCount;
+
+    private Double hitRate;
+
+    private Long evictionCount;
+
+    private Long evictionWeight;
+
+    private Long estimatedSize;
+
+    private Long weightedSize;
+
+    private Long maximumWeight;
+}
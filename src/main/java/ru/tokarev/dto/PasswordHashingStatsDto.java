@@ -0,0 +1,33 @@
+package ru.tokarev.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PasswordHashingStatsDto {
+
+    private Integer threads;
+
+    private Integer activeThreads;
+
+    private Integer queueDepth;
+
+    private Integer queueCapacity;
+
+    private Long completedCount;
+
+    private Long rejectedCount;
+
+    private Long timedOutCount;
+
+    private Double averageHashMillis;
+
+    private Double maxHashMillis;
+
+    private Double averageQueueWaitMillis;
+}
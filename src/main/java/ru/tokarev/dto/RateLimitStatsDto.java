@@ -0,0 +1,23 @@
+package ru.tokarev.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class RateLimitStatsDto {
+
+    private Boolean enabled;
+
+    private Long trackedBuckets;
+
+    private Long allowedCount;
+
+    private Long crudRejectedCount;
+
+    private Long analyticsRejectedCount;
+}
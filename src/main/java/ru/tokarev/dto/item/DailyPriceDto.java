@@ -0,0 +1,23 @@
+package ru.tokarev.dto.item;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailyPriceDto {
+
+    private String day;
+
+    private Long minPrice;
+
+    private Long maxPrice;
+
+    private Double avgPrice;
+
+    private Long priceCount;
+}
@@ -0,0 +1,25 @@
+package ru.tokarev.dto.item;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemCompactionReportDto {
+
+    private String startedAt;
+
+    private String finishedAt;
+
+    private Long seriesScanned;
+
+    private Long rowsRemoved;
+
+    private Long bytesReclaimed;
+
+    private Boolean completed;
+}
@@ -0,0 +1,31 @@
+package ru.tokarev.dto.item;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemCsvImportDto {
+
+    private Long rowsReceived;
+
+    private Long rowsImported;
+
+    private Long rowsRejected;
+
+    private Long rowsMissingValue;
+
+    private Long rowsNonPositivePrice;
+
+    private Long rowsEmptyPeriod;
+
+    private Long rowsUnknownProduct;
+
+    private Long rowsUnknownMarketplace;
+
+    private Long rowsOverlapping;
+}
@@ -0,0 +1,27 @@
+package ru.tokarev.dto.item;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemImportReportDto {
+
+    private Long rowsAccepted;
+
+    private Long rowsMerged;
+
+    private Long rowsUnchanged;
+
+    private Long rowsOverlapping;
+
+    private Long rowsInvalid;
+
+    private List<ItemImportRowDto> rows;
+}
@@ -0,0 +1,21 @@
+package ru.tokarev.dto.item;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemImportRowDto {
+
+    private Long row;
+
+    private String status;
+
+    private Long itemId;
+
+    private String message;
+}
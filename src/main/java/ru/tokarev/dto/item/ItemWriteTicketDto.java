@@ -0,0 +1,25 @@
+package ru.tokarev.dto.item;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemWriteTicketDto {
+
+    private String id;
+
+    private String status;
+
+    private Long itemId;
+
+    private String message;
+
+    private String createdAt;
+
+    private String completedAt;
+}
@@ -0,0 +1,21 @@
+package ru.tokarev.dto.item;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductPriceColumnsDto {
+
+    private String productName;
+
+    private String marketplaceName;
+
+    private int[] epochDays;
+
+    private int[] prices;
+}
@@ -0,0 +1,21 @@
+package ru.tokarev.dto.item;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductPriceIntervalsDto {
+
+    private String productName;
+
+    private String marketplaceName;
+
+    private List<PriceIntervalDto> priceIntervalDtoList;
+}
@@ -0,0 +1,21 @@
+package ru.tokarev.entity.item;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDate;
+
+@Getter
+@AllArgsConstructor
+public class DailyPriceStats {
+
+    private final LocalDate day;
+
+    private final Long minPrice;
+
+    private final Long maxPrice;
+
+    private final Double avgPrice;
+
+    private final Long priceCount;
+}
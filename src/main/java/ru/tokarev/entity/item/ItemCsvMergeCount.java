@@ -0,0 +1,29 @@
+package ru.tokarev.entity.item;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class ItemCsvMergeCount {
+
+    public static final String IMPORTED = "IMPORTED";
+
+    public static final String MISSING_VALUE = "MISSING_VALUE";
+
+    public static final String NON_POSITIVE_PRICE = "NON_POSITIVE_PRICE";
+
+    public static final String EMPTY_PERIOD = "EMPTY_PERIOD";
+
+    public static final String UNKNOWN_PRODUCT = "UNKNOWN_PRODUCT";
+
+    public static final String UNKNOWN_MARKETPLACE = "UNKNOWN_MARKETPLACE";
+
+    public static final String OVERLAPPING = "OVERLAPPING";
+
+    private final String status;
+
+    private final Long productId;
+
+    private final long rowCount;
+}
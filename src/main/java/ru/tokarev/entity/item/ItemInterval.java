@@ -0,0 +1,23 @@
+package ru.tokarev.entity.item;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDate;
+
+@Getter
+@AllArgsConstructor
+public class ItemInterval {
+
+    private final Long id;
+
+    private final Long productId;
+
+    private final Long marketplaceId;
+
+    private final Integer price;
+
+    private final LocalDate dateStart;
+
+    private final LocalDate dateEnd;
+}
@@ -0,0 +1,25 @@
+package ru.tokarev.entity.item;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDate;
+
+@Getter
+@AllArgsConstructor
+public class NamedItemInterval {
+
+    private final Long id;
+
+    private final Long productId;
+
+    private final String productName;
+
+    private final String marketplaceName;
+
+    private final Integer price;
+
+    private final LocalDate dateStart;
+
+    private final LocalDate dateEnd;
+}
@@ -1,5 +1,6 @@
 package ru.tokarev.exception;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import org.modelmapper.MappingException;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpHeaders;
@@ -29,10 +30,14 @@ import ru.tokarev.exception.categoryexception.CategoryExistsException;
 import ru.tokarev.exception.categoryexception.CategoryNotFoundException;
 import ru.tokarev.exception.itemexception.ItemBadRequestException;
 import ru.tokarev.exception.itemexception.ItemExistsException;
+import ru.tokarev.exception.itemexception.ItemImportInterruptedException;
 import ru.tokarev.exception.itemexception.ItemNotFoundException;
+import ru.tokarev.exception.jobexception.JobNotFoundException;
+import ru.tokarev.exception.jobexception.JobRejectedException;
 import ru.tokarev.exception.marketplaceexception.MarketPlaceBadRequestException;
 import ru.tokarev.exception.marketplaceexception.MarketPlaceExistsException;
 import ru.tokarev.exception.marketplaceexception.MarketPlaceNotFoundException;
+import ru.tokarev.exception.passwordexception.PasswordHashingRejectedException;
 import ru.tokarev.exception.productexception.ProductBadRequestException;
 import ru.tokarev.exception.productexception.ProductExistsException;
 import ru.tokarev.exception.productexception.ProductNotFoundException;
@@ -41,8 +46,11 @@ import ru.tokarev.exception.userexception.UserBadRequestException;
 import ru.tokarev.exception.userexception.UserExistsException;
 import ru.tokarev.exception.userexception.UserNotFoundException;
 
+import javax.persistence.EntityExistsException;
+import javax.persistence.EntityNotFoundException;
 import javax.validation.ConstraintViolation;
 import javax.validation.ConstraintViolationException;
+import java.io.UncheckedIOException;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Date;
@@ -51,6 +59,10 @@ import java.util.List;
 @ControllerAdvice
 public class ControllerAdviser extends ResponseEntityExceptionHandler {
 
+    private static final String EXCLUSION_VIOLATION_SQL_STATE = "23P01";
+
+    private static final String SERVICE_OVERLOADED_RETRY_AFTER_SECONDS = "1";
+
     @Override
     protected ResponseEntity<Object> handleMethodArgumentNotValid(
             MethodArgumentNotValidException ex,
@@ -115,6 +127,11 @@ public class ControllerAdviser extends ResponseEntityExceptionHandler {
 
             org.postgresql.util.PSQLException consEx =
                     (org.postgresql.util.PSQLException) cause;
+            if (EXCLUSION_VIOLATION_SQL_STATE.equals(consEx.getSQLState())) {
+                return handleEntityExistsException(
+                        new ItemExistsException("Product for this period already added"), request);
+            }
+
             final List<String> errors = new ArrayList<>();
             errors.add(consEx.getMessage());
 
@@ -125,6 +142,18 @@ public class ControllerAdviser extends ResponseEntityExceptionHandler {
                 List.of("Error occurred"), (ServletWebRequest) request);
     }
 
+    @ExceptionHandler({UncheckedIOException.class})
+    protected ResponseEntity<Object> handleUncheckedIOException(UncheckedIOException ex, WebRequest request) {
+
+        if (ex.getCause() instanceof JsonProcessingException) {
+            return buildApiErrorDto(HttpStatus.BAD_REQUEST.value(), "Bad request",
+                    List.of(((JsonProcessingException) ex.getCause()).getOriginalMessage()),
+                    (ServletWebRequest) request);
+        }
+        return buildApiErrorDto(HttpStatus.INTERNAL_SERVER_ERROR.value(), "Internal server error",
+                List.of("Error occurred"), (ServletWebRequest) request);
+    }
+
     @ExceptionHandler({MethodArgumentTypeMismatchException.class})
     protected ResponseEntity<Object> handleMethodArgumentTypeMismatch(
             MethodArgumentTypeMismatchException ex, WebRequest request) {
@@ -220,7 +249,7 @@ public class ControllerAdviser extends ResponseEntityExceptionHandler {
 
     @ExceptionHandler({UserNotFoundException.class, CategoryNotFoundException.class,
             MarketPlaceNotFoundException.class, RoleNotFoundException.class, ProductNotFoundException.class,
-            ItemNotFoundException.class})
+            ItemNotFoundException.class, JobNotFoundException.class})
     protected ResponseEntity<Object> handleEntityNotFoundException(Exception ex, WebRequest request) {
 
         return buildApiErrorDto(HttpStatus.NOT_FOUND.value(), "Not found",
@@ -228,6 +257,43 @@ public class ControllerAdviser extends ResponseEntityExceptionHandler {
 
     }
 
+    @ExceptionHandler({ItemImportInterruptedException.class})
+    protected ResponseEntity<Object> handleItemImportInterruptedException(ItemImportInterruptedException ex,
+                                                                          WebRequest request) {
+
+        Throwable cause = ex.getCause();
+        HttpStatus status = HttpStatus.INTERNAL_SERVER_ERROR;
+        String causeMessage = "Error occurred";
+        if (cause instanceof EntityExistsException) {
+            status = HttpStatus.CONFLICT;
+            causeMessage = cause.getMessage();
+        } else if (cause instanceof EntityNotFoundException) {
+            status = HttpStatus.NOT_FOUND;
+            causeMessage = cause.getLocalizedMessage();
+        } else if (cause instanceof UncheckedIOException && cause.getCause() instanceof JsonProcessingException) {
+            status = HttpStatus.BAD_REQUEST;
+            causeMessage = ((JsonProcessingException) cause.getCause()).getOriginalMessage();
+        } else if (cause instanceof ConstraintViolationException || cause instanceof ItemBadRequestException ||
+                cause instanceof MappingException) {
+            status = HttpStatus.BAD_REQUEST;
+            causeMessage = cause.getLocalizedMessage();
+        }
+
+        return buildApiErrorDto(status.value(), status.getReasonPhrase(), List.of(causeMessage, ex.getMessage()),
+                (ServletWebRequest) request);
+    }
+
+    @ExceptionHandler({JobRejectedException.class, PasswordHashingRejectedException.class})
+    protected ResponseEntity<Object> handleServiceOverloadedException(Exception ex, WebRequest request) {
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, SERVICE_OVERLOADED_RETRY_AFTER_SECONDS);
+
+        return buildApiErrorDto(HttpStatus.SERVICE_UNAVAILABLE.value(), "Service unavailable",
+                List.of(ex.getLocalizedMessage()), (ServletWebRequest) request, headers);
+
+    }
+
     @ExceptionHandler({Exception.class})
     public ResponseEntity<Object> handleAll(Exception ex, WebRequest request) {
 
@@ -254,10 +320,15 @@ public class ControllerAdviser extends ResponseEntityExceptionHandler {
 
     private ResponseEntity<Object> buildApiErrorDto(Integer httpStatusValue, String message, List<String> errors,
                                                     ServletWebRequest request) {
+        return buildApiErrorDto(httpStatusValue, message, errors, request, new HttpHeaders());
+    }
+
+    private ResponseEntity<Object> buildApiErrorDto(Integer httpStatusValue, String message, List<String> errors,
+                                                    ServletWebRequest request, HttpHeaders headers) {
         ApiErrorDto apiError =
                 new ApiErrorDto(httpStatusValue, message, errors, request.getRequest().getRequestURI(),
                         new SimpleDateFormat("yyyy.MM.dd HH:mm:ss").format(new Date()));
         return new ResponseEntity<>(
-                apiError, new HttpHeaders(), apiError.getStatus());
+                apiError, headers, apiError.getStatus());
     }
 }
@@ -0,0 +1,22 @@
+package ru.tokarev.exception.itemexception;
+
+public class ItemImportInterruptedException extends RuntimeException {
+
+    private final String message;
+
+    private final long rowsImported;
+
+    public ItemImportInterruptedException(String message, long rowsImported, RuntimeException cause) {
+        super(cause);
+        this.message = message;
+        this.rowsImported = rowsImported;
+    }
+
+    public String getMessage() {
+        return this.message;
+    }
+
+    public long getRowsImported() {
+        return this.rowsImported;
+    }
+}
@@ -0,0 +1,16 @@
+package ru.tokarev.exception.jobexception;
+
+import javax.persistence.EntityNotFoundException;
+
+public class JobNotFoundException extends EntityNotFoundException {
+
+    private final String message;
+
+    public JobNotFoundException(String message) {
+        this.message = message;
+    }
+
+    public String getMessage() {
+        return this.message;
+    }
+}
@@ -0,0 +1,14 @@
+package ru.tokarev.exception.jobexception;
+
+public class JobRejectedException extends RuntimeException {
+
+    private final String message;
+
+    public JobRejectedException(String message) {
+        this.message = message;
+    }
+
+    public String getMessage() {
+        return this.message;
+    }
+}
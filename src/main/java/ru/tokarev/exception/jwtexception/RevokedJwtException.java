@@ -0,0 +1,9 @@
+package ru.tokarev.exception.jwtexception;
+
+import org.springframework.security.core.AuthenticationException;
+
+public class RevokedJwtException extends AuthenticationException {
+    public RevokedJwtException(String msg) {
+        super(msg);
+    }
+}
@@ -0,0 +1,14 @@
+package ru.tokarev.exception.passwordexception;
+
+public class PasswordHashingRejectedException extends RuntimeException {
+
+    private final String message;
+
+    public PasswordHashingRejectedException(String message) {
+        this.message = message;
+    }
+
+    public String getMessage() {
+        return this.message;
+    }
+}
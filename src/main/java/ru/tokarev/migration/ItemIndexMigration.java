@@ -0,0 +1,120 @@
+package ru.tokarev.migration;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.api.MigrationVersion;
+import org.flywaydb.core.api.migration.Context;
+import org.flywaydb.core.api.migration.JavaMigration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+@Slf4j
+public class ItemIndexMigration implements JavaMigration {
+
+    private static final String IS_PARTITIONED_SQL = "SELECT relkind = 'p' FROM pg_class WHERE oid = 'item'::regclass";
+
+    private static final String FIND_PARTITIONS_SQL = "SELECT child.relname FROM pg_inherits" +
+            " JOIN pg_class parent ON parent.oid = pg_inherits.inhparent" +
+            " JOIN pg_class child ON child.oid = pg_inherits.inhrelid" +
+            " WHERE parent.relname = 'item' ORDER BY child.relname";
+
+    private static final String COUNT_INVALID_INDEX_SQL = "SELECT count(*) FROM pg_index" +
+            " WHERE indexrelid = to_regclass(?) AND NOT indisvalid";
+
+    private static final String COUNT_ATTACHED_INDEX_SQL = "SELECT count(*) FROM pg_inherits" +
+            " JOIN pg_index ON pg_index.indexrelid = pg_inherits.inhrelid" +
+            " WHERE pg_inherits.inhparent = to_regclass(?) AND pg_index.indrelid = to_regclass(?)";
+
+    private static final List<ItemIndex> ITEM_INDEXES = List.of(
+            new ItemIndex("product_id_marketplace_id_date_start_index",
+                    "btree (product_id, marketplace_id, date_start)"),
+            new ItemIndex("date_start_date_end_brin_index", "brin (date_start, date_end)"));
+
+    @Override
+    public MigrationVersion getVersion() {
+        return MigrationVersion.fromVersion("3");
+    }
+
+    @Override
+    public String getDescription() {
+        return "item series indexes";
+    }
+
+    @Override
+    public Integer getChecksum() {
+        return null;
+    }
+
+    @Override
+    public boolean isUndo() {
+        return false;
+    }
+
+    @Override
+    public boolean isBaselineMigration() {
+        return false;
+    }
+
+    @Override
+    public boolean canExecuteInTransaction() {
+        return false;
+    }
+
+    @Override
+    public void migrate(Context context) {
+
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(new SingleConnectionDataSource(context.getConnection(), true));
+        boolean partitioned = Boolean.TRUE.equals(jdbcTemplate.queryForObject(IS_PARTITIONED_SQL, Boolean.class));
+
+        for (ItemIndex itemIndex : ITEM_INDEXES) {
+            String parentIndexName = "item_" + itemIndex.getNameSuffix();
+            if (!partitioned) {
+                createIndexConcurrently(jdbcTemplate, parentIndexName, "item", itemIndex.getDefinition());
+                continue;
+            }
+
+            jdbcTemplate.execute(String.format("CREATE INDEX IF NOT EXISTS %s ON ONLY item USING %s",
+                    parentIndexName, itemIndex.getDefinition()));
+            for (String partitionName : jdbcTemplate.queryForList(FIND_PARTITIONS_SQL, String.class)) {
+                Integer attachedCount = jdbcTemplate.queryForObject(COUNT_ATTACHED_INDEX_SQL, Integer.class,
+                        parentIndexName, partitionName);
+                if (attachedCount != null && attachedCount > 0) {
+                    continue;
+                }
+
+                String partitionIndexName = partitionName + "_" + itemIndex.getNameSuffix();
+                createIndexConcurrently(jdbcTemplate, partitionIndexName, partitionName, itemIndex.getDefinition());
+                jdbcTemplate.execute(String.format("ALTER INDEX %s ATTACH PARTITION %s",
+                        parentIndexName, partitionIndexName));
+            }
+        }
+    }
+
+    private static void createIndexConcurrently(JdbcTemplate jdbcTemplate, String indexName, String tableName,
+                                                String definition) {
+
+        Integer invalidCount = jdbcTemplate.queryForObject(COUNT_INVALID_INDEX_SQL, Integer.class, indexName);
+        if (invalidCount != null && invalidCount > 0) {
+            log.info("Dropping invalid index {} left by an interrupted build", indexName);
+            jdbcTemplate.execute(String.format("DROP INDEX CONCURRENTLY IF EXISTS %s", indexName));
+        }
+
+        log.info("Building index {} on {}", indexName, tableName);
+        jdbcTemplate.execute(String.format("CREATE INDEX CONCURRENTLY IF NOT EXISTS %s ON %s USING %s",
+                indexName, tableName, definition));
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static class ItemIndex {
+
+        private final String nameSuffix;
+
+        private final String definition;
+    }
+}
@@ -0,0 +1,50 @@
+package ru.tokarev.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+import ru.tokarev.entity.item.DailyPriceStats;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public class DailyPriceRepository {
+
+    private static final String STATS_COLUMNS = "SELECT day, min(price) AS min_price, max(price) AS max_price," +
+            " avg(price)::float8 AS avg_price, count(*) AS price_count FROM daily_price";
+
+    private static final String FIND_STATS_BY_PRODUCT_SQL = STATS_COLUMNS +
+            " WHERE product_id = ? AND day >= ? AND day < ? GROUP BY day ORDER BY day";
+
+    private static final String FIND_STATS_BY_CATEGORY_SQL = STATS_COLUMNS +
+            " WHERE category_id = ? AND day >= ? AND day < ? GROUP BY day ORDER BY day";
+
+    private static final String REBUILD_SQL = "SELECT rebuild_daily_price()";
+
+    private static final RowMapper<DailyPriceStats> STATS_ROW_MAPPER = (resultSet, rowNum) -> new DailyPriceStats(
+            resultSet.getObject("day", LocalDate.class), resultSet.getLong("min_price"),
+            resultSet.getLong("max_price"), resultSet.getDouble("avg_price"), resultSet.getLong("price_count"));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public DailyPriceRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public List<DailyPriceStats> findStatsByProductId(Long productId, LocalDate dateStart, LocalDate dateEnd) {
+        return jdbcTemplate.query(FIND_STATS_BY_PRODUCT_SQL, STATS_ROW_MAPPER, productId, dateStart, dateEnd);
+    }
+
+    public List<DailyPriceStats> findStatsByCategoryId(Long categoryId, LocalDate dateStart, LocalDate dateEnd) {
+        return jdbcTemplate.query(FIND_STATS_BY_CATEGORY_SQL, STATS_ROW_MAPPER, categoryId, dateStart, dateEnd);
+    }
+
+    public long rebuild() {
+        Long rebuilt = jdbcTemplate.queryForObject(REBUILD_SQL, Long.class);
+
+        return rebuilt == null ? 0 : rebuilt;
+    }
+}
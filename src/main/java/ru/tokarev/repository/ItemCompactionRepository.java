@@ -0,0 +1,90 @@
+package ru.tokarev.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import ru.tokarev.entity.item.ItemInterval;
+
+import java.sql.PreparedStatement;
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public class ItemCompactionRepository {
+
+    private static final int CHECKPOINT_ID = 1;
+
+    private static final String FIND_CHECKPOINT_SQL = "SELECT product_id, marketplace_id" +
+            " FROM item_compaction_checkpoint WHERE id = ?";
+
+    private static final String SAVE_CHECKPOINT_SQL = "INSERT INTO item_compaction_checkpoint" +
+            " (id, product_id, marketplace_id) VALUES (?, ?, ?)" +
+            " ON CONFLICT (id) DO UPDATE SET product_id = excluded.product_id," +
+            " marketplace_id = excluded.marketplace_id";
+
+    private static final String DELETE_CHECKPOINT_SQL = "DELETE FROM item_compaction_checkpoint WHERE id = ?";
+
+    private static final String FIND_SERIES_SQL = "SELECT DISTINCT product_id, marketplace_id FROM item" +
+            " WHERE (product_id, marketplace_id) > (?, ?)" +
+            " ORDER BY product_id, marketplace_id LIMIT ?";
+
+    private static final String FIND_INTERVALS_FOR_UPDATE_SQL = "SELECT id, product_id, marketplace_id, price," +
+            " date_start, date_end FROM item" +
+            " WHERE (product_id, marketplace_id) > (?, ?) AND (product_id, marketplace_id) <= (?, ?)" +
+            " ORDER BY product_id, marketplace_id, date_start FOR UPDATE";
+
+    private static final String DELETE_RETURNING_SIZE_SQL = "DELETE FROM item WHERE id = ANY (?)" +
+            " RETURNING pg_column_size(item.*)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public ItemCompactionRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public List<Long> findCheckpoint() {
+        List<List<Long>> checkpointList = jdbcTemplate.query(FIND_CHECKPOINT_SQL, (resultSet, rowNum) ->
+                List.of(resultSet.getLong("product_id"), resultSet.getLong("marketplace_id")), CHECKPOINT_ID);
+
+        return checkpointList.isEmpty() ? List.of(0L, 0L) : checkpointList.get(0);
+    }
+
+    public void saveCheckpoint(List<Long> seriesKey) {
+        jdbcTemplate.update(SAVE_CHECKPOINT_SQL, CHECKPOINT_ID, seriesKey.get(0), seriesKey.get(1));
+    }
+
+    public void deleteCheckpoint() {
+        jdbcTemplate.update(DELETE_CHECKPOINT_SQL, CHECKPOINT_ID);
+    }
+
+    public List<List<Long>> findSeriesAfter(List<Long> seriesKey, int limit) {
+        return jdbcTemplate.query(FIND_SERIES_SQL, (resultSet, rowNum) ->
+                        List.of(resultSet.getLong("product_id"), resultSet.getLong("marketplace_id")),
+                seriesKey.get(0), seriesKey.get(1), limit);
+    }
+
+    public List<ItemInterval> findIntervalsForUpdate(List<Long> afterSeriesKey, List<Long> lastSeriesKey) {
+        return jdbcTemplate.query(FIND_INTERVALS_FOR_UPDATE_SQL, (resultSet, rowNum) -> new ItemInterval(
+                        resultSet.getLong("id"), resultSet.getLong("product_id"), resultSet.getLong("marketplace_id"),
+                        resultSet.getInt("price"), resultSet.getObject("date_start", LocalDate.class),
+                        resultSet.getObject("date_end", LocalDate.class)),
+                afterSeriesKey.get(0), afterSeriesKey.get(1), lastSeriesKey.get(0), lastSeriesKey.get(1));
+    }
+
+    public long deleteReturningSize(List<Long> ids) {
+        Long deletedBytes = jdbcTemplate.query(connection -> {
+            PreparedStatement preparedStatement = connection.prepareStatement(DELETE_RETURNING_SIZE_SQL);
+            preparedStatement.setArray(1, connection.createArrayOf("bigint", ids.toArray()));
+            return preparedStatement;
+        }, resultSet -> {
+            long size = 0;
+            while (resultSet.next()) {
+                size += resultSet.getLong(1);
+            }
+            return size;
+        });
+
+        return deletedBytes == null ? 0 : deletedBytes;
+    }
+}
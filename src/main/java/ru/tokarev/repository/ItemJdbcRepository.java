@@ -0,0 +1,126 @@
+package ru.tokarev.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.postgresql.PGConnection;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import ru.tokarev.entity.item.Item;
+import ru.tokarev.entity.item.ItemCsvMergeCount;
+import ru.tokarev.entity.item.ItemInterval;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+@Repository
+public class ItemJdbcRepository {
+
+    private static final int BATCH_SIZE = 1000;
+
+    private static final String ALLOCATE_IDS_SQL = "SELECT nextval('item_id_seq') FROM generate_series(1, ?)";
+
+    private static final String INSERT_SQL = "INSERT INTO item (id, price, date_start, date_end, product_id," +
+            " marketplace_id) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private static final String UPDATE_PERIOD_SQL = "UPDATE item SET date_start = ?, date_end = ? WHERE id = ?";
+
+    private static final String DELETE_SQL = "DELETE FROM item WHERE id = ?";
+
+    private static final String CREATE_STAGING_TABLE_SQL = "CREATE TEMPORARY TABLE item_import_staging" +
+            " (product_id bigint, marketplace_id bigint, price integer, date_start date, date_end date)" +
+            " ON COMMIT DROP";
+
+    private static final String COPY_INTO_STAGING_TABLE_SQL = "COPY item_import_staging" +
+            " (product_id, marketplace_id, price, date_start, date_end) FROM STDIN WITH (FORMAT csv, HEADER true)";
+
+    private static final String MERGE_STAGING_TABLE_SQL = "WITH checked AS (" +
+            "   SELECT s.product_id, s.marketplace_id, s.price, s.date_start, s.date_end, CASE" +
+            "     WHEN s.product_id IS NULL OR s.marketplace_id IS NULL OR s.price IS NULL" +
+            "       OR s.date_start IS NULL OR s.date_end IS NULL THEN 'MISSING_VALUE'" +
+            "     WHEN s.price <= 0 THEN 'NON_POSITIVE_PRICE'" +
+            "     WHEN s.date_end <= s.date_start THEN 'EMPTY_PERIOD'" +
+            "     WHEN p.id IS NULL THEN 'UNKNOWN_PRODUCT'" +
+            "     WHEN m.id IS NULL THEN 'UNKNOWN_MARKETPLACE'" +
+            "     WHEN s.previous_date_end > s.date_start OR s.next_date_start < s.date_end THEN 'OVERLAPPING'" +
+            "     WHEN EXISTS (SELECT 1 FROM item i WHERE i.product_id = s.product_id" +
+            "       AND i.marketplace_id = s.marketplace_id AND i.date_start < s.date_end" +
+            "       AND i.date_end > s.date_start) THEN 'OVERLAPPING'" +
+            "   END AS reject_reason FROM (" +
+            "     SELECT staging.*," +
+            "       max(staging.date_end) OVER (PARTITION BY staging.product_id, staging.marketplace_id" +
+            "         ORDER BY staging.date_start, staging.date_end" +
+            "         ROWS BETWEEN UNBOUNDED PRECEDING AND 1 PRECEDING) AS previous_date_end," +
+            "       lead(staging.date_start) OVER (PARTITION BY staging.product_id, staging.marketplace_id" +
+            "         ORDER BY staging.date_start, staging.date_end) AS next_date_start" +
+            "     FROM item_import_staging staging) s" +
+            "   LEFT JOIN product p ON p.id = s.product_id" +
+            "   LEFT JOIN marketplace m ON m.id = s.marketplace_id)," +
+            " inserted AS (" +
+            "   INSERT INTO item (product_id, marketplace_id, price, date_start, date_end)" +
+            "   SELECT product_id, marketplace_id, price, date_start, date_end FROM checked" +
+            "   WHERE reject_reason IS NULL" +
+            "   ON CONFLICT DO NOTHING" +
+            "   RETURNING product_id)" +
+            " SELECT 'IMPORTED' AS status, product_id, count(*) AS row_count FROM inserted GROUP BY product_id" +
+            " UNION ALL" +
+            " SELECT reject_reason, NULL, count(*) FROM checked WHERE reject_reason IS NOT NULL" +
+            " GROUP BY reject_reason";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public ItemJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public List<Long> allocateIds(int count) {
+        return jdbcTemplate.queryForList(ALLOCATE_IDS_SQL, Long.class, count);
+    }
+
+    public long copyIntoStagingTable(InputStream inputStream) {
+        jdbcTemplate.execute(CREATE_STAGING_TABLE_SQL);
+
+        Long copiedRows = jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            try {
+                return connection.unwrap(PGConnection.class).getCopyAPI()
+                        .copyIn(COPY_INTO_STAGING_TABLE_SQL, inputStream);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+
+        return copiedRows == null ? 0 : copiedRows;
+    }
+
+    public List<ItemCsvMergeCount> mergeStagingTable() {
+        return jdbcTemplate.query(MERGE_STAGING_TABLE_SQL, (resultSet, rowNum) -> new ItemCsvMergeCount(
+                resultSet.getString("status"), resultSet.getObject("product_id", Long.class),
+                resultSet.getLong("row_count")));
+    }
+
+    public void batchInsert(List<Item> itemList) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, itemList, BATCH_SIZE, (preparedStatement, item) -> {
+            preparedStatement.setLong(1, item.getId());
+            preparedStatement.setInt(2, item.getPrice());
+            preparedStatement.setObject(3, item.getDateStart());
+            preparedStatement.setObject(4, item.getDateEnd());
+            preparedStatement.setLong(5, item.getProduct().getId());
+            preparedStatement.setLong(6, item.getMarketplace().getId());
+        });
+    }
+
+    public void batchUpdatePeriods(List<ItemInterval> intervalList) {
+        jdbcTemplate.batchUpdate(UPDATE_PERIOD_SQL, intervalList, BATCH_SIZE, (preparedStatement, interval) -> {
+            preparedStatement.setObject(1, interval.getDateStart());
+            preparedStatement.setObject(2, interval.getDateEnd());
+            preparedStatement.setLong(3, interval.getId());
+        });
+    }
+
+    public void batchDelete(List<ItemInterval> intervalList) {
+        jdbcTemplate.batchUpdate(DELETE_SQL, intervalList, BATCH_SIZE, (preparedStatement, interval) ->
+                preparedStatement.setLong(1, interval.getId()));
+    }
+}
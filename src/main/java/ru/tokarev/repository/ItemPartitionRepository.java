@@ -0,0 +1,49 @@
+package ru.tokarev.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public class ItemPartitionRepository {
+
+    private static final String CREATE_PARTITIONS_SQL = "SELECT create_item_partitions(?, ?)";
+
+    private static final String DETACH_PARTITIONS_SQL = "SELECT detach_item_partitions(?)";
+
+    private static final String SPLIT_DEFAULT_PARTITION_SQL = "SELECT split_item_default_partition(?)";
+
+    private static final String COUNT_DEFAULT_PARTITION_ROWS_SQL = "SELECT count(*) FROM item_default";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public ItemPartitionRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public int createPartitions(LocalDate fromDate, LocalDate toDate) {
+        Integer created = jdbcTemplate.queryForObject(CREATE_PARTITIONS_SQL, Integer.class, fromDate, toDate);
+
+        return created == null ? 0 : created;
+    }
+
+    public List<String> detachPartitionsBefore(LocalDate beforeDate) {
+        return jdbcTemplate.queryForList(DETACH_PARTITIONS_SQL, String.class, beforeDate);
+    }
+
+    public long splitDefaultPartition(LocalDate splitDate) {
+        Long moved = jdbcTemplate.queryForObject(SPLIT_DEFAULT_PARTITION_SQL, Long.class, splitDate);
+
+        return moved == null ? 0 : moved;
+    }
+
+    public long countDefaultPartitionRows() {
+        Long count = jdbcTemplate.queryForObject(COUNT_DEFAULT_PARTITION_ROWS_SQL, Long.class);
+
+        return count == null ? 0 : count;
+    }
+}
@@ -3,15 +3,22 @@ package ru.tokarev.repository;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.lang.NonNull;
 import ru.tokarev.entity.Marketplace;
 import ru.tokarev.entity.Product;
 import ru.tokarev.entity.item.Item;
+import ru.tokarev.entity.item.ItemInterval;
+import ru.tokarev.entity.item.NamedItemInterval;
+
+import javax.persistence.QueryHint;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
 
@@ -33,17 +40,46 @@ public interface ItemRepository extends JpaRepository<Item, Long> {
     Optional<List<Item>> findAllByProductAndOrderByDateStartAsc(@Param("product") Product product);
 
     @Query("SELECT i FROM Item i WHERE i.product = :product" +
-            " and i.dateStart >= :dateStart and i.dateEnd <= :dateEnd order by i.dateStart asc")
+            " and i.dateStart >= :dateStart and i.dateStart < :dateEnd" +
+            " and i.dateEnd <= :dateEnd order by i.dateStart asc")
     @EntityGraph(type = EntityGraph.EntityGraphType.FETCH, attributePaths = {"product", "marketplace"})
     Optional<List<Item>> findAllByDateStartAfterAndDateEndBeforeAndProductOrderByDateStartAsc(
             @Param("dateStart") LocalDate dateStart, @Param("dateEnd") LocalDate dateEnd,
             @Param("product") Product product);
 
     @Query("SELECT i FROM Item i WHERE i.product = :product and i.marketplace = :marketplace" +
-            " and i.dateStart >= :dateStart and i.dateEnd <= :dateEnd order by i.dateStart asc")
+            " and i.dateStart >= :dateStart and i.dateStart < :dateEnd" +
+            " and i.dateEnd <= :dateEnd order by i.dateStart asc")
     @EntityGraph(type = EntityGraph.EntityGraphType.FETCH, attributePaths = {"product", "marketplace"})
     Optional<List<Item>> findProductsByDateAndProductAndMarketplaceAndOrderByDateStartAsc(
             @Param("product") Product product, @Param("dateStart") LocalDate dateStart,
             @Param("dateEnd") LocalDate dateEnd, @Param("marketplace") Marketplace marketplace);
 
+    @Query("SELECT new ru.tokarev.entity.item.ItemInterval(i.id, i.product.id, i.marketplace.id, i.price," +
+            " i.dateStart, i.dateEnd) FROM Item i WHERE i.product.id = :productId" +
+            " order by i.marketplace.id, i.dateStart asc")
+    List<ItemInterval> findAllIntervalsByProductIdOrderByMarketplaceAndDateStartAsc(
+            @Param("productId") Long productId);
+
+    @Query("SELECT new ru.tokarev.entity.item.NamedItemInterval(i.id, p.id, p.name, m.name, i.price," +
+            " i.dateStart, i.dateEnd) FROM Item i JOIN i.product p JOIN i.marketplace m" +
+            " WHERE i.dateStart >= :dateStart and i.dateStart < :dateEnd and i.dateEnd <= :dateEnd" +
+            " order by p.id, i.dateStart asc")
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "10000"))
+    Stream<NamedItemInterval> streamAllNamedIntervalsByDateStartAfterAndDateEndBeforeOrderByProductAndDateStartAsc(
+            @Param("dateStart") LocalDate dateStart, @Param("dateEnd") LocalDate dateEnd);
+
+    @Query("SELECT new ru.tokarev.entity.item.ItemInterval(i.id, i.product.id, i.marketplace.id, i.price," +
+            " i.dateStart, i.dateEnd) FROM Item i order by i.product.id, i.marketplace.id, i.dateStart asc")
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "10000"))
+    Stream<ItemInterval> streamAllIntervalsOrderByProductAndMarketplaceAndDateStartAsc();
+
+    @Query("SELECT new ru.tokarev.entity.item.ItemInterval(i.id, i.product.id, i.marketplace.id, i.price," +
+            " i.dateStart, i.dateEnd) FROM Item i WHERE i.product.id in :productIds" +
+            " and i.dateStart < :dateEnd and i.dateEnd > :dateStart" +
+            " order by i.product.id, i.marketplace.id, i.dateStart asc")
+    List<ItemInterval> findAllIntervalsByProductIdInAndOverlappingOrderByProductAndMarketplaceAndDateStartAsc(
+            @Param("productIds") Collection<Long> productIds, @Param("dateStart") LocalDate dateStart,
+            @Param("dateEnd") LocalDate dateEnd);
+
 }
@@ -0,0 +1,55 @@
+package ru.tokarev.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+
+@Repository
+public class RevokedTokenRepository {
+
+    private static final String INSERT_SQL = "INSERT INTO revoked_token (token_id, expires_at) VALUES (?, ?)" +
+            " ON CONFLICT (token_id) DO NOTHING";
+
+    private static final String EXISTS_SQL = "SELECT count(*) FROM revoked_token WHERE token_id = ?";
+
+    private static final String FIND_ACTIVE_SQL = "SELECT token_id, revoked_at FROM revoked_token" +
+            " WHERE expires_at > now()";
+
+    private static final String FIND_REVOKED_SINCE_SQL = "SELECT token_id, revoked_at FROM revoked_token" +
+            " WHERE revoked_at > ? AND expires_at > now()";
+
+    private static final String DELETE_EXPIRED_SQL = "DELETE FROM revoked_token WHERE expires_at <= now()";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public RevokedTokenRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void save(String tokenId, Instant expiresAt) {
+        jdbcTemplate.update(INSERT_SQL, tokenId, Timestamp.from(expiresAt));
+    }
+
+    public boolean existsByTokenId(String tokenId) {
+        Integer count = jdbcTemplate.queryForObject(EXISTS_SQL, Integer.class, tokenId);
+
+        return count != null && count > 0;
+    }
+
+    public void findActive(RowCallbackHandler rowCallbackHandler) {
+        jdbcTemplate.query(FIND_ACTIVE_SQL, rowCallbackHandler);
+    }
+
+    public void findRevokedSince(Instant revokedAfter, RowCallbackHandler rowCallbackHandler) {
+        jdbcTemplate.query(FIND_REVOKED_SINCE_SQL, rowCallbackHandler, Timestamp.from(revokedAfter));
+    }
+
+    public int deleteExpired() {
+        return jdbcTemplate.update(DELETE_EXPIRED_SQL);
+    }
+}
@@ -0,0 +1,34 @@
+package ru.tokarev.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public class UserTokenGenerationRepository {
+
+    private static final String FIND_GENERATION_SQL = "SELECT token_generation FROM users WHERE id = ?";
+
+    private static final String INCREMENT_GENERATION_SQL = "UPDATE users SET token_generation = token_generation + 1" +
+            " WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public UserTokenGenerationRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public Optional<Integer> findGeneration(Long userId) {
+        List<Integer> generationList = jdbcTemplate.queryForList(FIND_GENERATION_SQL, Integer.class, userId);
+
+        return generationList.stream().findFirst();
+    }
+
+    public void incrementGeneration(Long userId) {
+        jdbcTemplate.update(INCREMENT_GENERATION_SQL, userId);
+    }
+}
@@ -0,0 +1,45 @@
+package ru.tokarev.security;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+    private static final Pattern BCRYPT_COST_PATTERN = Pattern.compile("\\A\\$2[aby]?\\$(\\d\\d)\\$");
+
+    private final BCryptPasswordEncoder delegate;
+
+    private final int strength;
+
+    private final PasswordHashingExecutor passwordHashingExecutor;
+
+    public BoundedPasswordEncoder(int strength, PasswordHashingExecutor passwordHashingExecutor) {
+        this.delegate = new BCryptPasswordEncoder(strength);
+        this.strength = strength;
+        this.passwordHashingExecutor = passwordHashingExecutor;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return passwordHashingExecutor.execute(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return passwordHashingExecutor.execute(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (encodedPassword == null) {
+            return false;
+        }
+
+        Matcher matcher = BCRYPT_COST_PATTERN.matcher(encodedPassword);
+
+        return matcher.find() && Integer.parseInt(matcher.group(1)) != strength;
+    }
+}
@@ -0,0 +1,119 @@
+package ru.tokarev.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import ru.tokarev.exception.passwordexception.PasswordHashingRejectedException;
+
+import javax.annotation.PreDestroy;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+@Component
+@Slf4j
+public class PasswordHashingExecutor {
+
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    private final ThreadPoolExecutor executor;
+
+    private final int threads;
+
+    private final int queueCapacity;
+
+    private final long timeoutMillis;
+
+    private final LongAdder completedCount = new LongAdder();
+
+    private final LongAdder rejectedCount = new LongAdder();
+
+    private final LongAdder timedOutCount = new LongAdder();
+
+    private final LongAdder totalHashNanos = new LongAdder();
+
+    private final LongAdder totalQueueWaitNanos = new LongAdder();
+
+    private final LongAccumulator maxHashNanos = new LongAccumulator(Math::max, 0);
+
+    @Autowired
+    public PasswordHashingExecutor(@Value("${security.password-hashing.threads:0}") int threads,
+                                   @Value("${security.password-hashing.queue-capacity:64}") int queueCapacity,
+                                   @Value("${security.password-hashing.timeout-millis:5000}") long timeoutMillis) {
+        this.threads = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        this.queueCapacity = queueCapacity;
+        this.timeoutMillis = timeoutMillis;
+        this.executor = new ThreadPoolExecutor(this.threads, this.threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("password-hashing-"),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public <T> T execute(Supplier<T> task) {
+
+        long submittedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                long startedAt = System.nanoTime();
+                try {
+                    return task.get();
+                } finally {
+                    long hashNanos = System.nanoTime() - startedAt;
+                    totalQueueWaitNanos.add(startedAt - submittedAt);
+                    totalHashNanos.add(hashNanos);
+                    maxHashNanos.accumulate(hashNanos);
+                    completedCount.increment();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejectedCount.increment();
+            log.warn("Password hashing rejected, {} tasks already queued", executor.getQueue().size());
+            throw new PasswordHashingRejectedException("Too many password hashing requests, try again later");
+        }
+
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            timedOutCount.increment();
+            throw new PasswordHashingRejectedException("Password hashing timed out, try again later");
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new PasswordHashingRejectedException("Password hashing was interrupted");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    public PasswordHashingStats getStats() {
+
+        long completed = completedCount.sum();
+
+        return new PasswordHashingStats(threads, executor.getActiveCount(), executor.getQueue().size(),
+                queueCapacity, completed, rejectedCount.sum(), timedOutCount.sum(),
+                completed == 0 ? 0 : totalHashNanos.sum() / NANOS_PER_MILLI / completed,
+                maxHashNanos.get() / NANOS_PER_MILLI,
+                completed == 0 ? 0 : totalQueueWaitNanos.sum() / NANOS_PER_MILLI / completed);
+    }
+}
@@ -0,0 +1,29 @@
+package ru.tokarev.security;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class PasswordHashingStats {
+
+    private final int threads;
+
+    private final int activeThreads;
+
+    private final int queueDepth;
+
+    private final int queueCapacity;
+
+    private final long completedCount;
+
+    private final long rejectedCount;
+
+    private final long timedOutCount;
+
+    private final double averageHashMillis;
+
+    private final double maxHashMillis;
+
+    private final double averageQueueWaitMillis;
+}
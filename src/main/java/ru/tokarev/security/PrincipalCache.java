@@ -0,0 +1,35 @@
+package ru.tokarev.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import ru.tokarev.utils.TransactionUtil;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+@Component
+public class PrincipalCache {
+
+    private final Cache<String, UserDetails> cache;
+
+    @Autowired
+    public PrincipalCache(@Value("${security.principal-cache.maximum-size:10000}") long maximumSize,
+                          @Value("${security.principal-cache.ttl-seconds:60}") long ttlSeconds) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+    }
+
+    public UserDetails get(String username, Function<String, UserDetails> loader) {
+        return cache.get(username, loader);
+    }
+
+    public void invalidate(String username) {
+        TransactionUtil.afterCommit(() -> cache.invalidate(username));
+    }
+}
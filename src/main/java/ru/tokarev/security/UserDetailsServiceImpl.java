@@ -1,7 +1,9 @@
 package ru.tokarev.security;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
@@ -11,13 +13,17 @@ import ru.tokarev.exception.userexception.UserNotFoundException;
 import ru.tokarev.repository.UserRepository;
 
 @Service
-public class UserDetailsServiceImpl implements UserDetailsService {
+@Slf4j
+public class UserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
 
+    private final PrincipalCache principalCache;
+
     @Autowired
-    public UserDetailsServiceImpl(UserRepository userRepository) {
+    public UserDetailsServiceImpl(UserRepository userRepository, PrincipalCache principalCache) {
         this.userRepository = userRepository;
+        this.principalCache = principalCache;
     }
 
     @Transactional
@@ -28,4 +34,18 @@ public class UserDetailsServiceImpl implements UserDetailsService {
         return UserDetailsImpl.build(user);
 
     }
+
+    @Transactional
+    @Override
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        User user = userRepository.findByUsername(userDetails.getUsername())
+                .orElseThrow(() -> new UserNotFoundException("User Not Found with username: " +
+                        userDetails.getUsername()));
+        user.setPassword(newPassword);
+        principalCache.invalidate(user.getUsername());
+
+        log.info("Password hash of user {} rehashed with the configured cost", user.getUsername());
+
+        return UserDetailsImpl.build(user);
+    }
 }
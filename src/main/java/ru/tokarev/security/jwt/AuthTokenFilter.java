@@ -2,6 +2,7 @@ package ru.tokarev.security.jwt;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.MalformedJwtException;
 import org.slf4j.Logger;
@@ -15,6 +16,8 @@ import org.springframework.security.web.authentication.WebAuthenticationDetailsS
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 import ru.tokarev.dto.ApiErrorDto;
+import ru.tokarev.exception.jwtexception.RevokedJwtException;
+import ru.tokarev.security.PrincipalCache;
 
 import javax.servlet.FilterChain;
 import javax.servlet.ServletException;
@@ -28,16 +31,25 @@ import java.util.List;
 
 public class AuthTokenFilter extends OncePerRequestFilter {
 
+    public static final String CLAIMS_ATTRIBUTE = "ru.tokarev.security.jwt.AuthTokenFilter.claims";
+
     private final JwtUtils jwtUtils;
 
     private final UserDetailsService userDetailsService;
 
+    private final PrincipalCache principalCache;
+
+    private final TokenRevocationRegistry tokenRevocationRegistry;
+
     private final Logger logger = LoggerFactory.getLogger(AuthTokenFilter.class);
 
     @Autowired
-    public AuthTokenFilter(JwtUtils jwtUtils, UserDetailsService userDetailsService) {
+    public AuthTokenFilter(JwtUtils jwtUtils, UserDetailsService userDetailsService, PrincipalCache principalCache,
+                           TokenRevocationRegistry tokenRevocationRegistry) {
         this.jwtUtils = jwtUtils;
         this.userDetailsService = userDetailsService;
+        this.principalCache = principalCache;
+        this.tokenRevocationRegistry = tokenRevocationRegistry;
     }
 
 
@@ -47,10 +59,17 @@ public class AuthTokenFilter extends OncePerRequestFilter {
                                     FilterChain filterChain) throws ServletException, IOException {
         try {
             String jwt = parseJwt(request);
-            if (jwt != null && jwtUtils.validateJwtToken(jwt)) {
-                String username = jwtUtils.getUserNameFromJwtToken(jwt);
-
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+            if (jwt != null) {
+                Claims claims = jwtUtils.parseVerifiedClaims(jwt);
+                if (claims.getId() != null && tokenRevocationRegistry.isRevoked(claims.getId())) {
+                    throw new RevokedJwtException("Jwt token has been revoked");
+                }
+                request.setAttribute(CLAIMS_ATTRIBUTE, claims);
+
+                UserDetails userDetails = jwtUtils.getPrincipalFromClaims(claims);
+                if (userDetails == null) {
+                    userDetails = principalCache.get(claims.getSubject(), userDetailsService::loadUserByUsername);
+                }
                 UsernamePasswordAuthenticationToken authenticationToken =
                         new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
                 authenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
@@ -79,6 +98,16 @@ public class AuthTokenFilter extends OncePerRequestFilter {
 
             response.getWriter().write(convertObjectToJson(apiErrorDto));
 
+        } catch (RevokedJwtException e) {
+
+            logger.debug(Arrays.toString(e.getStackTrace()));
+
+            ApiErrorDto apiErrorDto = new ApiErrorDto(401, e.getMessage(), List.of("Unauthorized"),
+                    request.getRequestURI(), new SimpleDateFormat("yyyy.MM.dd HH:mm:ss").format(new Date()));
+
+            response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+            response.getWriter().write(convertObjectToJson(apiErrorDto));
+
         } catch (RuntimeException e) {
 
             logger.debug(Arrays.toString(e.getStackTrace()));
@@ -1,43 +1,99 @@
 package ru.tokarev.security.jwt;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtBuilder;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.SignatureAlgorithm;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
+import ru.tokarev.exception.jwtexception.RevokedJwtException;
+import ru.tokarev.security.UserDetailsImpl;
 
 import java.util.Date;
+import java.util.List;
+import java.util.UUID;
 
 @Component
 public class JwtUtils {
 
-    @Value("${jwt.token.secret}")
-    private String jwtSecret;
+    private static final String STATELESS_TOKEN_MODE = "stateless";
 
-    @Value("${jwt.token.expired}")
-    private int jwtExpirationMs;
+    private static final String USER_ID_CLAIM = "uid";
+
+    private static final String ROLE_CLAIM = "role";
+
+    private static final String GENERATION_CLAIM = "gen";
+
+    private final String jwtSecret;
+
+    private final int jwtExpirationMs;
+
+    private final boolean stateless;
+
+    private final boolean checkGeneration;
+
+    private final TokenGenerationRegistry tokenGenerationRegistry;
+
+    @Autowired
+    public JwtUtils(@Value("${jwt.token.secret}") String jwtSecret,
+                    @Value("${jwt.token.expired}") int jwtExpirationMs,
+                    @Value("${jwt.token.mode:lookup}") String tokenMode,
+                    @Value("${jwt.token.check-generation:true}") boolean checkGeneration,
+                    TokenGenerationRegistry tokenGenerationRegistry) {
+        this.jwtSecret = jwtSecret;
+        this.jwtExpirationMs = jwtExpirationMs;
+        this.stateless = STATELESS_TOKEN_MODE.equals(tokenMode);
+        this.checkGeneration = checkGeneration;
+        this.tokenGenerationRegistry = tokenGenerationRegistry;
+    }
 
     public String generateJwtToken(Authentication authentication) {
 
         UserDetails userPrincipal = (UserDetails) authentication.getPrincipal();
 
-        return Jwts.builder().setSubject((userPrincipal.getUsername())).setIssuedAt(new Date())
-                .setExpiration(new Date((new Date()).getTime() + jwtExpirationMs))
-                .signWith(SignatureAlgorithm.HS512, jwtSecret).compact();
-    }
+        JwtBuilder jwtBuilder = Jwts.builder().setId(UUID.randomUUID().toString())
+                .setSubject((userPrincipal.getUsername())).setIssuedAt(new Date())
+                .setExpiration(new Date((new Date()).getTime() + jwtExpirationMs));
 
-    public boolean validateJwtToken(String jwt) {
-        try {
-            Jwts.parser().setSigningKey(jwtSecret).parseClaimsJws(jwt);
-            return true;
-        } catch (MalformedJwtException | IllegalArgumentException e) {
-            throw e;
+        if (userPrincipal instanceof UserDetailsImpl) {
+            Long userId = ((UserDetailsImpl) userPrincipal).getId();
+            jwtBuilder.claim(USER_ID_CLAIM, userId)
+                    .claim(ROLE_CLAIM, userPrincipal.getAuthorities().iterator().next().getAuthority());
+            if (checkGeneration) {
+                jwtBuilder.claim(GENERATION_CLAIM, tokenGenerationRegistry.getCurrentGeneration(userId));
+            }
         }
+
+        return jwtBuilder.signWith(SignatureAlgorithm.HS512, jwtSecret).compact();
+    }
+
+    public Claims parseVerifiedClaims(String jwt) {
+        return Jwts.parser().setSigningKey(jwtSecret).parseClaimsJws(jwt).getBody();
     }
 
-    public String getUserNameFromJwtToken(String jwt) {
-        return Jwts.parser().setSigningKey(jwtSecret).parseClaimsJws(jwt).getBody().getSubject();
+    public UserDetailsImpl getPrincipalFromClaims(Claims claims) {
+
+        String role = claims.get(ROLE_CLAIM, String.class);
+        Long userId = claims.get(USER_ID_CLAIM, Long.class);
+        if (!stateless || role == null || userId == null) {
+            return null;
+        }
+
+        if (checkGeneration) {
+            Integer generation = claims.get(GENERATION_CLAIM, Integer.class);
+            if (generation == null || !tokenGenerationRegistry.isCurrent(userId, generation)) {
+                throw new RevokedJwtException("Jwt token has been revoked");
+            }
+        }
+
+        List<GrantedAuthority> authorities = List.of(new SimpleGrantedAuthority(role));
+
+        return new UserDetailsImpl(userId, claims.getSubject(), null, null, null, null, authorities,
+                null, null);
     }
 }
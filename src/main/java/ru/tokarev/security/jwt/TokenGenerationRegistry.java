@@ -0,0 +1,60 @@
+package ru.tokarev.security.jwt;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.tokarev.repository.UserTokenGenerationRepository;
+import ru.tokarev.utils.TransactionUtil;
+
+import java.time.Duration;
+
+@Component
+public class TokenGenerationRegistry {
+
+    private static final int REVOKED_GENERATION = -1;
+
+    private final UserTokenGenerationRepository userTokenGenerationRepository;
+
+    private final Cache<Long, Integer> cache;
+
+    @Autowired
+    public TokenGenerationRegistry(UserTokenGenerationRepository userTokenGenerationRepository,
+                                   @Value("${jwt.token.generation-ttl-seconds:30}") long ttlSeconds) {
+        this.userTokenGenerationRepository = userTokenGenerationRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(100000)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+    }
+
+    public int getCurrentGeneration(Long userId) {
+        int generation = loadGeneration(userId);
+        cache.put(userId, generation);
+
+        return generation;
+    }
+
+    public boolean isCurrent(Long userId, int generation) {
+        int knownGeneration = cache.get(userId, this::loadGeneration);
+        if (generation > knownGeneration) {
+            knownGeneration = getCurrentGeneration(userId);
+        }
+
+        return generation == knownGeneration;
+    }
+
+    public void increment(Long userId) {
+        userTokenGenerationRepository.incrementGeneration(userId);
+        invalidate(userId);
+    }
+
+    public void invalidate(Long userId) {
+        TransactionUtil.afterCommit(() -> cache.invalidate(userId));
+    }
+
+    private int loadGeneration(Long userId) {
+        return userTokenGenerationRepository.findGeneration(userId).orElse(REVOKED_GENERATION);
+    }
+}
@@ -0,0 +1,159 @@
+package ru.tokarev.security.jwt;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import ru.tokarev.repository.RevokedTokenRepository;
+import ru.tokarev.utils.BloomFilter;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+@Component
+@Slf4j
+public class TokenRevocationRegistry {
+
+    private static final double FALSE_POSITIVE_PROBABILITY = 0.001;
+
+    private static final Duration SYNC_OVERLAP = Duration.ofMinutes(1);
+
+    private final RevokedTokenRepository revokedTokenRepository;
+
+    private final ScheduledExecutorService syncExecutor;
+
+    private final long expectedTokens;
+
+    private final long syncSeconds;
+
+    private final Duration rebuildInterval;
+
+    private final Set<String> pendingTokenIds = ConcurrentHashMap.newKeySet();
+
+    private volatile BloomFilter bloomFilter;
+
+    private volatile Instant lastRevokedAt = Instant.EPOCH;
+
+    private volatile Instant lastRebuiltAt = Instant.EPOCH;
+
+    @Autowired
+    public TokenRevocationRegistry(RevokedTokenRepository revokedTokenRepository,
+                                   @Value("${jwt.revocation.expected-tokens:100000}") long expectedTokens,
+                                   @Value("${jwt.revocation.sync-seconds:10}") long syncSeconds,
+                                   @Value("${jwt.revocation.rebuild-minutes:1440}") long rebuildMinutes) {
+        this(revokedTokenRepository,
+                Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("token-revocation-")),
+                expectedTokens, syncSeconds, rebuildMinutes);
+    }
+
+    TokenRevocationRegistry(RevokedTokenRepository revokedTokenRepository, ScheduledExecutorService syncExecutor,
+                            long expectedTokens, long syncSeconds, long rebuildMinutes) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.syncExecutor = syncExecutor;
+        this.expectedTokens = expectedTokens;
+        this.syncSeconds = syncSeconds;
+        this.rebuildInterval = Duration.ofMinutes(rebuildMinutes);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        syncQuietly();
+        if (syncSeconds > 0) {
+            syncExecutor.scheduleWithFixedDelay(this::syncQuietly, syncSeconds, syncSeconds, TimeUnit.SECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        syncExecutor.shutdown();
+    }
+
+    public void revoke(String tokenId, Instant expiresAt) {
+        revokedTokenRepository.save(tokenId, expiresAt);
+        pendingTokenIds.add(tokenId);
+
+        BloomFilter filter = bloomFilter;
+        if (filter != null) {
+            filter.put(tokenId);
+        }
+    }
+
+    public boolean isRevoked(String tokenId) {
+        BloomFilter filter = bloomFilter;
+        if (filter != null && !filter.mightContain(tokenId)) {
+            return false;
+        }
+
+        return revokedTokenRepository.existsByTokenId(tokenId);
+    }
+
+    public boolean isReady() {
+        return bloomFilter != null;
+    }
+
+    synchronized void sync() {
+        Set<String> syncedTokenIds = Set.copyOf(pendingTokenIds);
+        if (bloomFilter == null || Instant.now().isAfter(lastRebuiltAt.plus(rebuildInterval))) {
+            rebuild();
+        }
+
+        List<String> tokenIdList = new ArrayList<>();
+        Instant revokedAfter = lastRevokedAt.minus(SYNC_OVERLAP);
+        revokedTokenRepository.findRevokedSince(revokedAfter, resultSet -> {
+            tokenIdList.add(resultSet.getString("token_id"));
+            updateLastRevokedAt(resultSet.getTimestamp("revoked_at").toInstant());
+        });
+
+        BloomFilter filter = bloomFilter;
+        tokenIdList.forEach(filter::put);
+        pendingTokenIds.removeAll(syncedTokenIds);
+    }
+
+    private void rebuild() {
+        long startTime = System.currentTimeMillis();
+        int purged = revokedTokenRepository.deleteExpired();
+
+        List<String> tokenIdList = new ArrayList<>();
+        revokedTokenRepository.findActive(resultSet -> {
+            tokenIdList.add(resultSet.getString("token_id"));
+            updateLastRevokedAt(resultSet.getTimestamp("revoked_at").toInstant());
+        });
+
+        BloomFilter filter = new BloomFilter(Math.max(expectedTokens, 2L * tokenIdList.size()),
+                FALSE_POSITIVE_PROBABILITY);
+        tokenIdList.forEach(filter::put);
+        bloomFilter = filter;
+        pendingTokenIds.forEach(filter::put);
+        lastRebuiltAt = Instant.now();
+
+        log.info("Token revocation filter rebuilt with {} revoked tokens ({} expired purged) in {} ms",
+                tokenIdList.size(), purged, System.currentTimeMillis() - startTime);
+    }
+
+    private void updateLastRevokedAt(Instant revokedAt) {
+        if (revokedAt.isAfter(lastRevokedAt)) {
+            lastRevokedAt = revokedAt;
+        }
+    }
+
+    private void syncQuietly() {
+        try {
+            sync();
+        } catch (DataAccessException e) {
+            log.warn("Token revocation filter was not synced, revocation checks will read from database: {}",
+                    e.getMessage());
+        }
+    }
+}
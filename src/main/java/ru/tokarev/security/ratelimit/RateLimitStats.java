@@ -0,0 +1,19 @@
+package ru.tokarev.security.ratelimit;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class RateLimitStats {
+
+    private final boolean enabled;
+
+    private final long trackedBuckets;
+
+    private final long allowedCount;
+
+    private final long crudRejectedCount;
+
+    private final long analyticsRejectedCount;
+}
@@ -0,0 +1,125 @@
+package ru.tokarev.security.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+@Component
+public class RateLimiter {
+
+    private final boolean enabled;
+
+    private final long crudCapacity;
+
+    private final double crudRefillPerSecond;
+
+    private final long analyticsCapacity;
+
+    private final double analyticsRefillPerSecond;
+
+    private final List<String> analyticsPaths;
+
+    private final LongSupplier nanoClock;
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    private final Cache<String, TokenBucket> buckets;
+
+    private final LongAdder allowedCount = new LongAdder();
+
+    private final LongAdder crudRejectedCount = new LongAdder();
+
+    private final LongAdder analyticsRejectedCount = new LongAdder();
+
+    @Autowired
+    public RateLimiter(@Value("${rate-limit.enabled:true}") boolean enabled,
+                       @Value("${rate-limit.crud.capacity:100}") long crudCapacity,
+                       @Value("${rate-limit.crud.refill-per-second:50}") double crudRefillPerSecond,
+                       @Value("${rate-limit.analytics.capacity:10}") long analyticsCapacity,
+                       @Value("${rate-limit.analytics.refill-per-second:2}") double analyticsRefillPerSecond,
+                       @Value("${rate-limit.analytics.paths:/api/items/compare-prices,/api/items/check-price-dynamic," +
+                               "/api/items/daily-prices}") List<String> analyticsPaths,
+                       @Value("${rate-limit.buckets.maximum-size:100000}") long bucketsMaximumSize,
+                       @Value("${rate-limit.buckets.idle-expiry-seconds:600}") long bucketsIdleExpirySeconds) {
+        this(enabled, crudCapacity, crudRefillPerSecond, analyticsCapacity, analyticsRefillPerSecond, analyticsPaths,
+                bucketsMaximumSize, bucketsIdleExpirySeconds, System::nanoTime);
+    }
+
+    RateLimiter(boolean enabled, long crudCapacity, double crudRefillPerSecond, long analyticsCapacity,
+                double analyticsRefillPerSecond, List<String> analyticsPaths, long bucketsMaximumSize,
+                long bucketsIdleExpirySeconds, LongSupplier nanoClock) {
+        this.enabled = enabled;
+        this.crudCapacity = crudCapacity;
+        this.crudRefillPerSecond = crudRefillPerSecond;
+        this.analyticsCapacity = analyticsCapacity;
+        this.analyticsRefillPerSecond = analyticsRefillPerSecond;
+        this.analyticsPaths = List.copyOf(analyticsPaths);
+        this.nanoClock = nanoClock;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(bucketsMaximumSize)
+                .expireAfterAccess(Duration.ofSeconds(Math.max(bucketsIdleExpirySeconds, getFullRefillSeconds())))
+                .build();
+    }
+
+    public long tryAcquire(String username, String requestUri) {
+        if (!enabled) {
+            return 0;
+        }
+
+        boolean analytics = isAnalytics(requestUri);
+        long nowNanos = nanoClock.getAsLong();
+        TokenBucket bucket = analytics
+                ? buckets.get("analytics:" + username,
+                key -> new TokenBucket(analyticsCapacity, analyticsRefillPerSecond, nowNanos))
+                : buckets.get("crud:" + username, key -> new TokenBucket(crudCapacity, crudRefillPerSecond, nowNanos));
+
+        long retryAfterNanos = bucket.tryConsume(nowNanos);
+        if (retryAfterNanos == 0) {
+            allowedCount.increment();
+        } else if (analytics) {
+            analyticsRejectedCount.increment();
+        } else {
+            crudRejectedCount.increment();
+        }
+
+        return retryAfterNanos;
+    }
+
+    public RateLimitStats getStats() {
+        return new RateLimitStats(enabled, buckets.estimatedSize(), allowedCount.sum(), crudRejectedCount.sum(),
+                analyticsRejectedCount.sum());
+    }
+
+    long getFullRefillSeconds() {
+        return (long) Math.ceil(Math.max(crudCapacity / crudRefillPerSecond,
+                analyticsCapacity / analyticsRefillPerSecond));
+    }
+
+    private boolean isAnalytics(String requestUri) {
+        String requestPath = normalizePath(requestUri);
+        for (String analyticsPath : analyticsPaths) {
+            if (pathMatcher.match(analyticsPath, requestPath)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private static String normalizePath(String requestUri) {
+        int end = requestUri.length();
+        while (end > 1 && requestUri.charAt(end - 1) == '/') {
+            end--;
+        }
+
+        return requestUri.substring(0, end);
+    }
+}
@@ -0,0 +1,43 @@
+package ru.tokarev.security.ratelimit;
+
+import lombok.AllArgsConstructor;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+class TokenBucket {
+
+    private final double capacity;
+
+    private final double tokensPerNano;
+
+    private final AtomicReference<State> state;
+
+    TokenBucket(long capacity, double refillPerSecond, long nowNanos) {
+        this.capacity = capacity;
+        this.tokensPerNano = refillPerSecond / 1_000_000_000.0;
+        this.state = new AtomicReference<>(new State(capacity, nowNanos));
+    }
+
+    long tryConsume(long nowNanos) {
+        while (true) {
+            State current = state.get();
+            long refilledAt = Math.max(current.refilledAt, nowNanos);
+            double tokens = Math.min(capacity, current.tokens + (refilledAt - current.refilledAt) * tokensPerNano);
+            if (tokens < 1) {
+                return Math.max(1, (long) Math.ceil((1 - tokens) / tokensPerNano));
+            }
+
+            if (state.compareAndSet(current, new State(tokens - 1, refilledAt))) {
+                return 0;
+            }
+        }
+    }
+
+    @AllArgsConstructor
+    private static class State {
+
+        private final double tokens;
+
+        private final long refilledAt;
+    }
+}
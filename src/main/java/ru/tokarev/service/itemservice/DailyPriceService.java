@@ -0,0 +1,15 @@
+package ru.tokarev.service.itemservice;
+
+import ru.tokarev.entity.item.DailyPriceStats;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface DailyPriceService {
+
+    List<DailyPriceStats> getProductDailyPrices(Long productId, LocalDate dateStart, LocalDate dateEnd);
+
+    List<DailyPriceStats> getCategoryDailyPrices(Long categoryId, LocalDate dateStart, LocalDate dateEnd);
+
+    long rebuild();
+}
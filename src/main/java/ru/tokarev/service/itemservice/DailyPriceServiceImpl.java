@@ -0,0 +1,76 @@
+package ru.tokarev.service.itemservice;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.tokarev.entity.item.DailyPriceStats;
+import ru.tokarev.exception.itemexception.ItemBadRequestException;
+import ru.tokarev.exception.itemexception.ItemNotFoundException;
+import ru.tokarev.repository.DailyPriceRepository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Service
+@Slf4j
+public class DailyPriceServiceImpl implements DailyPriceService {
+
+    private static final String DAILY_PRICES_NOT_FOUND_MESSAGE = "Prices for this period not found";
+
+    private final DailyPriceRepository dailyPriceRepository;
+
+    @Autowired
+    public DailyPriceServiceImpl(DailyPriceRepository dailyPriceRepository) {
+        this.dailyPriceRepository = dailyPriceRepository;
+    }
+
+    @Override
+    @PreAuthorize("hasRole('ROLE_ADMIN') or hasRole('ROLE_USER')")
+    @Transactional(readOnly = true)
+    public List<DailyPriceStats> getProductDailyPrices(Long productId, LocalDate dateStart, LocalDate dateEnd) {
+
+        checkPeriod(dateStart, dateEnd);
+        List<DailyPriceStats> dailyPriceStatsList =
+                dailyPriceRepository.findStatsByProductId(productId, dateStart, dateEnd);
+        if (dailyPriceStatsList.isEmpty()) {
+            throw new ItemNotFoundException(DAILY_PRICES_NOT_FOUND_MESSAGE);
+        }
+
+        return dailyPriceStatsList;
+    }
+
+    @Override
+    @PreAuthorize("hasRole('ROLE_ADMIN') or hasRole('ROLE_USER')")
+    @Transactional(readOnly = true)
+    public List<DailyPriceStats> getCategoryDailyPrices(Long categoryId, LocalDate dateStart, LocalDate dateEnd) {
+
+        checkPeriod(dateStart, dateEnd);
+        List<DailyPriceStats> dailyPriceStatsList =
+                dailyPriceRepository.findStatsByCategoryId(categoryId, dateStart, dateEnd);
+        if (dailyPriceStatsList.isEmpty()) {
+            throw new ItemNotFoundException(DAILY_PRICES_NOT_FOUND_MESSAGE);
+        }
+
+        return dailyPriceStatsList;
+    }
+
+    @Override
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @Transactional
+    public long rebuild() {
+
+        long rebuilt = dailyPriceRepository.rebuild();
+
+        log.info("Daily prices rebuilt with {} rows", rebuilt);
+
+        return rebuilt;
+    }
+
+    private static void checkPeriod(LocalDate dateStart, LocalDate dateEnd) {
+        if (!dateStart.isBefore(dateEnd)) {
+            throw new ItemBadRequestException("Start date must be before end date");
+        }
+    }
+}
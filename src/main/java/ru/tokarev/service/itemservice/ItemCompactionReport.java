@@ -0,0 +1,23 @@
+package ru.tokarev.service.itemservice;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Instant;
+
+@Getter
+@AllArgsConstructor
+public class ItemCompactionReport {
+
+    private final Instant startedAt;
+
+    private final Instant finishedAt;
+
+    private final long seriesScanned;
+
+    private final long rowsRemoved;
+
+    private final long bytesReclaimed;
+
+    private final boolean completed;
+}
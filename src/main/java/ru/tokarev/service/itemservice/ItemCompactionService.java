@@ -0,0 +1,8 @@
+package ru.tokarev.service.itemservice;
+
+public interface ItemCompactionService {
+
+    ItemCompactionReport compact();
+
+    ItemCompactionReport getLastReport();
+}
@@ -0,0 +1,246 @@
+package ru.tokarev.service.itemservice;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.tokarev.entity.item.ItemInterval;
+import ru.tokarev.exception.jobexception.JobNotFoundException;
+import ru.tokarev.repository.ItemCompactionRepository;
+import ru.tokarev.repository.ItemJdbcRepository;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+@Service
+@Slf4j
+public class ItemCompactionServiceImpl implements ItemCompactionService {
+
+    private final ItemCompactionRepository itemCompactionRepository;
+
+    private final ItemJdbcRepository itemJdbcRepository;
+
+    private final PriceHistoryIndex priceHistoryIndex;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ScheduledExecutorService compactionExecutor;
+
+    private final long intervalMinutes;
+
+    private final int seriesPerTransaction;
+
+    private final long throttleMillis;
+
+    private volatile boolean stopped;
+
+    private volatile ItemCompactionReport lastReport;
+
+    @Autowired
+    public ItemCompactionServiceImpl(ItemCompactionRepository itemCompactionRepository,
+                                     ItemJdbcRepository itemJdbcRepository, PriceHistoryIndex priceHistoryIndex,
+                                     PlatformTransactionManager transactionManager,
+                                     @Value("${item.compaction.interval-minutes:360}") long intervalMinutes,
+                                     @Value("${item.compaction.series-per-transaction:100}") int seriesPerTransaction,
+                                     @Value("${item.compaction.throttle-millis:200}") long throttleMillis) {
+        this(itemCompactionRepository, itemJdbcRepository, priceHistoryIndex, transactionManager,
+                Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("item-compaction-")),
+                intervalMinutes, seriesPerTransaction, throttleMillis);
+    }
+
+    ItemCompactionServiceImpl(ItemCompactionRepository itemCompactionRepository,
+                              ItemJdbcRepository itemJdbcRepository, PriceHistoryIndex priceHistoryIndex,
+                              PlatformTransactionManager transactionManager,
+                              ScheduledExecutorService compactionExecutor,
+                              long intervalMinutes, int seriesPerTransaction, long throttleMillis) {
+        this.itemCompactionRepository = itemCompactionRepository;
+        this.itemJdbcRepository = itemJdbcRepository;
+        this.priceHistoryIndex = priceHistoryIndex;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.compactionExecutor = compactionExecutor;
+        this.intervalMinutes = intervalMinutes;
+        this.seriesPerTransaction = seriesPerTransaction;
+        this.throttleMillis = throttleMillis;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (intervalMinutes > 0) {
+            compactionExecutor.scheduleWithFixedDelay(this::compactQuietly, intervalMinutes, intervalMinutes,
+                    TimeUnit.MINUTES);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        stopped = true;
+        compactionExecutor.shutdown();
+    }
+
+    @Override
+    public ItemCompactionReport compact() {
+
+        Instant startedAt = Instant.now();
+        List<Long> seriesKey = itemCompactionRepository.findCheckpoint();
+        log.info("Item compaction pass started after product {} and marketplace {}",
+                seriesKey.get(0), seriesKey.get(1));
+
+        long seriesScanned = 0;
+        long rowsRemoved = 0;
+        long bytesReclaimed = 0;
+        boolean completed = false;
+        while (!stopped) {
+            List<Long> afterSeriesKey = seriesKey;
+            CompactionBatch compactionBatch = Objects.requireNonNull(
+                    transactionTemplate.execute(status -> compactBatch(afterSeriesKey)));
+            if (compactionBatch.getSeriesCount() == 0) {
+                itemCompactionRepository.deleteCheckpoint();
+                completed = true;
+                break;
+            }
+
+            seriesKey = compactionBatch.getLastSeriesKey();
+            seriesScanned += compactionBatch.getSeriesCount();
+            rowsRemoved += compactionBatch.getRowsRemoved();
+            bytesReclaimed += compactionBatch.getBytesReclaimed();
+
+            if (!throttle()) {
+                break;
+            }
+        }
+
+        ItemCompactionReport report = new ItemCompactionReport(startedAt, Instant.now(), seriesScanned,
+                rowsRemoved, bytesReclaimed, completed);
+        lastReport = report;
+
+        log.info("Item compaction pass {} after {} series: {} rows removed, {} bytes reclaimed",
+                completed ? "completed" : "paused", seriesScanned, rowsRemoved, bytesReclaimed);
+
+        return report;
+    }
+
+    @Override
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public ItemCompactionReport getLastReport() {
+
+        ItemCompactionReport report = lastReport;
+        if (report == null) {
+            throw new JobNotFoundException("No compaction pass finished yet");
+        }
+
+        return report;
+    }
+
+    private void compactQuietly() {
+        try {
+            compact();
+        } catch (DataAccessException | TransactionException e) {
+            log.warn("Item compaction pass failed, it will resume from the last checkpoint: {}", e.getMessage());
+        }
+    }
+
+    private CompactionBatch compactBatch(List<Long> afterSeriesKey) {
+
+        List<List<Long>> seriesKeyList =
+                itemCompactionRepository.findSeriesAfter(afterSeriesKey, seriesPerTransaction);
+        if (seriesKeyList.isEmpty()) {
+            return new CompactionBatch(afterSeriesKey, 0, 0, 0);
+        }
+
+        List<Long> lastSeriesKey = seriesKeyList.get(seriesKeyList.size() - 1);
+        List<ItemInterval> updatedIntervalList = new ArrayList<>();
+        List<ItemInterval> deletedIntervalList = new ArrayList<>();
+        compactIntervals(itemCompactionRepository.findIntervalsForUpdate(afterSeriesKey, lastSeriesKey),
+                updatedIntervalList, deletedIntervalList);
+
+        long bytesReclaimed = 0;
+        if (!deletedIntervalList.isEmpty()) {
+            List<Long> deletedIds = new ArrayList<>(deletedIntervalList.size());
+            for (ItemInterval interval : deletedIntervalList) {
+                deletedIds.add(interval.getId());
+            }
+            bytesReclaimed = itemCompactionRepository.deleteReturningSize(deletedIds);
+        }
+        if (!updatedIntervalList.isEmpty()) {
+            itemJdbcRepository.batchUpdatePeriods(updatedIntervalList);
+        }
+        priceHistoryIndex.replaceIntervals(deletedIntervalList, updatedIntervalList);
+        itemCompactionRepository.saveCheckpoint(lastSeriesKey);
+
+        return new CompactionBatch(lastSeriesKey, seriesKeyList.size(), deletedIntervalList.size(), bytesReclaimed);
+    }
+
+    private static void compactIntervals(List<ItemInterval> intervalList, List<ItemInterval> updatedIntervalList,
+                                         List<ItemInterval> deletedIntervalList) {
+
+        ItemInterval runStart = null;
+        LocalDate runDateEnd = null;
+        for (ItemInterval interval : intervalList) {
+            if (runStart != null &&
+                    runStart.getProductId().equals(interval.getProductId()) &&
+                    runStart.getMarketplaceId().equals(interval.getMarketplaceId()) &&
+                    runStart.getPrice().equals(interval.getPrice()) &&
+                    runDateEnd.equals(interval.getDateStart())) {
+                runDateEnd = interval.getDateEnd();
+                deletedIntervalList.add(interval);
+                continue;
+            }
+
+            addIfExtended(runStart, runDateEnd, updatedIntervalList);
+            runStart = interval;
+            runDateEnd = interval.getDateEnd();
+        }
+        addIfExtended(runStart, runDateEnd, updatedIntervalList);
+    }
+
+    private static void addIfExtended(ItemInterval runStart, LocalDate runDateEnd,
+                                      List<ItemInterval> updatedIntervalList) {
+        if (runStart != null && !runDateEnd.equals(runStart.getDateEnd())) {
+            updatedIntervalList.add(new ItemInterval(runStart.getId(), runStart.getProductId(),
+                    runStart.getMarketplaceId(), runStart.getPrice(), runStart.getDateStart(), runDateEnd));
+        }
+    }
+
+    private boolean throttle() {
+        if (throttleMillis <= 0) {
+            return true;
+        }
+
+        try {
+            Thread.sleep(throttleMillis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static class CompactionBatch {
+
+        private final List<Long> lastSeriesKey;
+
+        private final int seriesCount;
+
+        private final long rowsRemoved;
+
+        private final long bytesReclaimed;
+    }
+}
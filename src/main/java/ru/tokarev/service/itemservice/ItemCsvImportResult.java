@@ -0,0 +1,29 @@
+package ru.tokarev.service.itemservice;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class ItemCsvImportResult {
+
+    private final long rowsReceived;
+
+    private final long rowsImported;
+
+    private final long rowsMissingValue;
+
+    private final long rowsNonPositivePrice;
+
+    private final long rowsEmptyPeriod;
+
+    private final long rowsUnknownProduct;
+
+    private final long rowsUnknownMarketplace;
+
+    private final long rowsOverlapping;
+
+    public long getRowsRejected() {
+        return rowsReceived - rowsImported;
+    }
+}
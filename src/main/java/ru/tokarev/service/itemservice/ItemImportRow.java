@@ -0,0 +1,24 @@
+package ru.tokarev.service.itemservice;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.tokarev.entity.item.Item;
+
+@Getter
+@AllArgsConstructor
+public class ItemImportRow {
+
+    private final long row;
+
+    private final Item item;
+
+    private final String error;
+
+    public static ItemImportRow valid(long row, Item item) {
+        return new ItemImportRow(row, item, null);
+    }
+
+    public static ItemImportRow invalid(long row, String error) {
+        return new ItemImportRow(row, null, error);
+    }
+}
@@ -0,0 +1,17 @@
+package ru.tokarev.service.itemservice;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class ItemImportRowResult {
+
+    private final long row;
+
+    private final ItemImportRowStatus status;
+
+    private final Long itemId;
+
+    private final String message;
+}
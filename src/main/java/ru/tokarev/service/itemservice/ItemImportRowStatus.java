@@ -0,0 +1,11 @@
+package ru.tokarev.service.itemservice;
+
+public enum ItemImportRowStatus {
+    ACCEPTED,
+    MERGED,
+    UNCHANGED,
+    OVERLAP,
+    PRODUCT_NOT_FOUND,
+    MARKETPLACE_NOT_FOUND,
+    INVALID
+}
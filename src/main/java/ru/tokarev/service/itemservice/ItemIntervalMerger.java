@@ -0,0 +1,226 @@
+package ru.tokarev.service.itemservice;
+
+import ru.tokarev.entity.item.Item;
+import ru.tokarev.entity.item.ItemInterval;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+public class ItemIntervalMerger {
+
+    private final Map<List<Long>, NavigableMap<LocalDate, Segment>> segmentsBySeries = new HashMap<>();
+
+    private final Map<List<Object>, Segment> emptySegments = new HashMap<>();
+
+    private final List<Segment> allSegments = new ArrayList<>();
+
+    public void addExisting(ItemInterval interval) {
+        Segment segment = new Segment(interval.getId(), interval.getProductId(), interval.getMarketplaceId(),
+                interval.getDateStart(), interval.getDateEnd(), interval.getPrice(), null);
+        allSegments.add(segment);
+
+        if (segment.isEmpty()) {
+            emptySegments.put(segment.getEmptyKey(), segment);
+        } else {
+            getSegments(segment.productId, segment.marketplaceId).put(segment.dateStart, segment);
+        }
+    }
+
+    public Merge merge(Item item) {
+        Long productId = item.getProduct().getId();
+        Long marketplaceId = item.getMarketplace().getId();
+        LocalDate dateStart = item.getDateStart();
+        LocalDate dateEnd = item.getDateEnd();
+        int price = item.getPrice();
+
+        if (!dateStart.isBefore(dateEnd)) {
+            Segment segment = new Segment(null, productId, marketplaceId, dateStart, dateEnd, price, item);
+            Segment existingSegment = emptySegments.putIfAbsent(segment.getEmptyKey(), segment);
+            if (existingSegment != null) {
+                return new Merge(ItemImportRowStatus.UNCHANGED, existingSegment);
+            }
+            allSegments.add(segment);
+            return new Merge(ItemImportRowStatus.ACCEPTED, segment);
+        }
+
+        NavigableMap<LocalDate, Segment> segments = getSegments(productId, marketplaceId);
+        List<Segment> touchingSegments = new ArrayList<>();
+        Map.Entry<LocalDate, Segment> previous = segments.lowerEntry(dateStart);
+        if (previous != null && !previous.getValue().dateEnd.isBefore(dateStart)) {
+            touchingSegments.add(previous.getValue());
+        }
+        touchingSegments.addAll(segments.subMap(dateStart, true, dateEnd, true).values());
+
+        List<Segment> mergeableSegments = new ArrayList<>();
+        for (Segment segment : touchingSegments) {
+            boolean overlapping = segment.dateStart.isBefore(dateEnd) && segment.dateEnd.isAfter(dateStart);
+            if (segment.price == price) {
+                mergeableSegments.add(segment);
+            } else if (overlapping) {
+                return new Merge(ItemImportRowStatus.OVERLAP, null);
+            }
+        }
+
+        if (mergeableSegments.isEmpty()) {
+            Segment segment = new Segment(null, productId, marketplaceId, dateStart, dateEnd, price, item);
+            allSegments.add(segment);
+            segments.put(dateStart, segment);
+            return new Merge(ItemImportRowStatus.ACCEPTED, segment);
+        }
+
+        Segment survivor = mergeableSegments.get(0);
+        for (Segment segment : mergeableSegments) {
+            if (segment.isExisting()) {
+                survivor = segment;
+                break;
+            }
+        }
+        if (mergeableSegments.size() == 1 &&
+                !survivor.dateStart.isAfter(dateStart) && !survivor.dateEnd.isBefore(dateEnd)) {
+            return new Merge(ItemImportRowStatus.UNCHANGED, survivor);
+        }
+
+        LocalDate mergedDateStart = dateStart;
+        LocalDate mergedDateEnd = dateEnd;
+        for (Segment segment : mergeableSegments) {
+            segments.remove(segment.dateStart);
+            mergedDateStart = segment.dateStart.isBefore(mergedDateStart) ? segment.dateStart : mergedDateStart;
+            mergedDateEnd = segment.dateEnd.isAfter(mergedDateEnd) ? segment.dateEnd : mergedDateEnd;
+            if (segment != survivor) {
+                segment.mergedInto = survivor;
+            }
+        }
+
+        survivor.dateStart = mergedDateStart;
+        survivor.dateEnd = mergedDateEnd;
+        survivor.changed = true;
+        segments.put(mergedDateStart, survivor);
+
+        return new Merge(ItemImportRowStatus.MERGED, survivor);
+    }
+
+    public List<ItemInterval> getDeletedIntervals() {
+        List<ItemInterval> intervalList = new ArrayList<>();
+        for (Segment segment : allSegments) {
+            if (segment.isExisting() && segment.mergedInto != null) {
+                intervalList.add(segment.toInterval());
+            }
+        }
+
+        return intervalList;
+    }
+
+    public List<ItemInterval> getUpdatedIntervals() {
+        List<ItemInterval> intervalList = new ArrayList<>();
+        for (Segment segment : allSegments) {
+            if (segment.isExisting() && segment.mergedInto == null && segment.changed) {
+                intervalList.add(segment.toInterval());
+            }
+        }
+
+        return intervalList;
+    }
+
+    public List<Item> getInsertedItems() {
+        List<Item> itemList = new ArrayList<>();
+        for (Segment segment : allSegments) {
+            if (!segment.isExisting() && segment.mergedInto == null) {
+                segment.item.setDateStart(segment.dateStart);
+                segment.item.setDateEnd(segment.dateEnd);
+                itemList.add(segment.item);
+            }
+        }
+
+        return itemList;
+    }
+
+    private NavigableMap<LocalDate, Segment> getSegments(Long productId, Long marketplaceId) {
+        return segmentsBySeries.computeIfAbsent(List.of(productId, marketplaceId), key -> new TreeMap<>());
+    }
+
+    public static final class Merge {
+
+        private final ItemImportRowStatus status;
+
+        private final Segment segment;
+
+        private Merge(ItemImportRowStatus status, Segment segment) {
+            this.status = status;
+            this.segment = segment;
+        }
+
+        public ItemImportRowStatus getStatus() {
+            return status;
+        }
+
+        public Long getItemId() {
+            if (segment == null) {
+                return null;
+            }
+
+            Segment target = segment;
+            while (target.mergedInto != null) {
+                target = target.mergedInto;
+            }
+
+            return target.getId();
+        }
+    }
+
+    private static final class Segment {
+
+        private final Long id;
+
+        private final Long productId;
+
+        private final Long marketplaceId;
+
+        private final int price;
+
+        private final Item item;
+
+        private LocalDate dateStart;
+
+        private LocalDate dateEnd;
+
+        private boolean changed;
+
+        private Segment mergedInto;
+
+        private Segment(Long id, Long productId, Long marketplaceId, LocalDate dateStart, LocalDate dateEnd,
+                        int price, Item item) {
+            this.id = id;
+            this.productId = productId;
+            this.marketplaceId = marketplaceId;
+            this.dateStart = dateStart;
+            this.dateEnd = dateEnd;
+            this.price = price;
+            this.item = item;
+        }
+
+        private boolean isExisting() {
+            return item == null;
+        }
+
+        private boolean isEmpty() {
+            return !dateStart.isBefore(dateEnd);
+        }
+
+        private Long getId() {
+            return isExisting() ? id : item.getId();
+        }
+
+        private List<Object> getEmptyKey() {
+            return List.of(productId, marketplaceId, dateStart, price);
+        }
+
+        private ItemInterval toInterval() {
+            return new ItemInterval(id, productId, marketplaceId, price, dateStart, dateEnd);
+        }
+    }
+}
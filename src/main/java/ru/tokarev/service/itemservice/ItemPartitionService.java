@@ -0,0 +1,13 @@
+package ru.tokarev.service.itemservice;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface ItemPartitionService {
+
+    int createUpcomingPartitions();
+
+    List<String> detachPartitionsBefore(LocalDate beforeDate);
+
+    long splitDefaultPartition(LocalDate splitDate);
+}
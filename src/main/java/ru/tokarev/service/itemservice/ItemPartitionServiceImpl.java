@@ -0,0 +1,119 @@
+package ru.tokarev.service.itemservice;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionException;
+import ru.tokarev.exception.itemexception.ItemBadRequestException;
+import ru.tokarev.repository.ItemPartitionRepository;
+
+import javax.annotation.PreDestroy;
+import java.time.LocalDate;
+import java.time.Period;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+@Service
+@Slf4j
+public class ItemPartitionServiceImpl implements ItemPartitionService {
+
+    private static final Period PARTITION_HORIZON = Period.ofYears(1);
+
+    private static final long MAINTENANCE_INTERVAL_HOURS = 24;
+
+    private final ItemPartitionRepository itemPartitionRepository;
+
+    private final PriceHistoryIndex priceHistoryIndex;
+
+    private final ScheduledExecutorService maintenanceExecutor;
+
+    @Autowired
+    public ItemPartitionServiceImpl(ItemPartitionRepository itemPartitionRepository,
+                                    PriceHistoryIndex priceHistoryIndex) {
+        this(itemPartitionRepository, priceHistoryIndex,
+                Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("item-partition-")));
+    }
+
+    ItemPartitionServiceImpl(ItemPartitionRepository itemPartitionRepository, PriceHistoryIndex priceHistoryIndex,
+                             ScheduledExecutorService maintenanceExecutor) {
+        this.itemPartitionRepository = itemPartitionRepository;
+        this.priceHistoryIndex = priceHistoryIndex;
+        this.maintenanceExecutor = maintenanceExecutor;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        maintenanceExecutor.scheduleWithFixedDelay(this::createUpcomingPartitionsQuietly, 0,
+                MAINTENANCE_INTERVAL_HOURS, TimeUnit.HOURS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        maintenanceExecutor.shutdown();
+    }
+
+    @Override
+    public int createUpcomingPartitions() {
+
+        LocalDate today = LocalDate.now();
+        int created = itemPartitionRepository.createPartitions(getQuarterStart(today), today.plus(PARTITION_HORIZON));
+
+        log.info("Item partitions checked up to {}, {} created", today.plus(PARTITION_HORIZON), created);
+
+        long defaultPartitionRows = itemPartitionRepository.countDefaultPartitionRows();
+        if (defaultPartitionRows > 0) {
+            log.warn("Default item partition holds {} rows, quarters that contain them are not partitioned until" +
+                    " POST /api/items/partitions/split-default is run for them", defaultPartitionRows);
+        }
+
+        return created;
+    }
+
+    @Override
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public List<String> detachPartitionsBefore(LocalDate beforeDate) {
+
+        if (beforeDate.isAfter(getQuarterStart(LocalDate.now()))) {
+            throw new ItemBadRequestException("Only partitions before the current quarter can be detached");
+        }
+
+        List<String> detachedPartitions = itemPartitionRepository.detachPartitionsBefore(beforeDate);
+        if (!detachedPartitions.isEmpty()) {
+            priceHistoryIndex.load();
+        }
+
+        log.info("Item partitions detached for archival: {}", detachedPartitions);
+
+        return detachedPartitions;
+    }
+
+    @Override
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public long splitDefaultPartition(LocalDate splitDate) {
+
+        long moved = itemPartitionRepository.splitDefaultPartition(splitDate);
+
+        log.info("Quarter of {} split out of the default item partition with {} rows", splitDate, moved);
+
+        return moved;
+    }
+
+    private void createUpcomingPartitionsQuietly() {
+        try {
+            createUpcomingPartitions();
+        } catch (DataAccessException | TransactionException e) {
+            log.warn("Item partitions were not created: {}", e.getMessage());
+        }
+    }
+
+    private static LocalDate getQuarterStart(LocalDate date) {
+        return date.withMonth((date.getMonthValue() - 1) / 3 * 3 + 1).withDayOfMonth(1);
+    }
+}
@@ -0,0 +1,131 @@
+package ru.tokarev.service.itemservice;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.tokarev.utils.TransactionUtil;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+@Component
+public class ItemResultCache {
+
+    private final Cache<ResultKey, CachedResult> cache;
+
+    private final long maximumWeight;
+
+    private final Map<Long, Long> productVersions = new ConcurrentHashMap<>();
+
+    private final AtomicLong epoch = new AtomicLong();
+
+    @Autowired
+    public ItemResultCache(@Value("${item.result-cache.maximum-weight:1000000}") long maximumWeight) {
+        this.maximumWeight = maximumWeight;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maximumWeight)
+                .weigher((ResultKey key, CachedResult result) -> result.getWeight())
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Returns the cached result or runs the loader outside of the cache, so a slow database fallback does not
+     * block writers of other keys. Concurrent misses may load the same key twice; the last put wins.
+     * Cached values are shared between callers, so loaders must return immutable collections.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(ResultKind kind, Long productId, Long marketplaceId, LocalDate dateStart, LocalDate dateEnd,
+                     Supplier<T> loader, ToIntFunction<T> weigher) {
+
+        if (productId == null) {
+            return loader.get();
+        }
+
+        ResultKey key = new ResultKey(kind, productId, marketplaceId, dateStart, dateEnd,
+                epoch.get(), productVersions.getOrDefault(productId, 0L));
+
+        CachedResult cachedResult = cache.getIfPresent(key);
+        if (cachedResult != null) {
+            return (T) cachedResult.getValue();
+        }
+
+        T value = loader.get();
+        cache.put(key, new CachedResult(value, 1 + weigher.applyAsInt(value)));
+
+        return value;
+    }
+
+    public void invalidateProduct(Long productId) {
+        TransactionUtil.afterCommit(() -> incrementProductVersion(productId));
+    }
+
+    public void invalidateAll() {
+        TransactionUtil.afterCommit(this::incrementEpoch);
+    }
+
+    public ItemResultCacheStats getStats() {
+
+        CacheStats cacheStats = cache.stats();
+        long weightedSize = cache.policy().eviction()
+                .map(eviction -> eviction.weightedSize().orElse(0))
+                .orElse(0L);
+
+        return new ItemResultCacheStats(cacheStats.hitCount(), cacheStats.missCount(), cacheStats.hitRate(),
+                cacheStats.evictionCount(), cacheStats.evictionWeight(), cache.estimatedSize(), weightedSize,
+                maximumWeight);
+    }
+
+    void incrementProductVersion(Long productId) {
+        productVersions.merge(productId, 1L, Long::sum);
+    }
+
+    void incrementEpoch() {
+        epoch.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    public enum ResultKind {
+        PRICE_COMPARING,
+        PRICE_DYNAMIC,
+        PRICE_DYNAMIC_FOR_MARKETPLACE
+    }
+
+    @EqualsAndHashCode
+    @AllArgsConstructor
+    private static class ResultKey {
+
+        private final ResultKind kind;
+
+        private final Long productId;
+
+        private final Long marketplaceId;
+
+        private final LocalDate dateStart;
+
+        private final LocalDate dateEnd;
+
+        private final long epoch;
+
+        private final long productVersion;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static class CachedResult {
+
+        private final Object value;
+
+        private final int weight;
+    }
+}
@@ -0,0 +1,25 @@
+package ru.tokarev.service.itemservice;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class ItemResultCacheStats {
+
+    private final long hitCount;
+
+    private final long missCount;
+
+    private final double hitRate;
+
+    private final long evictionCount;
+
+    private final long evictionWeight;
+
+    private final long estimatedSize;
+
+    private final long weightedSize;
+
+    private final long maximumWeight;
+}
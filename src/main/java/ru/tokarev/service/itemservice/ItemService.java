@@ -1,11 +1,16 @@
 package ru.tokarev.service.itemservice;
 
+import ru.tokarev.dto.item.ProductPriceColumnsDto;
 import ru.tokarev.dto.item.ProductPriceComparingDto;
 import ru.tokarev.dto.item.ProductPriceDifferenceDto;
+import ru.tokarev.dto.item.ProductPriceIntervalsDto;
 import ru.tokarev.entity.item.Item;
 
+import java.io.InputStream;
 import java.time.LocalDate;
+import java.util.Iterator;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface ItemService {
 
@@ -19,13 +24,36 @@ public interface ItemService {
     List<ProductPriceDifferenceDto> checkPriceDynamicForOneItem(
             Long product, LocalDate dateStart, LocalDate dateEnd);
 
+    ProductPriceIntervalsDto checkPriceIntervalsForOneItemAndOneMarketplace(
+            Long productId, LocalDate dateStart, LocalDate dateEnd, Long marketplaceId);
+
+    List<ProductPriceIntervalsDto> checkPriceIntervalsForOneItem(
+            Long productId, LocalDate dateStart, LocalDate dateEnd);
+
+    ProductPriceColumnsDto checkPriceColumnsForOneItemAndOneMarketplace(
+            Long productId, LocalDate dateStart, LocalDate dateEnd, Long marketplaceId);
+
+    List<ProductPriceColumnsDto> checkPriceColumnsForOneItem(
+            Long productId, LocalDate dateStart, LocalDate dateEnd);
+
     ProductPriceComparingDto getItemPriceComparing(Long productId, LocalDate dateStart, LocalDate dateEnd);
 
     List<ProductPriceComparingDto> getItemsPriceComparing(LocalDate dateStart, LocalDate dateEnd);
 
+    void streamItemsPriceComparing(LocalDate dateStart, LocalDate dateEnd,
+                                   Consumer<ProductPriceComparingDto> consumer);
+
     Item createItem(Item item);
 
     List<Item> createItems(List<Item> itemList);
 
+    long createItemsInChunks(Iterator<List<Item>> itemChunkIterator);
+
+    List<ItemImportRowResult> importItemsInChunks(Iterator<List<ItemImportRow>> rowChunkIterator);
+
+    List<ItemImportRowResult> upsertItems(List<ItemImportRow> rowList);
+
+    ItemCsvImportResult importItemsFromCsv(InputStream inputStream);
+
     void deleteItem(Long id);
 }
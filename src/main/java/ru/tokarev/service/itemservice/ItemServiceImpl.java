@@ -2,45 +2,86 @@ package ru.tokarev.service.itemservice;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.transaction.interceptor.TransactionAspectSupport;
+import org.springframework.transaction.support.TransactionTemplate;
 import ru.tokarev.dto.item.PriceByDayDto;
+import ru.tokarev.dto.item.PriceIntervalDto;
+import ru.tokarev.dto.item.ProductPriceColumnsDto;
 import ru.tokarev.dto.item.ProductPriceComparingDto;
 import ru.tokarev.dto.item.ProductPriceDifferenceDto;
+import ru.tokarev.dto.item.ProductPriceIntervalsDto;
 import ru.tokarev.entity.Marketplace;
 import ru.tokarev.entity.Product;
 import ru.tokarev.entity.item.Item;
+import ru.tokarev.entity.item.ItemCsvMergeCount;
+import ru.tokarev.entity.item.ItemInterval;
+import ru.tokarev.entity.item.NamedItemInterval;
 import ru.tokarev.exception.itemexception.ItemBadRequestException;
 import ru.tokarev.exception.itemexception.ItemExistsException;
+import ru.tokarev.exception.itemexception.ItemImportInterruptedException;
 import ru.tokarev.exception.itemexception.ItemNotFoundException;
 import ru.tokarev.exception.marketplaceexception.MarketPlaceNotFoundException;
 import ru.tokarev.exception.productexception.ProductNotFoundException;
+import ru.tokarev.repository.ItemJdbcRepository;
 import ru.tokarev.repository.ItemRepository;
 import ru.tokarev.repository.MarketplaceRepository;
 import ru.tokarev.repository.ProductRepository;
 
+import java.io.InputStream;
+import java.sql.SQLException;
 import java.time.LocalDate;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 @Slf4j
 public class ItemServiceImpl implements ItemService {
 
+    private static final int IMPORT_BATCH_SIZE = 10000;
+
+    private static final String EXCLUSION_VIOLATION_SQL_STATE = "23P01";
+
+    private static final String PRODUCT_NOT_FOUND_MESSAGE = "Product with this id doesn't exist";
+
+    private static final String MARKETPLACE_NOT_FOUND_MESSAGE = "Marketplace with this id not found";
+
+    private static final String ITEM_EXISTS_MESSAGE = "Product for this period already added";
+
     private final ItemRepository itemRepository;
 
     private final ProductRepository productRepository;
 
     private final MarketplaceRepository marketplaceRepository;
 
+    private final PriceHistoryIndex priceHistoryIndex;
+
+    private final ItemJdbcRepository itemJdbcRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final StripedIngestionExecutor stripedIngestionExecutor;
+
+    private final ItemResultCache itemResultCache;
+
     @Autowired
     public ItemServiceImpl(ItemRepository itemRepository, ProductRepository productRepository,
-                           MarketplaceRepository marketplaceRepository) {
+                           MarketplaceRepository marketplaceRepository, PriceHistoryIndex priceHistoryIndex,
+                           ItemJdbcRepository itemJdbcRepository, PlatformTransactionManager transactionManager,
+                           StripedIngestionExecutor stripedIngestionExecutor, ItemResultCache itemResultCache) {
         this.itemRepository = itemRepository;
         this.productRepository = productRepository;
         this.marketplaceRepository = marketplaceRepository;
+        this.priceHistoryIndex = priceHistoryIndex;
+        this.itemJdbcRepository = itemJdbcRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.stripedIngestionExecutor = stripedIngestionExecutor;
+        this.itemResultCache = itemResultCache;
     }
 
 
@@ -75,26 +116,12 @@ public class ItemServiceImpl implements ItemService {
     public ProductPriceDifferenceDto checkPriceDynamicForOneItemAndOneMarketplace(
             Long productId, LocalDate dateStart, LocalDate dateEnd, Long marketplaceId) {
 
-        Product product = productRepository.findById(productId).orElseThrow(
-                () -> new ProductNotFoundException("Product with this id doesn't exist")
-        );
-        Marketplace marketplace = marketplaceRepository.findById(marketplaceId).orElseThrow(
-                () -> new MarketPlaceNotFoundException("Marketplace with this id doesn't exist")
-        );
-
-        List<Item> itemList = itemRepository.findAllByProductAndMarketplaceAndOrderByDateStartAsc(
-                product, marketplace).orElseThrow(
-                () -> new ItemNotFoundException("Items not found")
-        );
-
-        if (itemList.size() == 0) {
-            throw new ItemNotFoundException("Items not found");
-        }
-
-        List<LocalDate> datesBetween = dateStart.datesUntil(dateEnd).collect(Collectors.toList());
-        List<PriceByDayDto> priceByDayDtoList = createPriceByDayDtoList(itemList, datesBetween);
-
-        return new ProductPriceDifferenceDto(product.getName(), marketplace.getName(), priceByDayDtoList);
+        return itemResultCache.get(ItemResultCache.ResultKind.PRICE_DYNAMIC_FOR_MARKETPLACE,
+                productId, marketplaceId, dateStart, dateEnd,
+                () -> checkPriceSeriesForOneItemAndOneMarketplace(productId, marketplaceId,
+                        (productName, marketplaceName, priceSeries) -> new ProductPriceDifferenceDto(productName,
+                                marketplaceName, createPriceByDayDtoList(priceSeries, dateStart, dateEnd))),
+                ItemServiceImpl::weighPriceDifference);
     }
 
     @Override
@@ -103,33 +130,56 @@ public class ItemServiceImpl implements ItemService {
     public List<ProductPriceDifferenceDto> checkPriceDynamicForOneItem (
             Long productId, LocalDate dateStart, LocalDate dateEnd) {
 
-        Product product = productRepository.findById(productId).orElseThrow(
-                () -> new ProductNotFoundException("Product with this id doesn't exist")
-        );
-
-        List<Marketplace> marketplaceList = Optional.of(marketplaceRepository.findAll()).orElseThrow(
-                () -> new MarketPlaceNotFoundException("Marketplaces do not exist")
-        );
+        return itemResultCache.get(ItemResultCache.ResultKind.PRICE_DYNAMIC, productId, null, dateStart, dateEnd,
+                () -> List.copyOf(checkPriceSeriesForOneItem(productId,
+                        (productName, marketplaceName, priceSeries) -> new ProductPriceDifferenceDto(productName,
+                                marketplaceName, createPriceByDayDtoList(priceSeries, dateStart, dateEnd)))),
+                productPriceDifferenceDtoList -> productPriceDifferenceDtoList.stream()
+                        .mapToInt(ItemServiceImpl::weighPriceDifference).sum());
+    }
 
-        List<Item> itemList;
+    @Override
+    @PreAuthorize("hasRole('ROLE_ADMIN') or hasRole('ROLE_USER')")
+    @Transactional
+    public ProductPriceIntervalsDto checkPriceIntervalsForOneItemAndOneMarketplace(
+            Long productId, LocalDate dateStart, LocalDate dateEnd, Long marketplaceId) {
 
-        List<LocalDate> datesBetween = dateStart.datesUntil(dateEnd).collect(Collectors.toList());
+        return checkPriceSeriesForOneItemAndOneMarketplace(productId, marketplaceId,
+                (productName, marketplaceName, priceSeries) -> new ProductPriceIntervalsDto(
+                        productName, marketplaceName, createPriceIntervalDtoList(priceSeries, dateStart, dateEnd)));
+    }
 
-        List<ProductPriceDifferenceDto> productPriceDifferenceDtoList = new ArrayList<>();
-        for (Marketplace marketplace : marketplaceList) {
+    @Override
+    @PreAuthorize("hasRole('ROLE_ADMIN') or hasRole('ROLE_USER')")
+    @Transactional
+    public List<ProductPriceIntervalsDto> checkPriceIntervalsForOneItem(
+            Long productId, LocalDate dateStart, LocalDate dateEnd) {
 
-            itemList = itemRepository.findAllByProductAndMarketplaceAndOrderByDateStartAsc(product, marketplace)
-                    .orElseThrow(() -> new ItemNotFoundException("Products on markets not found")
-                    );
+        return checkPriceSeriesForOneItem(productId,
+                (productName, marketplaceName, priceSeries) -> new ProductPriceIntervalsDto(
+                        productName, marketplaceName, createPriceIntervalDtoList(priceSeries, dateStart, dateEnd)));
+    }
 
+    @Override
+    @PreAuthorize("hasRole('ROLE_ADMIN') or hasRole('ROLE_USER')")
+    @Transactional
+    public ProductPriceColumnsDto checkPriceColumnsForOneItemAndOneMarketplace(
+            Long productId, LocalDate dateStart, LocalDate dateEnd, Long marketplaceId) {
 
-            List<PriceByDayDto> priceByDayDtoList = createPriceByDayDtoList(itemList, datesBetween);
-            productPriceDifferenceDtoList.add(
-                    new ProductPriceDifferenceDto(product.getName(), marketplace.getName(), priceByDayDtoList));
-        }
+        return checkPriceSeriesForOneItemAndOneMarketplace(productId, marketplaceId,
+                (productName, marketplaceName, priceSeries) ->
+                        createProductPriceColumnsDto(productName, marketplaceName, priceSeries, dateStart, dateEnd));
+    }
 
-        return productPriceDifferenceDtoList;
+    @Override
+    @PreAuthorize("hasRole('ROLE_ADMIN') or hasRole('ROLE_USER')")
+    @Transactional
+    public List<ProductPriceColumnsDto> checkPriceColumnsForOneItem(
+            Long productId, LocalDate dateStart, LocalDate dateEnd) {
 
+        return checkPriceSeriesForOneItem(productId,
+                (productName, marketplaceName, priceSeries) ->
+                        createProductPriceColumnsDto(productName, marketplaceName, priceSeries, dateStart, dateEnd));
     }
 
     @Override
@@ -137,83 +187,86 @@ public class ItemServiceImpl implements ItemService {
     @Transactional
     public List<ProductPriceComparingDto> getItemsPriceComparing(LocalDate dateStart, LocalDate dateEnd) {
 
-        List<Product> productList = Optional.of(productRepository.findAll()).orElseThrow(
-                () -> new ProductNotFoundException("Product with this id doesn't exist")
-        );
-
         List<ProductPriceComparingDto> productPriceComparingDtoList = new ArrayList<>();
-        for (Product product : productList) {
-            ProductPriceComparingDto productPriceComparingDto =
-                    getItemPriceComparing(product.getId(), dateStart, dateEnd);
-            if(!productPriceComparingDto.getMarketplaceEverydayPricesMap().isEmpty()) {
-                productPriceComparingDtoList.add(getItemPriceComparing(product.getId(), dateStart, dateEnd));
-            }
-        }
+        streamItemsPriceComparing(dateStart, dateEnd, productPriceComparingDtoList::add);
 
         return productPriceComparingDtoList;
     }
 
     @Override
     @PreAuthorize("hasRole('ROLE_ADMIN') or hasRole('ROLE_USER')")
-    @Transactional
-    public ProductPriceComparingDto getItemPriceComparing(
-            Long productId, LocalDate dateStart, LocalDate dateEnd) {
-
-        Product product = productRepository.findById(productId).orElseThrow(
-                () -> new ProductNotFoundException("Product with this id not found"));
-
-        List<Item> itemList = itemRepository.findAllByDateStartAfterAndDateEndBeforeAndProductOrderByDateStartAsc(
-                dateStart, dateEnd, product).orElseThrow(
-                () -> new ItemNotFoundException("No product on market found")
-        );
+    @Transactional(readOnly = true)
+    public void streamItemsPriceComparing(LocalDate dateStart, LocalDate dateEnd,
+                                          Consumer<ProductPriceComparingDto> consumer) {
+
+        if (priceHistoryIndex.isReady()) {
+            List<Product> productList = Optional.of(productRepository.findAll()).orElseThrow(
+                    () -> new ProductNotFoundException("Product with this id doesn't exist")
+            );
+            List<Marketplace> marketplaceList = marketplaceRepository.findAll();
+
+            for (Product product : productList) {
+                Map<String, PriceSeries> priceSeriesByMarketplaceName = toPriceSeriesByMarketplaceName(
+                        priceHistoryIndex.getSeriesByMarketplace(product.getId()), marketplaceList);
+                acceptIfNotEmpty(consumer, createProductPriceComparingDto(
+                        product.getName(), priceSeriesByMarketplaceName, dateStart, dateEnd));
+            }
 
-        List<LocalDate> datesBetween = dateStart.datesUntil(dateEnd).collect(Collectors.toList());
+            return;
+        }
 
-        Map<LocalDate, Map<String, Integer>> marketplaceEverydayPricesMap = new TreeMap<>();
-        for (Item item : itemList) {
-            List<LocalDate> datesOfProduct = item.getDateStart().datesUntil(item.getDateEnd())
-                    .collect(Collectors.toList());
-            for (LocalDate date : datesOfProduct) {
-                if (datesBetween.contains(date)) {
-                    if (marketplaceEverydayPricesMap.containsKey(date)) {
-                        marketplaceEverydayPricesMap.get(date).put(
-                                item.getMarketplace().getName(), item.getPrice());
-                    } else {
-                        Map<String, Integer> marketplacePriceMap = new HashMap<>();
-                        marketplacePriceMap.put(item.getMarketplace().getName(), item.getPrice());
-                        marketplaceEverydayPricesMap.put(date, marketplacePriceMap);
-                    }
+        try (Stream<NamedItemInterval> intervals = itemRepository
+                .streamAllNamedIntervalsByDateStartAfterAndDateEndBeforeOrderByProductAndDateStartAsc(
+                        dateStart, dateEnd)) {
+
+            Long currentProductId = null;
+            String currentProductName = null;
+            Map<String, PriceSeries.Builder> builderByMarketplaceName = new LinkedHashMap<>();
+            for (Iterator<NamedItemInterval> iterator = intervals.iterator(); iterator.hasNext(); ) {
+                NamedItemInterval interval = iterator.next();
+
+                if (!interval.getProductId().equals(currentProductId)) {
+                    acceptProductPriceComparing(consumer, currentProductName, builderByMarketplaceName,
+                            dateStart, dateEnd);
+                    currentProductId = interval.getProductId();
+                    currentProductName = interval.getProductName();
+                    builderByMarketplaceName = new LinkedHashMap<>();
                 }
-            }
-        }
 
-        return new ProductPriceComparingDto(product.getName(), marketplaceEverydayPricesMap);
+                builderByMarketplaceName
+                        .computeIfAbsent(interval.getMarketplaceName(), name -> new PriceSeries.Builder())
+                        .add(interval.getId(), interval.getDateStart(), interval.getDateEnd(), interval.getPrice());
+            }
 
+            acceptProductPriceComparing(consumer, currentProductName, builderByMarketplaceName, dateStart, dateEnd);
+        }
     }
 
     @Override
     @PreAuthorize("hasRole('ROLE_ADMIN') or hasRole('ROLE_USER')")
     @Transactional
-    public Item createItem(Item item) {
+    public ProductPriceComparingDto getItemPriceComparing(
+            Long productId, LocalDate dateStart, LocalDate dateEnd) {
 
+        return itemResultCache.get(ItemResultCache.ResultKind.PRICE_COMPARING, productId, null, dateStart, dateEnd,
+                () -> {
+                    Product product = productRepository.findById(productId).orElseThrow(
+                            () -> new ProductNotFoundException("Product with this id not found"));
 
-        List<Item> productOnMarketListWithCertainProductAndMarketplace =
-                itemRepository.findAllByProductAndMarketplaceAndOrderByDateStartAsc(item.getProduct(),
-                        item.getMarketplace()).orElseThrow(
-                        () -> new ItemNotFoundException("Products on market not found"));
-
-        for (Item certainItem : productOnMarketListWithCertainProductAndMarketplace) {
-            if (Objects.equals(certainItem.getProduct().getId(), item.getProduct().getId()) &&
-                    !(item.getDateStart().isBefore(certainItem.getDateStart()) &&
-                            (item.getDateEnd().isBefore(certainItem.getDateStart()) ||
-                                    item.getDateEnd().isEqual(certainItem.getDateStart())) ||
-                            (item.getDateStart().isAfter(certainItem.getDateEnd()) ||
-                                    item.getDateStart().isEqual(certainItem.getDateEnd())) &&
-                                    item.getDateEnd().isAfter(certainItem.getDateEnd()))) {
-                throw new ItemExistsException("Product for this period already added");
-            }
+                    Map<String, PriceSeries> priceSeriesByMarketplaceName =
+                            findPriceSeriesByMarketplaceName(product, dateStart, dateEnd);
 
-        }
+                    return createProductPriceComparingDto(product.getName(), priceSeriesByMarketplaceName,
+                            dateStart, dateEnd);
+                },
+                productPriceComparingDto -> productPriceComparingDto.getMarketplaceEverydayPricesMap().values()
+                        .stream().mapToInt(Map::size).sum());
+    }
+
+    @Override
+    @PreAuthorize("hasRole('ROLE_ADMIN') or hasRole('ROLE_USER')")
+    @Transactional
+    public Item createItem(Item item) {
 
         Product product = productRepository.findById(item.getProduct().getId()).orElseThrow(
                 () -> new ProductNotFoundException("Product with this id doesn't exist")
@@ -224,9 +277,13 @@ public class ItemServiceImpl implements ItemService {
 
         item.setProduct(product);
         item.setMarketplace(marketplace);
-        return Optional.of(itemRepository.save(item)).orElseThrow(
+        Item createdItem = Optional.of(itemRepository.save(item)).orElseThrow(
                 () -> new ItemBadRequestException("Bad request"));
 
+        priceHistoryIndex.add(createdItem);
+
+        return createdItem;
+
     }
 
     @Override
@@ -234,14 +291,100 @@ public class ItemServiceImpl implements ItemService {
     @Transactional
     public List<Item> createItems(List<Item> itemList) {
 
-        List<Item> createdItems = new ArrayList<>();
-        for (Item item : itemList) {
-            createdItems.add(createItem(item));
+        List<Item> createdItems = new ArrayList<>(itemList.size());
+        for (int from = 0; from < itemList.size(); from += IMPORT_BATCH_SIZE) {
+            createdItems.addAll(createItemBatch(
+                    itemList.subList(from, Math.min(from + IMPORT_BATCH_SIZE, itemList.size()))));
         }
 
+        priceHistoryIndex.addAll(createdItems);
+
         return createdItems;
     }
 
+    @Override
+    @PreAuthorize("hasRole('ROLE_ADMIN') or hasRole('ROLE_USER')")
+    public long createItemsInChunks(Iterator<List<Item>> itemChunkIterator) {
+
+        long createdItemCount = 0;
+        try {
+            while (itemChunkIterator.hasNext()) {
+                List<Item> chunk = itemChunkIterator.next();
+                transactionTemplate.executeWithoutResult(status -> {
+                    for (int from = 0; from < chunk.size(); from += IMPORT_BATCH_SIZE) {
+                        priceHistoryIndex.addAll(createItemBatch(
+                                chunk.subList(from, Math.min(from + IMPORT_BATCH_SIZE, chunk.size()))));
+                    }
+                });
+                createdItemCount += chunk.size();
+            }
+        } catch (RuntimeException e) {
+            throw new ItemImportInterruptedException(
+                    "Import stopped, " + createdItemCount + " items were imported before the failure",
+                    createdItemCount, e);
+        }
+
+        return createdItemCount;
+    }
+
+    @Override
+    @PreAuthorize("hasRole('ROLE_ADMIN') or hasRole('ROLE_USER')")
+    public List<ItemImportRowResult> importItemsInChunks(Iterator<List<ItemImportRow>> rowChunkIterator) {
+
+        List<ItemImportRowResult> rowResultList = new ArrayList<>();
+        while (rowChunkIterator.hasNext()) {
+            rowResultList.addAll(stripedIngestionExecutor.execute(rowChunkIterator.next(),
+                    ItemServiceImpl::getSeriesKey, this::importItemLane));
+        }
+        rowResultList.sort(Comparator.comparingLong(ItemImportRowResult::getRow));
+
+        return rowResultList;
+    }
+
+    @Override
+    @PreAuthorize("hasRole('ROLE_ADMIN') or hasRole('ROLE_USER')")
+    @Transactional
+    public List<ItemImportRowResult> upsertItems(List<ItemImportRow> rowList) {
+
+        List<ItemImportRowResult> rowResultList = new ArrayList<>(rowList.size());
+        for (int from = 0; from < rowList.size(); from += IMPORT_BATCH_SIZE) {
+            rowResultList.addAll(upsertItemRows(
+                    rowList.subList(from, Math.min(from + IMPORT_BATCH_SIZE, rowList.size()))));
+        }
+
+        return rowResultList;
+    }
+
+    @Override
+    @PreAuthorize("hasRole('ROLE_ADMIN') or hasRole('ROLE_USER')")
+    @Transactional
+    public ItemCsvImportResult importItemsFromCsv(InputStream inputStream) {
+
+        long rowsReceived = itemJdbcRepository.copyIntoStagingTable(inputStream);
+
+        Set<Long> importedProductIds = new HashSet<>();
+        Map<String, Long> rowsByStatus = new HashMap<>();
+        for (ItemCsvMergeCount mergeCount : itemJdbcRepository.mergeStagingTable()) {
+            rowsByStatus.merge(mergeCount.getStatus(), mergeCount.getRowCount(), Long::sum);
+            if (ItemCsvMergeCount.IMPORTED.equals(mergeCount.getStatus())) {
+                importedProductIds.add(mergeCount.getProductId());
+            }
+        }
+
+        priceHistoryIndex.reloadProducts(importedProductIds);
+
+        long rowsImported = rowsByStatus.getOrDefault(ItemCsvMergeCount.IMPORTED, 0L);
+        long rowsCounted = rowsByStatus.values().stream().mapToLong(Long::longValue).sum();
+
+        return new ItemCsvImportResult(rowsReceived, rowsImported,
+                rowsByStatus.getOrDefault(ItemCsvMergeCount.MISSING_VALUE, 0L),
+                rowsByStatus.getOrDefault(ItemCsvMergeCount.NON_POSITIVE_PRICE, 0L),
+                rowsByStatus.getOrDefault(ItemCsvMergeCount.EMPTY_PERIOD, 0L),
+                rowsByStatus.getOrDefault(ItemCsvMergeCount.UNKNOWN_PRODUCT, 0L),
+                rowsByStatus.getOrDefault(ItemCsvMergeCount.UNKNOWN_MARKETPLACE, 0L),
+                rowsByStatus.getOrDefault(ItemCsvMergeCount.OVERLAPPING, 0L) + rowsReceived - rowsCounted);
+    }
+
     @Override
     @PreAuthorize("hasRole('ROLE_ADMIN') or hasRole('ROLE_USER')")
     @Transactional
@@ -251,43 +394,486 @@ public class ItemServiceImpl implements ItemService {
                 () -> new ItemNotFoundException("Products on market not found"));
 
         itemRepository.deleteById(item.getId());
+
+        priceHistoryIndex.remove(item);
     }
 
-    private List<PriceByDayDto> createPriceByDayDtoList(List<Item> itemList,
-                                                        List<LocalDate> datesBetween) {
-        List<PriceByDayDto> priceByDayDtoList = new ArrayList<>();
+    private List<Item> createItemBatch(List<Item> itemList) {
 
-        for (Item item : itemList) {
+        List<ItemImportRow> rowList = new ArrayList<>(itemList.size());
+        for (int i = 0; i < itemList.size(); i++) {
+            rowList.add(ItemImportRow.valid(i, itemList.get(i)));
+        }
+
+        for (ItemImportRowStatus status : checkItemRows(rowList)) {
+            if (status == ItemImportRowStatus.PRODUCT_NOT_FOUND) {
+                throw new ProductNotFoundException(PRODUCT_NOT_FOUND_MESSAGE);
+            } else if (status == ItemImportRowStatus.MARKETPLACE_NOT_FOUND) {
+                throw new MarketPlaceNotFoundException(MARKETPLACE_NOT_FOUND_MESSAGE);
+            } else if (status == ItemImportRowStatus.OVERLAP) {
+                throw new ItemExistsException(ITEM_EXISTS_MESSAGE);
+            }
+        }
 
-            List<LocalDate> datesOfProduct = item.getDateStart()
-                    .datesUntil(item.getDateEnd()).collect(Collectors.toList());
+        insertItems(itemList);
 
-            for (LocalDate date : datesOfProduct) {
+        return itemList;
+    }
 
-                if (datesBetween.contains(date)) {
-                    priceByDayDtoList.add(new PriceByDayDto(item.getPrice().toString(), date));
-                }
+    private List<ItemImportRowResult> importItemRows(List<ItemImportRow> rowList) {
+
+        List<ItemImportRowStatus> statusList = checkItemRows(rowList);
+
+        List<Item> acceptedItemList = new ArrayList<>();
+        for (int i = 0; i < rowList.size(); i++) {
+            if (statusList.get(i) == ItemImportRowStatus.ACCEPTED) {
+                acceptedItemList.add(rowList.get(i).getItem());
             }
+        }
 
+        if (!acceptedItemList.isEmpty()) {
+            insertItems(acceptedItemList);
+            priceHistoryIndex.addAll(acceptedItemList);
         }
 
-        for (int i = 0; i < priceByDayDtoList.size(); i ++) {
+        List<ItemImportRowResult> rowResultList = new ArrayList<>(rowList.size());
+        for (int i = 0; i < rowList.size(); i++) {
+            ItemImportRow row = rowList.get(i);
+            ItemImportRowStatus status = statusList.get(i);
+            rowResultList.add(toRowResult(row, status,
+                    status == ItemImportRowStatus.ACCEPTED ? row.getItem().getId() : null));
+        }
 
-            if(i != priceByDayDtoList.size() - 1 && priceByDayDtoList.get(i).getDate().
-                    datesUntil(priceByDayDtoList.get(i + 1).getDate()).count() > 1) {
+        return rowResultList;
+    }
 
-                List<LocalDate> datesBetweenToItems = priceByDayDtoList.get(i).getDate().plusDays(1).
-                        datesUntil(priceByDayDtoList.get(i + 1).getDate()).collect(Collectors.toList());
+    private List<ItemImportRowResult> importItemLane(List<ItemImportRow> rowList) {
 
-                for(LocalDate date : datesBetweenToItems) {
-                    priceByDayDtoList.add(new PriceByDayDto(priceByDayDtoList.get(i).getPrice(), date));
+        try {
+            return Objects.requireNonNull(transactionTemplate.execute(status -> importItemRows(rowList)));
+        } catch (DataIntegrityViolationException e) {
+            log.warn("Lane of {} rows was rolled back, importing rows one by one: {}",
+                    rowList.size(), e.getMostSpecificCause().getMessage());
+            return importItemRowsOneByOne(rowList);
+        }
+    }
+
+    private static Object getSeriesKey(ItemImportRow row) {
+        Item item = row.getItem();
+        if (item == null) {
+            return List.of();
+        }
+
+        return List.of(item.getProduct().getId(), item.getMarketplace().getId());
+    }
+
+    private List<ItemImportRowResult> importItemRowsOneByOne(List<ItemImportRow> rowList) {
+
+        List<ItemImportRowResult> rowResultList = new ArrayList<>(rowList.size());
+        for (ItemImportRow row : rowList) {
+            try {
+                rowResultList.addAll(Objects.requireNonNull(
+                        transactionTemplate.execute(status -> importItemRows(List.of(row)))));
+            } catch (DataIntegrityViolationException e) {
+                Throwable cause = e.getMostSpecificCause();
+                if (cause instanceof SQLException &&
+                        EXCLUSION_VIOLATION_SQL_STATE.equals(((SQLException) cause).getSQLState())) {
+                    rowResultList.add(new ItemImportRowResult(row.getRow(), ItemImportRowStatus.OVERLAP, null,
+                            ITEM_EXISTS_MESSAGE));
+                } else {
+                    rowResultList.add(new ItemImportRowResult(row.getRow(), ItemImportRowStatus.INVALID, null,
+                            cause.getMessage()));
                 }
+            }
+        }
 
-                priceByDayDtoList.sort(Comparator.comparing(PriceByDayDto::getDate));
+        return rowResultList;
+    }
+
+    private List<ItemImportRowStatus> checkItemRows(List<ItemImportRow> rowList) {
+
+        Map<List<Long>, NavigableMap<LocalDate, LocalDate>> periodsByProductAndMarketplace = new HashMap<>();
+        List<ItemImportRowStatus> statusList = resolveItemRows(rowList, 0, interval ->
+                periodsByProductAndMarketplace
+                        .computeIfAbsent(List.of(interval.getProductId(), interval.getMarketplaceId()),
+                                key -> new TreeMap<>())
+                        .merge(interval.getDateStart(), interval.getDateEnd(), ItemServiceImpl::max));
+
+        for (int i = 0; i < rowList.size(); i++) {
+            if (statusList.get(i) != ItemImportRowStatus.ACCEPTED) {
+                continue;
+            }
+
+            Item item = rowList.get(i).getItem();
+            NavigableMap<LocalDate, LocalDate> periods = periodsByProductAndMarketplace.computeIfAbsent(
+                    List.of(item.getProduct().getId(), item.getMarketplace().getId()), key -> new TreeMap<>());
+            if (overlaps(periods, item.getDateStart(), item.getDateEnd())) {
+                statusList.set(i, ItemImportRowStatus.OVERLAP);
+            } else {
+                periods.merge(item.getDateStart(), item.getDateEnd(), ItemServiceImpl::max);
+            }
+        }
+
+        return statusList;
+    }
+
+    private List<ItemImportRowResult> upsertItemRows(List<ItemImportRow> rowList) {
+
+        ItemIntervalMerger itemIntervalMerger = new ItemIntervalMerger();
+        List<ItemImportRowStatus> statusList = resolveItemRows(rowList, 1, itemIntervalMerger::addExisting);
+
+        List<ItemIntervalMerger.Merge> mergeList = new ArrayList<>(rowList.size());
+        for (int i = 0; i < rowList.size(); i++) {
+            mergeList.add(statusList.get(i) == ItemImportRowStatus.ACCEPTED
+                    ? itemIntervalMerger.merge(rowList.get(i).getItem()) : null);
+        }
+
+        List<ItemInterval> deletedIntervalList = itemIntervalMerger.getDeletedIntervals();
+        List<ItemInterval> updatedIntervalList = itemIntervalMerger.getUpdatedIntervals();
+        List<Item> insertedItemList = itemIntervalMerger.getInsertedItems();
+        if (!deletedIntervalList.isEmpty()) {
+            itemJdbcRepository.batchDelete(deletedIntervalList);
+        }
+        if (!updatedIntervalList.isEmpty()) {
+            itemJdbcRepository.batchUpdatePeriods(updatedIntervalList);
+        }
+        priceHistoryIndex.replaceIntervals(deletedIntervalList, updatedIntervalList);
+        if (!insertedItemList.isEmpty()) {
+            insertItems(insertedItemList);
+            priceHistoryIndex.addAll(insertedItemList);
+        }
+
+        List<ItemImportRowResult> rowResultList = new ArrayList<>(rowList.size());
+        for (int i = 0; i < rowList.size(); i++) {
+            ItemIntervalMerger.Merge merge = mergeList.get(i);
+            rowResultList.add(merge == null
+                    ? toRowResult(rowList.get(i), statusList.get(i), null)
+                    : toRowResult(rowList.get(i), merge.getStatus(), merge.getItemId()));
+        }
+
+        return rowResultList;
+    }
+
+    private List<ItemImportRowStatus> resolveItemRows(List<ItemImportRow> rowList, int adjacentDays,
+                                                      Consumer<ItemInterval> existingIntervalConsumer) {
+
+        Set<Long> productIds = new HashSet<>();
+        Set<Long> marketplaceIds = new HashSet<>();
+        LocalDate minDateStart = LocalDate.MAX;
+        LocalDate maxDateEnd = LocalDate.MIN;
+        for (ItemImportRow row : rowList) {
+            Item item = row.getItem();
+            if (item != null) {
+                productIds.add(item.getProduct().getId());
+                marketplaceIds.add(item.getMarketplace().getId());
+                minDateStart = item.getDateStart().isBefore(minDateStart) ? item.getDateStart() : minDateStart;
+                maxDateEnd = item.getDateEnd().isAfter(maxDateEnd) ? item.getDateEnd() : maxDateEnd;
+            }
+        }
+
+        Map<Long, Product> productById = new HashMap<>();
+        Map<Long, Marketplace> marketplaceById = new HashMap<>();
+        if (!productIds.isEmpty()) {
+            productRepository.findAllById(productIds).forEach(product -> productById.put(product.getId(), product));
+            marketplaceRepository.findAllById(marketplaceIds)
+                    .forEach(marketplace -> marketplaceById.put(marketplace.getId(), marketplace));
+
+            itemRepository.findAllIntervalsByProductIdInAndOverlappingOrderByProductAndMarketplaceAndDateStartAsc(
+                    productIds, minDateStart.minusDays(adjacentDays), maxDateEnd.plusDays(adjacentDays))
+                    .forEach(existingIntervalConsumer);
+        }
+
+        List<ItemImportRowStatus> statusList = new ArrayList<>(rowList.size());
+        for (ItemImportRow row : rowList) {
+            Item item = row.getItem();
+            if (item == null) {
+                statusList.add(ItemImportRowStatus.INVALID);
+                continue;
+            }
+
+            Product product = productById.get(item.getProduct().getId());
+            Marketplace marketplace = marketplaceById.get(item.getMarketplace().getId());
+            if (product == null) {
+                statusList.add(ItemImportRowStatus.PRODUCT_NOT_FOUND);
+            } else if (marketplace == null) {
+                statusList.add(ItemImportRowStatus.MARKETPLACE_NOT_FOUND);
+            } else {
+                item.setProduct(product);
+                item.setMarketplace(marketplace);
+                statusList.add(ItemImportRowStatus.ACCEPTED);
+            }
+        }
+
+        return statusList;
+    }
+
+    private static ItemImportRowResult toRowResult(ItemImportRow row, ItemImportRowStatus status, Long itemId) {
+
+        if (status == ItemImportRowStatus.PRODUCT_NOT_FOUND) {
+            return new ItemImportRowResult(row.getRow(), status, null, PRODUCT_NOT_FOUND_MESSAGE);
+        } else if (status == ItemImportRowStatus.MARKETPLACE_NOT_FOUND) {
+            return new ItemImportRowResult(row.getRow(), status, null, MARKETPLACE_NOT_FOUND_MESSAGE);
+        } else if (status == ItemImportRowStatus.OVERLAP) {
+            return new ItemImportRowResult(row.getRow(), status, null, ITEM_EXISTS_MESSAGE);
+        } else if (status == ItemImportRowStatus.INVALID) {
+            return new ItemImportRowResult(row.getRow(), status, null, row.getError());
+        }
+
+        return new ItemImportRowResult(row.getRow(), status, itemId, null);
+    }
+
+    private void insertItems(List<Item> itemList) {
+
+        List<Long> ids = itemJdbcRepository.allocateIds(itemList.size());
+        for (int i = 0; i < itemList.size(); i++) {
+            itemList.get(i).setId(ids.get(i));
+        }
+
+        itemJdbcRepository.batchInsert(itemList);
+    }
+
+    private static boolean overlaps(NavigableMap<LocalDate, LocalDate> periods, LocalDate dateStart,
+                                    LocalDate dateEnd) {
+        Map.Entry<LocalDate, LocalDate> previous = periods.floorEntry(dateStart);
+        if (previous != null && previous.getValue().isAfter(dateStart)) {
+            return true;
+        }
+
+        Map.Entry<LocalDate, LocalDate> next = periods.higherEntry(dateStart);
+        return next != null && next.getKey().isBefore(dateEnd);
+    }
+
+    private static int weighPriceDifference(ProductPriceDifferenceDto productPriceDifferenceDto) {
+        return productPriceDifferenceDto.getPriceByDayDtoList().size();
+    }
+
+    private static LocalDate max(LocalDate first, LocalDate second) {
+        return first.isAfter(second) ? first : second;
+    }
+
+    private <T> T checkPriceSeriesForOneItemAndOneMarketplace(Long productId, Long marketplaceId,
+                                                             PriceSeriesMapper<T> priceSeriesMapper) {
+
+        Product product = productRepository.findById(productId).orElseThrow(
+                () -> new ProductNotFoundException("Product with this id doesn't exist")
+        );
+        Marketplace marketplace = marketplaceRepository.findById(marketplaceId).orElseThrow(
+                () -> new MarketPlaceNotFoundException("Marketplace with this id doesn't exist")
+        );
+
+        PriceSeries priceSeries = findPriceSeries(product, marketplace);
+
+        if (priceSeries.size() == 0) {
+            throw new ItemNotFoundException("Items not found");
+        }
+
+        return priceSeriesMapper.map(product.getName(), marketplace.getName(), priceSeries);
+    }
+
+    private <T> List<T> checkPriceSeriesForOneItem(Long productId, PriceSeriesMapper<T> priceSeriesMapper) {
+
+        Product product = productRepository.findById(productId).orElseThrow(
+                () -> new ProductNotFoundException("Product with this id doesn't exist")
+        );
+
+        List<Marketplace> marketplaceList = Optional.of(marketplaceRepository.findAll()).orElseThrow(
+                () -> new MarketPlaceNotFoundException("Marketplaces do not exist")
+        );
+
+        Map<Long, PriceSeries> priceSeriesByMarketplace = findPriceSeriesByMarketplace(product);
 
+        List<T> resultList = new ArrayList<>();
+        for (Marketplace marketplace : marketplaceList) {
+
+            PriceSeries priceSeries = priceSeriesByMarketplace.getOrDefault(marketplace.getId(), PriceSeries.EMPTY);
+
+            resultList.add(priceSeriesMapper.map(product.getName(), marketplace.getName(), priceSeries));
+        }
+
+        return resultList;
+    }
+
+    private PriceSeries findPriceSeries(Product product, Marketplace marketplace) {
+
+        if (priceHistoryIndex.isReady()) {
+            return priceHistoryIndex.getSeries(product.getId(), marketplace.getId());
+        }
+
+        List<Item> itemList = itemRepository.findAllByProductAndMarketplaceAndOrderByDateStartAsc(
+                product, marketplace).orElseThrow(
+                () -> new ItemNotFoundException("Items not found")
+        );
+
+        return PriceSeries.of(itemList);
+    }
+
+    private Map<Long, PriceSeries> findPriceSeriesByMarketplace(Product product) {
+
+        if (priceHistoryIndex.isReady()) {
+            return priceHistoryIndex.getSeriesByMarketplace(product.getId());
+        }
+
+        return PriceSeries.byMarketplace(
+                itemRepository.findAllIntervalsByProductIdOrderByMarketplaceAndDateStartAsc(product.getId()));
+    }
+
+    private Map<String, PriceSeries> findPriceSeriesByMarketplaceName(Product product,
+                                                                      LocalDate dateStart, LocalDate dateEnd) {
+
+        Map<String, PriceSeries> priceSeriesByMarketplaceName = new LinkedHashMap<>();
+
+        if (priceHistoryIndex.isReady()) {
+            Map<Long, PriceSeries> priceSeriesByMarketplace = priceHistoryIndex.getSeriesByMarketplace(product.getId());
+            return toPriceSeriesByMarketplaceName(priceSeriesByMarketplace,
+                    priceSeriesByMarketplace.isEmpty() ? List.of() : marketplaceRepository.findAll());
+        }
+
+        List<Item> itemList = itemRepository.findAllByDateStartAfterAndDateEndBeforeAndProductOrderByDateStartAsc(
+                dateStart, dateEnd, product).orElseThrow(
+                () -> new ItemNotFoundException("No product on market found")
+        );
+
+        Map<String, List<Item>> itemsByMarketplaceName = new LinkedHashMap<>();
+        for (Item item : itemList) {
+            itemsByMarketplaceName.computeIfAbsent(item.getMarketplace().getName(), key -> new ArrayList<>())
+                    .add(item);
+        }
+        itemsByMarketplaceName.forEach((marketplaceName, marketplaceItems) ->
+                priceSeriesByMarketplaceName.put(marketplaceName, PriceSeries.of(marketplaceItems)));
+
+        return priceSeriesByMarketplaceName;
+    }
+
+    private Map<String, PriceSeries> toPriceSeriesByMarketplaceName(Map<Long, PriceSeries> priceSeriesByMarketplace,
+                                                                    List<Marketplace> marketplaceList) {
+
+        Map<String, PriceSeries> priceSeriesByMarketplaceName = new LinkedHashMap<>();
+        if (priceSeriesByMarketplace.isEmpty()) {
+            return priceSeriesByMarketplaceName;
+        }
+
+        for (Marketplace marketplace : marketplaceList) {
+            PriceSeries priceSeries = priceSeriesByMarketplace.get(marketplace.getId());
+            if (priceSeries != null) {
+                priceSeriesByMarketplaceName.put(marketplace.getName(), priceSeries);
+            }
+        }
+
+        return priceSeriesByMarketplaceName;
+    }
+
+    private void acceptProductPriceComparing(Consumer<ProductPriceComparingDto> consumer, String productName,
+                                             Map<String, PriceSeries.Builder> builderByMarketplaceName,
+                                             LocalDate dateStart, LocalDate dateEnd) {
+        if (builderByMarketplaceName.isEmpty()) {
+            return;
+        }
+
+        Map<String, PriceSeries> priceSeriesByMarketplaceName = new LinkedHashMap<>();
+        builderByMarketplaceName.forEach((marketplaceName, builder) ->
+                priceSeriesByMarketplaceName.put(marketplaceName, builder.build()));
+        acceptIfNotEmpty(consumer, createProductPriceComparingDto(
+                productName, priceSeriesByMarketplaceName, dateStart, dateEnd));
+    }
+
+    private void acceptIfNotEmpty(Consumer<ProductPriceComparingDto> consumer,
+                                  ProductPriceComparingDto productPriceComparingDto) {
+        if (!productPriceComparingDto.getMarketplaceEverydayPricesMap().isEmpty()) {
+            consumer.accept(productPriceComparingDto);
+        }
+    }
+
+    private ProductPriceComparingDto createProductPriceComparingDto(
+            String productName, Map<String, PriceSeries> priceSeriesByMarketplaceName,
+            LocalDate dateStart, LocalDate dateEnd) {
+
+        if (priceSeriesByMarketplaceName.isEmpty()) {
+            return new ProductPriceComparingDto(productName, new TreeMap<>());
+        }
+
+        int fromDay = (int) dateStart.toEpochDay();
+        int days = Math.max((int) (dateEnd.toEpochDay() - fromDay), 0);
+
+        List<Map<String, Integer>> marketplacePricesByDay = new ArrayList<>(Collections.nCopies(days, null));
+        for (Map.Entry<String, PriceSeries> entry : priceSeriesByMarketplaceName.entrySet()) {
+            String marketplaceName = entry.getKey();
+            PriceSeriesEngine.sweepContained(entry.getValue(), dateStart, dateEnd, (startDay, endDay, price) -> {
+                for (int day = startDay; day < endDay; day++) {
+                    int offset = day - fromDay;
+                    if (marketplacePricesByDay.get(offset) == null) {
+                        marketplacePricesByDay.set(offset, new HashMap<>());
+                    }
+                    marketplacePricesByDay.get(offset).put(marketplaceName, price);
+                }
+            });
+        }
+
+        Map<LocalDate, Map<String, Integer>> marketplaceEverydayPricesMap = new TreeMap<>();
+        for (int offset = 0; offset < days; offset++) {
+            if (marketplacePricesByDay.get(offset) != null) {
+                marketplaceEverydayPricesMap.put(LocalDate.ofEpochDay(fromDay + offset),
+                        Collections.unmodifiableMap(marketplacePricesByDay.get(offset)));
             }
         }
 
-        return priceByDayDtoList;
+        return new ProductPriceComparingDto(productName, Collections.unmodifiableMap(marketplaceEverydayPricesMap));
+    }
+
+    private List<PriceByDayDto> createPriceByDayDtoList(PriceSeries priceSeries,
+                                                        LocalDate dateStart, LocalDate dateEnd) {
+        List<PriceByDayDto> priceByDayDtoList = new ArrayList<>();
+
+        PriceSeriesEngine.sweep(priceSeries, dateStart, dateEnd, (startDay, endDay, price) -> {
+            String priceValue = String.valueOf(price);
+            for (int day = startDay; day < endDay; day++) {
+                priceByDayDtoList.add(new PriceByDayDto(priceValue, LocalDate.ofEpochDay(day)));
+            }
+        });
+
+        return Collections.unmodifiableList(priceByDayDtoList);
+    }
+
+    private List<PriceIntervalDto> createPriceIntervalDtoList(PriceSeries priceSeries,
+                                                              LocalDate dateStart, LocalDate dateEnd) {
+        List<PriceIntervalDto> priceIntervalDtoList = new ArrayList<>();
+
+        PriceSeriesEngine.sweep(priceSeries, dateStart, dateEnd, (startDay, endDay, price) -> {
+            int lastIndex = priceIntervalDtoList.size() - 1;
+            if (lastIndex >= 0 && priceIntervalDtoList.get(lastIndex).getPrice() == price) {
+                priceIntervalDtoList.get(lastIndex).setTo(LocalDate.ofEpochDay(endDay - 1));
+            } else {
+                priceIntervalDtoList.add(new PriceIntervalDto(
+                        LocalDate.ofEpochDay(startDay), LocalDate.ofEpochDay(endDay - 1), price));
+            }
+        });
+
+        return priceIntervalDtoList;
+    }
+
+    private ProductPriceColumnsDto createProductPriceColumnsDto(String productName, String marketplaceName,
+                                                                PriceSeries priceSeries,
+                                                                LocalDate dateStart, LocalDate dateEnd) {
+        int[] days = new int[1];
+        PriceSeriesEngine.sweep(priceSeries, dateStart, dateEnd,
+                (startDay, endDay, price) -> days[0] += endDay - startDay);
+
+        int[] epochDays = new int[days[0]];
+        int[] prices = new int[days[0]];
+        int[] position = new int[1];
+        PriceSeriesEngine.sweep(priceSeries, dateStart, dateEnd, (startDay, endDay, price) -> {
+            for (int day = startDay; day < endDay; day++) {
+                epochDays[position[0]] = day;
+                prices[position[0]] = price;
+                position[0]++;
+            }
+        });
+
+        return new ProductPriceColumnsDto(productName, marketplaceName, epochDays, prices);
+    }
+
+    @FunctionalInterface
+    private interface PriceSeriesMapper<T> {
+
+        T map(String productName, String marketplaceName, PriceSeries priceSeries);
     }
 }
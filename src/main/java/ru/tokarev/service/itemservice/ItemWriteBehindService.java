@@ -0,0 +1,10 @@
+package ru.tokarev.service.itemservice;
+
+import ru.tokarev.entity.item.Item;
+
+public interface ItemWriteBehindService {
+
+    ItemWriteTicket submit(Item item);
+
+    ItemWriteTicket getTicket(String id);
+}
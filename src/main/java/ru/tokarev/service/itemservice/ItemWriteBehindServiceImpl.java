@@ -0,0 +1,206 @@
+package ru.tokarev.service.itemservice;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import ru.tokarev.entity.item.Item;
+import ru.tokarev.exception.jobexception.JobNotFoundException;
+import ru.tokarev.exception.jobexception.JobRejectedException;
+import ru.tokarev.utils.SecurityUtil;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Service
+@Slf4j
+public class ItemWriteBehindServiceImpl implements ItemWriteBehindService {
+
+    private final ItemService itemService;
+
+    private final ScheduledExecutorService flushExecutor;
+
+    private final int flushSize;
+
+    private final long flushIntervalMillis;
+
+    private final BlockingQueue<PendingItemWrite> pendingItemWrites;
+
+    private final Cache<String, ItemWriteTicket> ticketById;
+
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+
+    @Autowired
+    public ItemWriteBehindServiceImpl(ItemService itemService,
+                                      @Value("${item.write-behind.queue-capacity:10000}") int queueCapacity,
+                                      @Value("${item.write-behind.flush-size:500}") int flushSize,
+                                      @Value("${item.write-behind.flush-interval-millis:200}") long flushIntervalMillis,
+                                      @Value("${item.write-behind.ticket-retention-minutes:60}")
+                                              long ticketRetentionMinutes,
+                                      @Value("${item.write-behind.ticket-maximum-size:100000}")
+                                              long ticketMaximumSize) {
+        this(itemService, Executors.newSingleThreadScheduledExecutor(
+                new CustomizableThreadFactory("item-write-behind-")),
+                queueCapacity, flushSize, flushIntervalMillis, ticketRetentionMinutes, ticketMaximumSize);
+    }
+
+    ItemWriteBehindServiceImpl(ItemService itemService, ScheduledExecutorService flushExecutor, int queueCapacity,
+                               int flushSize, long flushIntervalMillis, long ticketRetentionMinutes,
+                               long ticketMaximumSize) {
+        this.itemService = itemService;
+        this.flushExecutor = flushExecutor;
+        this.flushSize = flushSize;
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.pendingItemWrites = new ArrayBlockingQueue<>(queueCapacity);
+        this.ticketById = Caffeine.newBuilder()
+                .maximumSize(ticketMaximumSize)
+                .expireAfterWrite(Duration.ofMinutes(ticketRetentionMinutes))
+                .executor(Runnable::run)
+                .build();
+    }
+
+    @PostConstruct
+    public void start() {
+        flushExecutor.scheduleWithFixedDelay(this::flush, flushIntervalMillis, flushIntervalMillis,
+                TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        flushExecutor.shutdown();
+        flushExecutor.awaitTermination(flushIntervalMillis * 10, TimeUnit.MILLISECONDS);
+        flush();
+    }
+
+    @Override
+    @PreAuthorize("hasRole('ROLE_ADMIN') or hasRole('ROLE_USER')")
+    public ItemWriteTicket submit(Item item) {
+
+        ItemWriteTicket ticket = new ItemWriteTicket(SecurityUtil.getCurrentUsername());
+        ticketById.put(ticket.getId(), ticket);
+        if (!pendingItemWrites.offer(new PendingItemWrite(ticket, item, SecurityContextHolder.getContext()))) {
+            ticketById.invalidate(ticket.getId());
+            throw new JobRejectedException("Write-behind queue is full, try again later");
+        }
+
+        if (pendingItemWrites.size() >= flushSize && flushRequested.compareAndSet(false, true)) {
+            try {
+                flushExecutor.execute(this::flush);
+            } catch (RejectedExecutionException e) {
+                flushRequested.set(false);
+        ticketById.cleanUp();
+            }
+        }
+
+        return ticket;
+    }
+
+    @Override
+    @PreAuthorize("hasRole('ROLE_ADMIN') or hasRole('ROLE_USER')")
+    public ItemWriteTicket getTicket(String id) {
+
+        ItemWriteTicket ticket = ticketById.getIfPresent(id);
+        if (ticket == null || !SecurityUtil.isCurrentUserOrAdmin(ticket.getSubmittedBy())) {
+            throw new JobNotFoundException("Ticket with this id not found");
+        }
+
+        return ticket;
+    }
+
+    void flush() {
+
+        flushRequested.set(false);
+
+        List<PendingItemWrite> batch = new ArrayList<>(flushSize);
+        if (pendingItemWrites.drainTo(batch, flushSize) == 0) {
+            return;
+        }
+
+        do {
+            flushBatch(batch);
+            batch.clear();
+        } while (pendingItemWrites.drainTo(batch, flushSize) > 0);
+    }
+
+    private void flushBatch(List<PendingItemWrite> batch) {
+
+        Map<String, List<PendingItemWrite>> batchBySubmitter = new LinkedHashMap<>();
+        for (PendingItemWrite pendingItemWrite : batch) {
+            batchBySubmitter.computeIfAbsent(getSubmitter(pendingItemWrite.getSecurityContext()),
+                    submitter -> new ArrayList<>()).add(pendingItemWrite);
+        }
+
+        batchBySubmitter.values().forEach(this::flushSubmitterBatch);
+    }
+
+    private void flushSubmitterBatch(List<PendingItemWrite> batch) {
+
+        List<ItemImportRow> rowList = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            rowList.add(ItemImportRow.valid(i, batch.get(i).getItem()));
+        }
+
+        SecurityContextHolder.setContext(batch.get(0).getSecurityContext());
+        try {
+            for (ItemImportRowResult rowResult : itemService.importItemsInChunks(List.of(rowList).iterator())) {
+                ItemWriteTicket ticket = batch.get((int) rowResult.getRow()).getTicket();
+                if (rowResult.getStatus() == ItemImportRowStatus.ACCEPTED) {
+                    ticket.accept(rowResult.getItemId());
+                } else {
+                    ticket.reject(rowResult.getMessage());
+                }
+            }
+            log.info("Write-behind flush committed {} items", batch.size());
+        } catch (RuntimeException e) {
+            log.warn("Write-behind flush of {} items failed: {}", batch.size(), e.getMessage());
+            for (PendingItemWrite pendingItemWrite : batch) {
+                if (!pendingItemWrite.getTicket().isCompleted()) {
+                    pendingItemWrite.getTicket().reject(e.getMessage());
+                }
+            }
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+
+        for (PendingItemWrite pendingItemWrite : batch) {
+            ticketById.put(pendingItemWrite.getTicket().getId(), pendingItemWrite.getTicket());
+        }
+    }
+
+    private static String getSubmitter(SecurityContext securityContext) {
+        Authentication authentication = securityContext.getAuthentication();
+        return authentication == null ? "" : authentication.getName();
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static class PendingItemWrite {
+
+        private final ItemWriteTicket ticket;
+
+        private final Item item;
+
+        private final SecurityContext securityContext;
+    }
+}
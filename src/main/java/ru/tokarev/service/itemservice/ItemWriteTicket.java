@@ -0,0 +1,44 @@
+package ru.tokarev.service.itemservice;
+
+import lombok.Getter;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Getter
+public class ItemWriteTicket {
+
+    private final String id = UUID.randomUUID().toString();
+
+    private final Instant createdAt = Instant.now();
+
+    private final String submittedBy;
+
+    private volatile ItemWriteTicketStatus status = ItemWriteTicketStatus.PENDING;
+
+    private volatile Long itemId;
+
+    private volatile String message;
+
+    private volatile Instant completedAt;
+
+    public ItemWriteTicket(String submittedBy) {
+        this.submittedBy = submittedBy;
+    }
+
+    public boolean isCompleted() {
+        return status != ItemWriteTicketStatus.PENDING;
+    }
+
+    void accept(Long itemId) {
+        this.itemId = itemId;
+        this.completedAt = Instant.now();
+        this.status = ItemWriteTicketStatus.ACCEPTED;
+    }
+
+    void reject(String message) {
+        this.message = message;
+        this.completedAt = Instant.now();
+        this.status = ItemWriteTicketStatus.REJECTED;
+    }
+}
@@ -0,0 +1,7 @@
+package ru.tokarev.service.itemservice;
+
+public enum ItemWriteTicketStatus {
+    PENDING,
+    ACCEPTED,
+    REJECTED
+}
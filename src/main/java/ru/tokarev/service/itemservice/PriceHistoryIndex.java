@@ -0,0 +1,265 @@
+package ru.tokarev.service.itemservice;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.tokarev.entity.item.Item;
+import ru.tokarev.entity.item.ItemInterval;
+import ru.tokarev.repository.ItemRepository;
+import ru.tokarev.utils.TransactionUtil;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
+
+@Component
+@Slf4j
+public class PriceHistoryIndex {
+
+    private static final int RELOAD_PRODUCTS_LIMIT = 1000;
+
+    private final ItemRepository itemRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ItemResultCache itemResultCache;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private volatile Map<Long, Map<Long, PriceSeries>> seriesByProduct = new ConcurrentHashMap<>();
+
+    private volatile boolean ready;
+
+    @Autowired
+    public PriceHistoryIndex(ItemRepository itemRepository, PlatformTransactionManager transactionManager,
+                             ItemResultCache itemResultCache) {
+        this.itemRepository = itemRepository;
+        this.itemResultCache = itemResultCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        try {
+            load();
+        } catch (DataAccessException | TransactionException e) {
+            log.warn("Price history index was not loaded, analytics will read from database: {}", e.getMessage());
+        }
+    }
+
+    public void load() {
+        lock.writeLock().lock();
+        try {
+            ready = false;
+            long startTime = System.currentTimeMillis();
+            Map<Long, Map<Long, PriceSeries>> loadedSeriesByProduct = transactionTemplate.execute(status -> {
+                try (Stream<ItemInterval> intervals =
+                             itemRepository.streamAllIntervalsOrderByProductAndMarketplaceAndDateStartAsc()) {
+                    return buildSeries(intervals.iterator());
+                }
+            });
+
+            seriesByProduct = loadedSeriesByProduct;
+            ready = true;
+            itemResultCache.incrementEpoch();
+
+            log.info("Price history index loaded for {} products in {} ms",
+                    loadedSeriesByProduct.size(), System.currentTimeMillis() - startTime);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public PriceSeries getSeries(Long productId, Long marketplaceId) {
+        return getSeriesByMarketplace(productId).getOrDefault(marketplaceId, PriceSeries.EMPTY);
+    }
+
+    public Map<Long, PriceSeries> getSeriesByMarketplace(Long productId) {
+        Map<Long, PriceSeries> seriesByMarketplace = seriesByProduct.get(productId);
+        if (seriesByMarketplace == null) {
+            return Collections.emptyMap();
+        }
+
+        return Collections.unmodifiableMap(seriesByMarketplace);
+    }
+
+    public void add(Item item) {
+        Long productId = item.getProduct().getId();
+        Long marketplaceId = item.getMarketplace().getId();
+        long itemId = item.getId();
+
+        TransactionUtil.afterCommit(() -> update(productId, marketplaceId, series ->
+                series.with(itemId, item.getDateStart(), item.getDateEnd(), item.getPrice())));
+    }
+
+    public void addAll(List<Item> itemList) {
+        List<ItemInterval> intervalList = new ArrayList<>(itemList.size());
+        for (Item item : itemList) {
+            intervalList.add(new ItemInterval(item.getId(), item.getProduct().getId(), item.getMarketplace().getId(),
+                    item.getPrice(), item.getDateStart(), item.getDateEnd()));
+        }
+
+        addAllIntervals(intervalList);
+    }
+
+    public void addAllIntervals(List<ItemInterval> intervalList) {
+        replaceIntervals(Collections.emptyList(), intervalList);
+    }
+
+    public void removeAllIntervals(List<ItemInterval> intervalList) {
+        replaceIntervals(intervalList, Collections.emptyList());
+    }
+
+    public void replaceIntervals(List<ItemInterval> removedIntervalList, List<ItemInterval> addedIntervalList) {
+        Map<Long, Map<Long, SeriesChange>> changesByProduct = new HashMap<>();
+        for (ItemInterval interval : removedIntervalList) {
+            getSeriesChange(changesByProduct, interval).getRemovedItemIds().add(interval.getId());
+        }
+        for (ItemInterval interval : addedIntervalList) {
+            getSeriesChange(changesByProduct, interval).getAddedSeries()
+                    .add(interval.getId(), interval.getDateStart(), interval.getDateEnd(), interval.getPrice());
+        }
+
+        TransactionUtil.afterCommit(() -> changesByProduct.forEach((productId, changesByMarketplace) ->
+                changesByMarketplace.forEach((marketplaceId, change) -> {
+                    PriceSeries addedSeries = change.getAddedSeries().build();
+                    update(productId, marketplaceId, series -> series.merge(change.getRemovedItemIds(), addedSeries));
+                })));
+    }
+
+    public void reloadProducts(Collection<Long> productIds) {
+        if (productIds.isEmpty()) {
+            return;
+        }
+
+        Set<Long> reloadedProductIds = new HashSet<>(productIds);
+        TransactionUtil.afterCommit(() -> {
+            if (reloadedProductIds.size() > RELOAD_PRODUCTS_LIMIT) {
+                load();
+                return;
+            }
+
+            for (Long productId : reloadedProductIds) {
+                reloadProduct(productId);
+            }
+        });
+    }
+
+    public void remove(Item item) {
+        Long productId = item.getProduct().getId();
+        Long marketplaceId = item.getMarketplace().getId();
+        long itemId = item.getId();
+
+        TransactionUtil.afterCommit(() -> update(productId, marketplaceId, series -> series.without(itemId)));
+    }
+
+    private void update(Long productId, Long marketplaceId, UnaryOperator<PriceSeries> change) {
+        lock.readLock().lock();
+        try {
+            if (ready) {
+                seriesByProduct.computeIfAbsent(productId, id -> new ConcurrentHashMap<>())
+                        .compute(marketplaceId, (id, series) -> {
+                            PriceSeries changedSeries =
+                                    change.apply(Objects.requireNonNullElse(series, PriceSeries.EMPTY));
+                            return changedSeries.size() == 0 ? null : changedSeries;
+                        });
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        itemResultCache.incrementProductVersion(productId);
+    }
+
+    private void reloadProduct(Long productId) {
+        lock.writeLock().lock();
+        try {
+            if (ready) {
+                Map<Long, PriceSeries> reloadedSeriesByMarketplace = transactionTemplate.execute(status ->
+                        buildSeries(itemRepository.findAllIntervalsByProductIdOrderByMarketplaceAndDateStartAsc(
+                                productId).iterator()).getOrDefault(productId, Collections.emptyMap()));
+
+                if (reloadedSeriesByMarketplace.isEmpty()) {
+                    seriesByProduct.remove(productId);
+                } else {
+                    seriesByProduct.put(productId, reloadedSeriesByMarketplace);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        itemResultCache.incrementProductVersion(productId);
+    }
+
+    private static SeriesChange getSeriesChange(Map<Long, Map<Long, SeriesChange>> changesByProduct,
+                                                ItemInterval interval) {
+        return changesByProduct.computeIfAbsent(interval.getProductId(), id -> new HashMap<>())
+                .computeIfAbsent(interval.getMarketplaceId(), id -> new SeriesChange());
+    }
+
+    private Map<Long, Map<Long, PriceSeries>> buildSeries(Iterator<ItemInterval> intervals) {
+        Map<Long, Map<Long, PriceSeries>> loadedSeriesByProduct = new ConcurrentHashMap<>();
+
+        Long currentProductId = null;
+        Long currentMarketplaceId = null;
+        PriceSeries.Builder builder = null;
+        while (intervals.hasNext()) {
+            ItemInterval interval = intervals.next();
+
+            if (!interval.getProductId().equals(currentProductId) ||
+                    !interval.getMarketplaceId().equals(currentMarketplaceId)) {
+                if (builder != null) {
+                    loadedSeriesByProduct.computeIfAbsent(currentProductId, id -> new ConcurrentHashMap<>())
+                            .put(currentMarketplaceId, builder.build());
+                }
+                currentProductId = interval.getProductId();
+                currentMarketplaceId = interval.getMarketplaceId();
+                builder = new PriceSeries.Builder();
+            }
+
+            builder.add(interval.getId(), interval.getDateStart(), interval.getDateEnd(), interval.getPrice());
+        }
+
+        if (builder != null) {
+            loadedSeriesByProduct.computeIfAbsent(currentProductId, id -> new ConcurrentHashMap<>())
+                    .put(currentMarketplaceId, builder.build());
+        }
+
+        return loadedSeriesByProduct;
+    }
+
+    @Getter
+    private static class SeriesChange {
+
+        private final Set<Long> removedItemIds = new HashSet<>();
+
+        private final PriceSeries.Builder addedSeries = new PriceSeries.Builder();
+    }
+}
@@ -0,0 +1,277 @@
+package ru.tokarev.service.itemservice;
+
+import ru.tokarev.entity.item.Item;
+import ru.tokarev.entity.item.ItemInterval;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+public final class PriceSeries {
+
+    public static final PriceSeries EMPTY = new PriceSeries(new long[0], new int[0], new int[0], new int[0]);
+
+    private final long[] itemIds;
+
+    private final int[] startDays;
+
+    private final int[] endDays;
+
+    private final int[] prices;
+
+    private PriceSeries(long[] itemIds, int[] startDays, int[] endDays, int[] prices) {
+        this.itemIds = itemIds;
+        this.startDays = startDays;
+        this.endDays = endDays;
+        this.prices = prices;
+    }
+
+    public static PriceSeries of(List<Item> itemList) {
+        Builder builder = new Builder(itemList.size());
+        for (Item item : itemList) {
+            builder.add(item.getId() == null ? 0L : item.getId(),
+                    item.getDateStart(), item.getDateEnd(), item.getPrice());
+        }
+
+        return builder.build();
+    }
+
+    public static Map<Long, PriceSeries> byMarketplace(List<ItemInterval> intervalList) {
+        Map<Long, Builder> builderByMarketplace = new LinkedHashMap<>();
+        for (ItemInterval interval : intervalList) {
+            builderByMarketplace.computeIfAbsent(interval.getMarketplaceId(), id -> new Builder())
+                    .add(interval.getId(), interval.getDateStart(), interval.getDateEnd(), interval.getPrice());
+        }
+
+        Map<Long, PriceSeries> seriesByMarketplace = new LinkedHashMap<>();
+        builderByMarketplace.forEach((marketplaceId, builder) ->
+                seriesByMarketplace.put(marketplaceId, builder.build()));
+
+        return seriesByMarketplace;
+    }
+
+    public int size() {
+        return startDays.length;
+    }
+
+    public long getItemId(int index) {
+        return itemIds[index];
+    }
+
+    public int getStartDay(int index) {
+        return startDays[index];
+    }
+
+    public int getEndDay(int index) {
+        return endDays[index];
+    }
+
+    public int getPrice(int index) {
+        return prices[index];
+    }
+
+    public LocalDate getDateStart(int index) {
+        return LocalDate.ofEpochDay(startDays[index]);
+    }
+
+    public LocalDate getDateEnd(int index) {
+        return LocalDate.ofEpochDay(endDays[index]);
+    }
+
+    public PriceSeries with(long itemId, LocalDate dateStart, LocalDate dateEnd, int price) {
+        PriceSeries series = without(itemId);
+        int startDay = (int) dateStart.toEpochDay();
+        int position = series.insertionPoint(startDay);
+
+        long[] newItemIds = insert(series.itemIds, position, itemId);
+        int[] newStartDays = insert(series.startDays, position, startDay);
+        int[] newEndDays = insert(series.endDays, position, (int) dateEnd.toEpochDay());
+        int[] newPrices = insert(series.prices, position, price);
+
+        return new PriceSeries(newItemIds, newStartDays, newEndDays, newPrices);
+    }
+
+    public PriceSeries without(long itemId) {
+        for (int i = 0; i < itemIds.length; i++) {
+            if (itemIds[i] == itemId) {
+                return new PriceSeries(remove(itemIds, i), remove(startDays, i),
+                        remove(endDays, i), remove(prices, i));
+            }
+        }
+
+        return this;
+    }
+
+    public PriceSeries merge(Set<Long> removedItemIds, PriceSeries addedSeries) {
+        if (removedItemIds.isEmpty() && addedSeries.size() == 0) {
+            return this;
+        }
+
+        Set<Long> replacedItemIds = new HashSet<>(removedItemIds);
+        for (long itemId : addedSeries.itemIds) {
+            replacedItemIds.add(itemId);
+        }
+
+        int capacity = size() + addedSeries.size();
+        long[] newItemIds = new long[capacity];
+        int[] newStartDays = new int[capacity];
+        int[] newEndDays = new int[capacity];
+        int[] newPrices = new int[capacity];
+
+        int existingIndex = 0;
+        int addedIndex = 0;
+        int size = 0;
+        while (existingIndex < size() || addedIndex < addedSeries.size()) {
+            if (existingIndex < size() && replacedItemIds.contains(itemIds[existingIndex])) {
+                existingIndex++;
+                continue;
+            }
+
+            boolean takeExisting = addedIndex == addedSeries.size() ||
+                    existingIndex < size() && startDays[existingIndex] <= addedSeries.startDays[addedIndex];
+            PriceSeries source = takeExisting ? this : addedSeries;
+            int index = takeExisting ? existingIndex++ : addedIndex++;
+
+            newItemIds[size] = source.itemIds[index];
+            newStartDays[size] = source.startDays[index];
+            newEndDays[size] = source.endDays[index];
+            newPrices[size] = source.prices[index];
+            size++;
+        }
+
+        if (size == 0) {
+            return EMPTY;
+        }
+
+        return new PriceSeries(Arrays.copyOf(newItemIds, size), Arrays.copyOf(newStartDays, size),
+                Arrays.copyOf(newEndDays, size), Arrays.copyOf(newPrices, size));
+    }
+
+    private int insertionPoint(int startDay) {
+        int low = 0;
+        int high = startDays.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (startDays[middle] <= startDay) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+
+        return low;
+    }
+
+    private static long[] insert(long[] array, int position, long value) {
+        long[] result = new long[array.length + 1];
+        System.arraycopy(array, 0, result, 0, position);
+        result[position] = value;
+        System.arraycopy(array, position, result, position + 1, array.length - position);
+        return result;
+    }
+
+    private static int[] insert(int[] array, int position, int value) {
+        int[] result = new int[array.length + 1];
+        System.arraycopy(array, 0, result, 0, position);
+        result[position] = value;
+        System.arraycopy(array, position, result, position + 1, array.length - position);
+        return result;
+    }
+
+    private static long[] remove(long[] array, int position) {
+        long[] result = new long[array.length - 1];
+        System.arraycopy(array, 0, result, 0, position);
+        System.arraycopy(array, position + 1, result, position, array.length - position - 1);
+        return result;
+    }
+
+    private static int[] remove(int[] array, int position) {
+        int[] result = new int[array.length - 1];
+        System.arraycopy(array, 0, result, 0, position);
+        System.arraycopy(array, position + 1, result, position, array.length - position - 1);
+        return result;
+    }
+
+    public static final class Builder {
+
+        private long[] itemIds;
+
+        private int[] startDays;
+
+        private int[] endDays;
+
+        private int[] prices;
+
+        private int size;
+
+        private boolean sorted = true;
+
+        public Builder() {
+            this(16);
+        }
+
+        public Builder(int capacity) {
+            int initialCapacity = Math.max(capacity, 1);
+            this.itemIds = new long[initialCapacity];
+            this.startDays = new int[initialCapacity];
+            this.endDays = new int[initialCapacity];
+            this.prices = new int[initialCapacity];
+        }
+
+        public Builder add(long itemId, LocalDate dateStart, LocalDate dateEnd, int price) {
+            if (size == startDays.length) {
+                int newCapacity = size * 2;
+                itemIds = Arrays.copyOf(itemIds, newCapacity);
+                startDays = Arrays.copyOf(startDays, newCapacity);
+                endDays = Arrays.copyOf(endDays, newCapacity);
+                prices = Arrays.copyOf(prices, newCapacity);
+            }
+
+            int startDay = (int) dateStart.toEpochDay();
+            if (size > 0 && startDays[size - 1] > startDay) {
+                sorted = false;
+            }
+
+            itemIds[size] = itemId;
+            startDays[size] = startDay;
+            endDays[size] = (int) dateEnd.toEpochDay();
+            prices[size] = price;
+            size++;
+            return this;
+        }
+
+        public PriceSeries build() {
+            if (size == 0) {
+                return EMPTY;
+            }
+
+            if (sorted) {
+                return new PriceSeries(Arrays.copyOf(itemIds, size), Arrays.copyOf(startDays, size),
+                        Arrays.copyOf(endDays, size), Arrays.copyOf(prices, size));
+            }
+
+            int[] order = IntStream.range(0, size).boxed()
+                    .sorted(Comparator.comparingInt(i -> startDays[i]))
+                    .mapToInt(Integer::intValue).toArray();
+
+            long[] sortedItemIds = new long[size];
+            int[] sortedStartDays = new int[size];
+            int[] sortedEndDays = new int[size];
+            int[] sortedPrices = new int[size];
+            for (int i = 0; i < size; i++) {
+                sortedItemIds[i] = itemIds[order[i]];
+                sortedStartDays[i] = startDays[order[i]];
+                sortedEndDays[i] = endDays[order[i]];
+                sortedPrices[i] = prices[order[i]];
+            }
+
+            return new PriceSeries(sortedItemIds, sortedStartDays, sortedEndDays, sortedPrices);
+        }
+    }
+}
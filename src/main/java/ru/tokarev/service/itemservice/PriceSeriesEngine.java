@@ -0,0 +1,88 @@
+package ru.tokarev.service.itemservice;
+
+import java.time.LocalDate;
+
+public final class PriceSeriesEngine {
+
+    private PriceSeriesEngine() {
+    }
+
+    public static void sweep(PriceSeries priceSeries, LocalDate dateStart, LocalDate dateEnd,
+                             SegmentConsumer consumer) {
+        int fromDay = (int) dateStart.toEpochDay();
+        int toDay = (int) dateEnd.toEpochDay();
+
+        boolean hasPrevious = false;
+        int previousEndDay = 0;
+        int previousPrice = 0;
+
+        for (int i = firstIndexEndingAfter(priceSeries, fromDay); i < priceSeries.size(); i++) {
+            if (priceSeries.getStartDay(i) >= toDay) {
+                break;
+            }
+
+            int startDay = Math.max(priceSeries.getStartDay(i), fromDay);
+            int endDay = Math.min(priceSeries.getEndDay(i), toDay);
+            if (hasPrevious) {
+                startDay = Math.max(startDay, previousEndDay);
+            }
+            if (startDay >= endDay) {
+                continue;
+            }
+
+            if (hasPrevious && startDay > previousEndDay) {
+                consumer.accept(previousEndDay, startDay, previousPrice);
+            }
+            consumer.accept(startDay, endDay, priceSeries.getPrice(i));
+
+            hasPrevious = true;
+            previousEndDay = endDay;
+            previousPrice = priceSeries.getPrice(i);
+        }
+    }
+
+    public static void sweepContained(PriceSeries priceSeries, LocalDate dateStart, LocalDate dateEnd,
+                                      SegmentConsumer consumer) {
+        int fromDay = (int) dateStart.toEpochDay();
+        int toDay = (int) dateEnd.toEpochDay();
+
+        for (int i = firstIndexStartingFrom(priceSeries, fromDay); i < priceSeries.size(); i++) {
+            if (priceSeries.getStartDay(i) >= toDay) {
+                break;
+            }
+            if (priceSeries.getEndDay(i) <= toDay) {
+                consumer.accept(priceSeries.getStartDay(i), priceSeries.getEndDay(i), priceSeries.getPrice(i));
+            }
+        }
+    }
+
+    private static int firstIndexEndingAfter(PriceSeries priceSeries, int day) {
+        int index = firstIndexStartingFrom(priceSeries, day);
+        while (index > 0 && priceSeries.getEndDay(index - 1) > day) {
+            index--;
+        }
+
+        return index;
+    }
+
+    private static int firstIndexStartingFrom(PriceSeries priceSeries, int day) {
+        int low = 0;
+        int high = priceSeries.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (priceSeries.getStartDay(middle) < day) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+
+        return low;
+    }
+
+    @FunctionalInterface
+    public interface SegmentConsumer {
+
+        void accept(int startDay, int endDay, int price);
+    }
+}
@@ -0,0 +1,115 @@
+package ru.tokarev.service.itemservice;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+@Component
+@Slf4j
+public class StripedIngestionExecutor {
+
+    private final int laneCount;
+
+    private final Executor laneExecutor;
+
+    private final Lock[] laneLocks;
+
+    @Autowired
+    public StripedIngestionExecutor(@Value("${item.ingestion.lanes:0}") int lanes,
+                                    @Value("${item.ingestion.queue-capacity:64}") int queueCapacity) {
+        this(resolveLaneCount(lanes), new ThreadPoolExecutor(resolveLaneCount(lanes), resolveLaneCount(lanes),
+                0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueCapacity),
+                new CustomizableThreadFactory("item-ingest-"),
+                new ThreadPoolExecutor.CallerRunsPolicy()));
+    }
+
+    StripedIngestionExecutor(int laneCount, Executor laneExecutor) {
+        this.laneCount = laneCount;
+        this.laneExecutor = laneExecutor;
+        this.laneLocks = new Lock[laneCount];
+        for (int i = 0; i < laneCount; i++) {
+            laneLocks[i] = new ReentrantLock();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (laneExecutor instanceof ExecutorService) {
+            ((ExecutorService) laneExecutor).shutdown();
+        }
+    }
+
+    public int getLaneCount() {
+        return laneCount;
+    }
+
+    public <T, R> List<R> execute(List<T> rowList, Function<T, Object> keyFunction,
+                                  Function<List<T>, List<R>> laneHandler) {
+
+        List<List<T>> rowsByLane = new ArrayList<>(laneCount);
+        for (int i = 0; i < laneCount; i++) {
+            rowsByLane.add(new ArrayList<>());
+        }
+        for (T row : rowList) {
+            rowsByLane.get(laneOf(keyFunction.apply(row))).add(row);
+        }
+
+        List<CompletableFuture<List<R>>> laneFutures = new ArrayList<>();
+        for (int i = 0; i < laneCount; i++) {
+            List<T> laneRows = rowsByLane.get(i);
+            if (!laneRows.isEmpty()) {
+                Lock laneLock = laneLocks[i];
+                laneFutures.add(CompletableFuture.supplyAsync(() -> {
+                    laneLock.lock();
+                    try {
+                        return laneHandler.apply(laneRows);
+                    } finally {
+                        laneLock.unlock();
+                    }
+                }, laneExecutor));
+            }
+        }
+
+        List<R> resultList = new ArrayList<>(rowList.size());
+        try {
+            CompletableFuture.allOf(laneFutures.toArray(CompletableFuture<?>[]::new)).join();
+            for (CompletableFuture<List<R>> laneFuture : laneFutures) {
+                resultList.addAll(laneFuture.join());
+            }
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+
+        log.debug("Ingested {} rows in {} lanes", rowList.size(), laneFutures.size());
+
+        return resultList;
+    }
+
+    private static int resolveLaneCount(int lanes) {
+        return lanes > 0 ? lanes : Runtime.getRuntime().availableProcessors();
+    }
+
+    private int laneOf(Object key) {
+        int hash = key.hashCode();
+        return Math.floorMod(hash ^ (hash >>> 16), laneCount);
+    }
+}
@@ -0,0 +1,91 @@
+package ru.tokarev.service.jobservice;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Getter
+public class ImportJob {
+
+    private final String id = UUID.randomUUID().toString();
+
+    private final String type;
+
+    private final long totalRows;
+
+    private final String submittedBy;
+
+    private final Instant createdAt = Instant.now();
+
+    @Getter(AccessLevel.NONE)
+    private final AtomicLong processedRows = new AtomicLong();
+
+    private final List<String> errors = new CopyOnWriteArrayList<>();
+
+    private volatile ImportJobStatus status = ImportJobStatus.QUEUED;
+
+    private volatile Instant startedAt;
+
+    private volatile Instant finishedAt;
+
+    public ImportJob(String type, long totalRows, String submittedBy) {
+        this.type = type;
+        this.totalRows = totalRows;
+        this.submittedBy = submittedBy;
+    }
+
+    public long getRowsProcessed() {
+        return processedRows.get();
+    }
+
+    public String getCommittedRowRange() {
+        long committedRows = processedRows.get();
+        if (committedRows == 0) {
+            return null;
+        }
+
+        return "0-" + (committedRows - 1);
+    }
+
+    public double getRowsPerSecond() {
+        Instant start = startedAt;
+        if (start == null) {
+            return 0;
+        }
+
+        Instant end = finishedAt == null ? Instant.now() : finishedAt;
+        long elapsedMillis = Math.max(Duration.between(start, end).toMillis(), 1);
+
+        return processedRows.get() * 1000.0 / elapsedMillis;
+    }
+
+    public boolean isFinished() {
+        return status == ImportJobStatus.COMPLETED || status == ImportJobStatus.FAILED;
+    }
+
+    void start() {
+        startedAt = Instant.now();
+        status = ImportJobStatus.RUNNING;
+    }
+
+    void addProcessedRows(long rows) {
+        processedRows.addAndGet(rows);
+    }
+
+    void complete() {
+        finishedAt = Instant.now();
+        status = ImportJobStatus.COMPLETED;
+    }
+
+    void fail(String error) {
+        errors.add(error);
+        finishedAt = Instant.now();
+        status = ImportJobStatus.FAILED;
+    }
+}
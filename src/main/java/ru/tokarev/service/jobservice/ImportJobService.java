@@ -0,0 +1,11 @@
+package ru.tokarev.service.jobservice;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+public interface ImportJobService {
+
+    <T> ImportJob submit(String type, List<T> rowList, Consumer<List<T>> chunkHandler);
+
+    ImportJob getById(String id);
+}
@@ -0,0 +1,138 @@
+package ru.tokarev.service.jobservice;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.concurrent.DelegatingSecurityContextRunnable;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import ru.tokarev.exception.jobexception.JobNotFoundException;
+import ru.tokarev.exception.jobexception.JobRejectedException;
+import ru.tokarev.utils.SecurityUtil;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+@Service
+@Slf4j
+public class ImportJobServiceImpl implements ImportJobService {
+
+    private static final Duration FINISHED_JOB_RETENTION = Duration.ofHours(1);
+
+    private final Executor importJobExecutor;
+
+    private final int chunkSize;
+
+    private final long maxPendingRows;
+
+    private final AtomicLong pendingRows = new AtomicLong();
+
+    private final Map<String, ImportJob> importJobById = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ImportJobServiceImpl(@Value("${import-job.threads:2}") int threads,
+                                @Value("${import-job.queue-capacity:8}") int queueCapacity,
+                                @Value("${import-job.chunk-size:1000}") int chunkSize,
+                                @Value("${import-job.max-pending-rows:100000}") long maxPendingRows) {
+        this(new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("import-job-"),
+                new ThreadPoolExecutor.AbortPolicy()), chunkSize, maxPendingRows);
+    }
+
+    ImportJobServiceImpl(Executor importJobExecutor, int chunkSize, long maxPendingRows) {
+        this.importJobExecutor = importJobExecutor;
+        this.chunkSize = chunkSize;
+        this.maxPendingRows = maxPendingRows;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (importJobExecutor instanceof ExecutorService) {
+            ((ExecutorService) importJobExecutor).shutdown();
+        }
+    }
+
+    @Override
+    public <T> ImportJob submit(String type, List<T> rowList, Consumer<List<T>> chunkHandler) {
+
+        evictFinishedJobs();
+
+        if (pendingRows.addAndGet(rowList.size()) > maxPendingRows) {
+            pendingRows.addAndGet(-rowList.size());
+            throw new JobRejectedException("Too many rows are waiting for import, try again later");
+        }
+
+        ImportJob importJob = new ImportJob(type, rowList.size(), SecurityUtil.getCurrentUsername());
+        Runnable task = new DelegatingSecurityContextRunnable(() -> {
+            try {
+                run(importJob, rowList, chunkHandler);
+            } finally {
+                pendingRows.addAndGet(-rowList.size());
+            }
+        }, SecurityContextHolder.getContext());
+
+        importJobById.put(importJob.getId(), importJob);
+        try {
+            importJobExecutor.execute(task);
+        } catch (RejectedExecutionException e) {
+            importJobById.remove(importJob.getId());
+            pendingRows.addAndGet(-rowList.size());
+            throw new JobRejectedException("Import queue is full, try again later");
+        }
+
+        log.info("Import job {} of type {} queued with {} rows", importJob.getId(), type, rowList.size());
+
+        return importJob;
+    }
+
+    @Override
+    public ImportJob getById(String id) {
+
+        ImportJob importJob = importJobById.get(id);
+        if (importJob == null || !SecurityUtil.isCurrentUserOrAdmin(importJob.getSubmittedBy())) {
+            throw new JobNotFoundException("Job with this id not found");
+        }
+
+        return importJob;
+    }
+
+    private <T> void run(ImportJob importJob, List<T> rowList, Consumer<List<T>> chunkHandler) {
+
+        importJob.start();
+        for (int from = 0; from < rowList.size(); from += chunkSize) {
+            int to = Math.min(from + chunkSize, rowList.size());
+            try {
+                chunkHandler.accept(rowList.subList(from, to));
+            } catch (RuntimeException e) {
+                log.warn("Import job {} failed on rows {}-{} after committing {} rows: {}",
+                        importJob.getId(), from, to - 1, from, e.getMessage());
+                importJob.fail("Rows " + from + "-" + (to - 1) + ": " + e.getMessage());
+                return;
+            }
+            importJob.addProcessedRows(to - from);
+        }
+        importJob.complete();
+
+        log.info("Import job {} completed with {} rows in {} rows/s",
+                importJob.getId(), importJob.getRowsProcessed(), importJob.getRowsPerSecond());
+    }
+
+    private void evictFinishedJobs() {
+        Instant threshold = Instant.now().minus(FINISHED_JOB_RETENTION);
+        importJobById.values().removeIf(importJob ->
+                importJob.isFinished() && importJob.getFinishedAt().isBefore(threshold));
+    }
+}
@@ -0,0 +1,8 @@
+package ru.tokarev.service.jobservice;
+
+public enum ImportJobStatus {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
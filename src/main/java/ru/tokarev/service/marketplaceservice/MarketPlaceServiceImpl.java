@@ -9,6 +9,7 @@ import ru.tokarev.exception.marketplaceexception.MarketPlaceBadRequestException;
 import ru.tokarev.exception.marketplaceexception.MarketPlaceExistsException;
 import ru.tokarev.exception.marketplaceexception.MarketPlaceNotFoundException;
 import ru.tokarev.repository.MarketplaceRepository;
+import ru.tokarev.service.itemservice.ItemResultCache;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -19,9 +20,12 @@ public class MarketPlaceServiceImpl implements MarketPlaceService {
 
     private final MarketplaceRepository marketplaceRepository;
 
+    private final ItemResultCache itemResultCache;
+
     @Autowired
-    public MarketPlaceServiceImpl(MarketplaceRepository marketplaceRepository) {
+    public MarketPlaceServiceImpl(MarketplaceRepository marketplaceRepository, ItemResultCache itemResultCache) {
         this.marketplaceRepository = marketplaceRepository;
+        this.itemResultCache = itemResultCache;
     }
 
     @Override
@@ -78,6 +82,7 @@ public class MarketPlaceServiceImpl implements MarketPlaceService {
                 () -> new MarketPlaceNotFoundException("Marketplace with this id not found")
         );
         existingMarketplace.setName(marketPlace.getName());
+        itemResultCache.invalidateAll();
 
         return Optional.of(marketplaceRepository.save(existingMarketplace))
                 .orElseThrow(MarketPlaceBadRequestException::new);
@@ -93,5 +98,6 @@ public class MarketPlaceServiceImpl implements MarketPlaceService {
         );
 
         marketplaceRepository.deleteById(marketplace.getId());
+        itemResultCache.invalidateAll();
     }
 }
@@ -0,0 +1,14 @@
+package ru.tokarev.service.metricsservice;
+
+import ru.tokarev.security.PasswordHashingStats;
+import ru.tokarev.security.ratelimit.RateLimitStats;
+import ru.tokarev.service.itemservice.ItemResultCacheStats;
+
+public interface MetricsService {
+
+    ItemResultCacheStats getItemResultCacheStats();
+
+    PasswordHashingStats getPasswordHashingStats();
+
+    RateLimitStats getRateLimitStats();
+}
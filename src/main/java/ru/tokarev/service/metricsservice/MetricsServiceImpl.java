@@ -0,0 +1,47 @@
+package ru.tokarev.service.metricsservice;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Service;
+import ru.tokarev.security.PasswordHashingExecutor;
+import ru.tokarev.security.PasswordHashingStats;
+import ru.tokarev.security.ratelimit.RateLimitStats;
+import ru.tokarev.security.ratelimit.RateLimiter;
+import ru.tokarev.service.itemservice.ItemResultCache;
+import ru.tokarev.service.itemservice.ItemResultCacheStats;
+
+@Service
+public class MetricsServiceImpl implements MetricsService {
+
+    private final ItemResultCache itemResultCache;
+
+    private final PasswordHashingExecutor passwordHashingExecutor;
+
+    private final RateLimiter rateLimiter;
+
+    @Autowired
+    public MetricsServiceImpl(ItemResultCache itemResultCache, PasswordHashingExecutor passwordHashingExecutor,
+                              RateLimiter rateLimiter) {
+        this.itemResultCache = itemResultCache;
+        this.passwordHashingExecutor = passwordHashingExecutor;
+        this.rateLimiter = rateLimiter;
+    }
+
+    @Override
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public ItemResultCacheStats getItemResultCacheStats() {
+        return itemResultCache.getStats();
+    }
+
+    @Override
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public PasswordHashingStats getPasswordHashingStats() {
+        return passwordHashingExecutor.getStats();
+    }
+
+    @Override
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public RateLimitStats getRateLimitStats() {
+        return rateLimiter.getStats();
+    }
+}
@@ -2,6 +2,7 @@ package ru.tokarev.service.productservice;
 
 import ru.tokarev.entity.Product;
 
+import java.util.Iterator;
 import java.util.List;
 
 public interface ProductService {
@@ -17,4 +18,6 @@ public interface ProductService {
     void deleteProduct(Long id);
 
     List<Product> createProducts(List<Product> productList);
+
+    long createProductsInChunks(Iterator<List<Product>> productChunkIterator);
 }
@@ -13,8 +13,11 @@ import ru.tokarev.exception.productexception.ProductExistsException;
 import ru.tokarev.exception.productexception.ProductNotFoundException;
 import ru.tokarev.repository.CategoryRepository;
 import ru.tokarev.repository.ProductRepository;
+import ru.tokarev.service.itemservice.ItemResultCache;
 
+import javax.persistence.EntityManager;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
 
@@ -25,10 +28,17 @@ public class ProductServiceImpl implements ProductService {
 
     private final CategoryRepository categoryRepository;
 
+    private final EntityManager entityManager;
+
+    private final ItemResultCache itemResultCache;
+
     @Autowired
-    public ProductServiceImpl(ProductRepository productRepository, CategoryRepository categoryRepository) {
+    public ProductServiceImpl(ProductRepository productRepository, CategoryRepository categoryRepository,
+                              EntityManager entityManager, ItemResultCache itemResultCache) {
         this.productRepository = productRepository;
         this.categoryRepository = categoryRepository;
+        this.entityManager = entityManager;
+        this.itemResultCache = itemResultCache;
     }
 
     @Override
@@ -113,6 +123,24 @@ public class ProductServiceImpl implements ProductService {
         return createdProductList;
     }
 
+    @Override
+    @PreAuthorize("hasRole('ROLE_ADMIN') or hasRole('ROLE_USER')")
+    @Transactional
+    public long createProductsInChunks(Iterator<List<Product>> productChunkIterator) {
+
+        long createdProductCount = 0;
+        while (productChunkIterator.hasNext()) {
+            for (Product product : productChunkIterator.next()) {
+                createProduct(product);
+                createdProductCount++;
+            }
+            entityManager.flush();
+            entityManager.clear();
+        }
+
+        return createdProductCount;
+    }
+
     @Override
     @PreAuthorize("hasRole('ROLE_ADMIN') or hasRole('ROLE_USER')")
     @Transactional
@@ -137,6 +165,7 @@ public class ProductServiceImpl implements ProductService {
         existingProduct.setCategory(category);
 
         existingProduct.setName(product.getName());
+        itemResultCache.invalidateProduct(id);
 
         return Optional.of(productRepository.save(product)).orElseThrow(
                 () -> new ProductBadRequestException("Bad request"));
@@ -152,5 +181,6 @@ public class ProductServiceImpl implements ProductService {
         );
 
         productRepository.deleteById(product.getId());
+        itemResultCache.invalidateProduct(product.getId());
     }
 }
@@ -13,6 +13,8 @@ import ru.tokarev.exception.userexception.UserExistsException;
 import ru.tokarev.exception.userexception.UserNotFoundException;
 import ru.tokarev.repository.RoleRepository;
 import ru.tokarev.repository.UserRepository;
+import ru.tokarev.security.PrincipalCache;
+import ru.tokarev.security.jwt.TokenGenerationRegistry;
 
 import java.util.Date;
 import java.util.List;
@@ -27,12 +29,19 @@ public class UserServiceImpl implements UserService {
 
     private final PasswordEncoder passwordEncoder;
 
+    private final PrincipalCache principalCache;
+
+    private final TokenGenerationRegistry tokenGenerationRegistry;
+
     @Autowired
     public UserServiceImpl(UserRepository userRepository, RoleRepository roleRepository,
-                           PasswordEncoder passwordEncoder) {
+                           PasswordEncoder passwordEncoder, PrincipalCache principalCache,
+                           TokenGenerationRegistry tokenGenerationRegistry) {
         this.userRepository = userRepository;
         this.roleRepository = roleRepository;
         this.passwordEncoder = passwordEncoder;
+        this.principalCache = principalCache;
+        this.tokenGenerationRegistry = tokenGenerationRegistry;
     }
 
     @Override
@@ -91,6 +100,8 @@ public class UserServiceImpl implements UserService {
             throw new UserExistsException("Username already exists");
         }
 
+        principalCache.invalidate(existingUser.getUsername());
+        tokenGenerationRegistry.increment(existingUser.getId());
         existingUser.setUsername(user.getUsername());
         existingUser.setFirstName(user.getFirstName());
         existingUser.setLastName(user.getLastName());
@@ -123,6 +134,8 @@ public class UserServiceImpl implements UserService {
 
         existingUser.setRole(role);
         existingUser.setUpdated(new Date());
+        principalCache.invalidate(existingUser.getUsername());
+        tokenGenerationRegistry.increment(existingUser.getId());
 
         return Optional.of(userRepository.save(existingUser)).orElseThrow(
                 () -> new UserBadRequestException("Bad request"));
@@ -139,6 +152,8 @@ public class UserServiceImpl implements UserService {
         );
 
         userRepository.deleteById(user.getId());
+        principalCache.invalidate(user.getUsername());
+        tokenGenerationRegistry.invalidate(user.getId());
     }
 
     private boolean existsByUsername(String username) {
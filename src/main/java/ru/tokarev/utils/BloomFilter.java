@@ -0,0 +1,86 @@
+package ru.tokarev.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public class BloomFilter {
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private static final long GOLDEN_RATIO = 0x9e3779b97f4a7c15L;
+
+    private final AtomicLongArray words;
+
+    private final long bitCount;
+
+    private final int hashCount;
+
+    public BloomFilter(long expectedInsertions, double falsePositiveProbability) {
+        if (expectedInsertions <= 0 || falsePositiveProbability <= 0 || falsePositiveProbability >= 1) {
+            throw new IllegalArgumentException("Bloom filter needs positive insertions and probability below 1");
+        }
+
+        long optimalBitCount = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveProbability) /
+                (Math.log(2) * Math.log(2)));
+        this.words = new AtomicLongArray(Math.toIntExact(Math.max(1, (optimalBitCount + 63) / 64)));
+        this.bitCount = (long) words.length() * Long.SIZE;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedInsertions * Math.log(2)));
+    }
+
+    public void put(String value) {
+        long hash = hash(value);
+        long firstHash = mix(hash);
+        long secondHash = mix(hash ^ GOLDEN_RATIO) | 1;
+
+        for (int i = 0; i < hashCount; i++) {
+            long bitIndex = Math.floorMod(firstHash + i * secondHash, bitCount);
+            long mask = 1L << bitIndex;
+            words.accumulateAndGet((int) (bitIndex >>> 6), mask, (word, bit) -> word | bit);
+        }
+    }
+
+    public boolean mightContain(String value) {
+        long hash = hash(value);
+        long firstHash = mix(hash);
+        long secondHash = mix(hash ^ GOLDEN_RATIO) | 1;
+
+        for (int i = 0; i < hashCount; i++) {
+            long bitIndex = Math.floorMod(firstHash + i * secondHash, bitCount);
+            if ((words.get((int) (bitIndex >>> 6)) & (1L << bitIndex)) == 0) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    public long getBitCount() {
+        return bitCount;
+    }
+
+    public int getHashCount() {
+        return hashCount;
+    }
+
+    private static long hash(String value) {
+        long hash = FNV_OFFSET_BASIS;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= FNV_PRIME;
+        }
+
+        return hash;
+    }
+
+    private static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+
+        return hash;
+    }
+}
@@ -0,0 +1,96 @@
+package ru.tokarev.utils;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.ConstraintViolationException;
+import javax.validation.Validator;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.Function;
+
+public class JsonArrayChunkReader<S, T> implements Iterator<List<T>> {
+
+    private final ObjectMapper objectMapper;
+
+    private final Validator validator;
+
+    private final JsonParser parser;
+
+    private final Class<S> type;
+
+    private final Function<S, T> converter;
+
+    private final int chunkSize;
+
+    private JsonToken currentToken;
+
+    public JsonArrayChunkReader(ObjectMapper objectMapper, InputStream inputStream, Class<S> type,
+                                Function<S, T> converter, int chunkSize) {
+        this(objectMapper, null, inputStream, type, converter, chunkSize);
+    }
+
+    public JsonArrayChunkReader(ObjectMapper objectMapper, Validator validator, InputStream inputStream,
+                                Class<S> type, Function<S, T> converter, int chunkSize) {
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.type = type;
+        this.converter = converter;
+        this.chunkSize = chunkSize;
+        try {
+            this.parser = objectMapper.getFactory().createParser(inputStream);
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw MismatchedInputException.from(parser, type, "Expected an array of " + type.getSimpleName());
+            }
+            this.currentToken = parser.nextToken();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        return currentToken != JsonToken.END_ARRAY;
+    }
+
+    @Override
+    public List<T> next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+
+        List<T> chunk = new ArrayList<>(chunkSize);
+        try {
+            while (currentToken != JsonToken.END_ARRAY && chunk.size() < chunkSize) {
+                if (currentToken == null) {
+                    throw new JsonParseException(parser, "Unexpected end of input, array is not closed");
+                }
+
+                S value = objectMapper.readValue(parser, type);
+                if (validator != null) {
+                    Set<ConstraintViolation<S>> violations = validator.validate(value);
+                    if (!violations.isEmpty()) {
+                        throw new ConstraintViolationException(violations);
+                    }
+                }
+
+                chunk.add(converter.apply(value));
+                currentToken = parser.nextToken();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        return chunk;
+    }
+}
@@ -0,0 +1,34 @@
+package ru.tokarev.utils;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+public class SecurityUtil {
+
+    private static final String ADMIN_AUTHORITY = "ROLE_ADMIN";
+
+    public static String getCurrentUsername() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication == null ? null : authentication.getName();
+    }
+
+    public static boolean isCurrentUserOrAdmin(String username) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null) {
+            return false;
+        }
+
+        if (authentication.getName().equals(username)) {
+            return true;
+        }
+
+        for (GrantedAuthority authority : authentication.getAuthorities()) {
+            if (ADMIN_AUTHORITY.equals(authority.getAuthority())) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+}
@@ -0,0 +1,14 @@
+-- Maintenance migration: the column type change rewrites item and the exclusion constraint is built while item
+-- is locked against reads and writes. Run it in a maintenance window, see spring.flyway.locations.
+create extension if not exists btree_gist;
+
+alter table item
+    alter column date_start type date using date_start::date,
+    alter column date_end type date using date_end::date;
+
+alter table item
+    add column period daterange generated always as (daterange(date_start, date_end, '[)')) stored;
+
+alter table item
+    add constraint item_product_id_marketplace_id_period_excl
+        exclude using gist (product_id with =, marketplace_id with =, period with &&);
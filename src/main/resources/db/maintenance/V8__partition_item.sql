@@ -0,0 +1,163 @@
+-- Maintenance migration: every row of item is copied into the partitioned table while item stays locked against
+-- reads and writes. Run it in a maintenance window, see spring.flyway.locations.
+alter table item
+    rename to item_unpartitioned;
+
+drop index if exists item_product_id_marketplace_id_date_start_index;
+
+drop index if exists item_date_start_date_end_brin_index;
+
+alter table item_unpartitioned
+    drop constraint item_product_id_marketplace_id_period_excl;
+
+alter table item_unpartitioned
+    rename constraint item_pk to item_unpartitioned_pk;
+
+drop index item_serial_number_uindex;
+
+drop index item_product_id_date_start_marketplace_id_date_end_uindex;
+
+-- The primary key must include the partition key, so id alone is no longer enforced unique. Ids are unique by
+-- contract: every writer takes them from item_id_seq, and lookups by id (delete, compaction, period updates)
+-- rely on that.
+create table item
+(
+    product_id     bigint                                                     not null
+        constraint item_product_id_fk
+            references product,
+    price          bigint                                                     not null,
+    date_start     date                                                       not null,
+    marketplace_id bigint                                                     not null
+        constraint item_marketplace_id_fk
+            references marketplace,
+    date_end       date                                                       not null,
+    id             bigint default nextval('item_id_seq'::regclass) not null,
+    period         daterange generated always as (daterange(date_start, date_end, '[)')) stored,
+    constraint item_pk
+        primary key (id, date_start)
+) partition by range (date_start);
+
+alter table item
+    owner to postgres;
+
+create table item_default
+    partition of item default;
+
+create index item_product_id_marketplace_id_period_index
+    on item using gist (product_id, marketplace_id, period);
+
+create unique index item_product_id_date_start_marketplace_id_date_end_uindex
+    on item (product_id, date_start, marketplace_id, date_end);
+
+create index item_product_id_marketplace_id_date_start_index
+    on item (product_id, marketplace_id, date_start);
+
+create index item_date_start_date_end_brin_index
+    on item using brin (date_start, date_end);
+
+create or replace function create_item_partitions(from_date date, to_date date) returns integer
+    language plpgsql as
+$$
+declare
+    quarter_start  date    := date_trunc('quarter', from_date)::date;
+    quarter_end    date;
+    partition_name text;
+    created        integer := 0;
+begin
+    while quarter_start < to_date
+        loop
+            quarter_end := (quarter_start + interval '3 months')::date;
+            partition_name := format('item_%s_q%s', extract(year from quarter_start),
+                                     extract(quarter from quarter_start));
+            if to_regclass(partition_name) is null then
+                if exists(select 1
+                          from item_default
+                          where date_start >= quarter_start
+                            and date_start < quarter_end) then
+                    raise warning 'Partition % skipped: item_default holds rows of its range, '
+                                      'run split_item_default_partition(%)', partition_name, quarter_start;
+                else
+                    execute format('create table %I (like item including defaults including generated)',
+                                   partition_name);
+                    execute format('alter table %I owner to postgres', partition_name);
+                    execute format('alter table item attach partition %I for values from (%L) to (%L)',
+                                   partition_name, quarter_start, quarter_end);
+                    created := created + 1;
+                end if;
+            end if;
+            quarter_start := quarter_end;
+        end loop;
+    return created;
+end;
+$$;
+
+create or replace function split_item_default_partition(split_date date) returns bigint
+    language plpgsql as
+$$
+declare
+    quarter_start  date := date_trunc('quarter', split_date)::date;
+    quarter_end    date := (date_trunc('quarter', split_date) + interval '3 months')::date;
+    partition_name text := format('item_%s_q%s', extract(year from split_date), extract(quarter from split_date));
+    moved          bigint;
+begin
+    if to_regclass(partition_name) is not null then
+        raise exception 'Partition % already exists', partition_name;
+    end if;
+
+    alter table item detach partition item_default;
+    execute format('create table %I (like item including defaults including generated)', partition_name);
+    execute format('alter table %I owner to postgres', partition_name);
+    execute format('insert into %I (id, product_id, marketplace_id, price, date_start, date_end)'
+                       ' select id, product_id, marketplace_id, price, date_start, date_end from item_default'
+                       ' where date_start >= %L and date_start < %L', partition_name, quarter_start, quarter_end);
+    get diagnostics moved = row_count;
+    delete from item_default where date_start >= quarter_start and date_start < quarter_end;
+    execute format('alter table item attach partition %I for values from (%L) to (%L)',
+                   partition_name, quarter_start, quarter_end);
+    alter table item attach partition item_default default;
+    return moved;
+end;
+$$;
+
+create or replace function item_check_period_overlap() returns trigger
+    language plpgsql as
+$$
+begin
+    perform pg_advisory_xact_lock(hashtextextended(new.product_id || ':' || new.marketplace_id, 0));
+    if exists(select 1
+              from item
+              where product_id = new.product_id
+                and marketplace_id = new.marketplace_id
+                and id <> new.id
+                and date_start < new.date_end
+                and period && daterange(new.date_start, new.date_end, '[)')) then
+        raise exception 'Period of product % on marketplace % overlaps an existing item',
+            new.product_id, new.marketplace_id
+            using errcode = 'exclusion_violation';
+    end if;
+    return new;
+end;
+$$;
+
+select create_item_partitions(coalesce((select min(date_start) from item_unpartitioned), current_date),
+                              greatest((date_trunc('quarter', current_date) + interval '1 year')::date,
+                                       (select max(date_start) + 1 from item_unpartitioned)));
+
+insert into item (id, product_id, marketplace_id, price, date_start, date_end)
+select id, product_id, marketplace_id, price, date_start, date_end
+from item_unpartitioned;
+
+create trigger item_check_period_overlap
+    before insert or update of product_id, marketplace_id, date_start, date_end
+    on item
+    for each row
+execute function item_check_period_overlap();
+
+create trigger item_maintain_daily_price
+    after insert or delete or update of product_id, marketplace_id, price, date_start, date_end
+    on item
+    for each row
+execute function item_maintain_daily_price();
+
+drop table item_unpartitioned;
+
@@ -0,0 +1,11 @@
+create table item_compaction_checkpoint
+(
+    id             integer not null
+        constraint item_compaction_checkpoint_pk
+            primary key,
+    product_id     bigint  not null,
+    marketplace_id bigint  not null
+);
+
+alter table item_compaction_checkpoint
+    owner to postgres;
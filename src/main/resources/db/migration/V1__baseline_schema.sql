@@ -108,4 +108,10 @@ create unique index item_serial_number_uindex
     on item (id);
 
 create unique index item_product_id_date_start_marketplace_id_date_end_uindex
-    on item (product_id, date_start, marketplace_id, date_end);
\ No newline at end of file
+    on item (product_id, date_start, marketplace_id, date_end);
+
+insert into "role"
+values (101, 'ROLE_ADMIN'),
+       (102, 'ROLE_USER'),
+       (103, 'ROLE_UNDEFINED')
+on conflict (id) do nothing;
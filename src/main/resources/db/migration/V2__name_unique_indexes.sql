@@ -0,0 +1,11 @@
+drop index concurrently if exists category_name_uindex;
+create unique index concurrently category_name_uindex
+    on category (name);
+
+drop index concurrently if exists marketplace_name_uindex;
+create unique index concurrently marketplace_name_uindex
+    on marketplace (name);
+
+drop index concurrently if exists product_name_uindex;
+create unique index concurrently product_name_uindex
+    on product (name);
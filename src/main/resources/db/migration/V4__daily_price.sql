@@ -0,0 +1,127 @@
+create table daily_price
+(
+    product_id     bigint not null,
+    marketplace_id bigint not null,
+    day            date   not null,
+    category_id    bigint not null,
+    item_id        bigint not null,
+    price          bigint not null,
+    constraint daily_price_pk
+        primary key (product_id, marketplace_id, day)
+);
+
+alter table daily_price
+    owner to postgres;
+
+create index daily_price_product_id_day_index
+    on daily_price (product_id, day) include (price);
+
+create index daily_price_category_id_day_index
+    on daily_price (category_id, day) include (price);
+
+create or replace function item_maintain_daily_price() returns trigger
+    language plpgsql as
+$$
+begin
+    if tg_op in ('DELETE', 'UPDATE') then
+        delete
+        from daily_price
+        where product_id = old.product_id
+          and marketplace_id = old.marketplace_id
+          and day >= old.date_start
+          and day < old.date_end
+          and item_id = old.id;
+    end if;
+    if tg_op = 'DELETE' then
+        return old;
+    end if;
+
+    insert into daily_price (product_id, marketplace_id, day, category_id, item_id, price)
+    select new.product_id, new.marketplace_id, day::date, product.category_id, new.id, new.price
+    from product,
+         generate_series(new.date_start::timestamp, (new.date_end::date - 1)::timestamp, interval '1 day') day
+    where product.id = new.product_id
+    on conflict (product_id, marketplace_id, day) do update
+        set category_id = excluded.category_id,
+            item_id     = excluded.item_id,
+            price       = excluded.price;
+    return new;
+end;
+$$;
+
+create trigger item_maintain_daily_price
+    after insert or delete or update of product_id, marketplace_id, price, date_start, date_end
+    on item
+    for each row
+execute function item_maintain_daily_price();
+
+create or replace function product_maintain_daily_price() returns trigger
+    language plpgsql as
+$$
+begin
+    update daily_price set category_id = new.category_id where product_id = new.id;
+    return new;
+end;
+$$;
+
+create trigger product_maintain_daily_price
+    after update of category_id
+    on product
+    for each row
+    when (old.category_id is distinct from new.category_id)
+execute function product_maintain_daily_price();
+
+-- Detached partitions leave the item triggers behind, so their daily prices are deleted explicitly.
+create or replace function detach_item_partitions(before_date date) returns setof text
+    language plpgsql as
+$$
+declare
+    item_partition record;
+begin
+    for item_partition in
+        select child.relname                                          as partition_name,
+               substring(pg_get_expr(child.relpartbound, child.oid)
+                         from 'TO \(''([0-9-]+)''\)')::date            as partition_end
+        from pg_inherits
+                 join pg_class parent on parent.oid = pg_inherits.inhparent
+                 join pg_class child on child.oid = pg_inherits.inhrelid
+        where parent.relname = 'item'
+          and child.relname <> 'item_default'
+        order by partition_end
+        loop
+            if item_partition.partition_end <= before_date then
+                execute format('alter table item detach partition %I', item_partition.partition_name);
+                execute format('delete from daily_price d using %I p'
+                                   ' where d.product_id = p.product_id'
+                                   ' and d.marketplace_id = p.marketplace_id'
+                                   ' and d.day >= p.date_start'
+                                   ' and d.day < p.date_end'
+                                   ' and d.item_id = p.id', item_partition.partition_name);
+                return next item_partition.partition_name;
+            end if;
+        end loop;
+end;
+$$;
+
+-- Holds a share lock on item while it runs, so writes to item wait for the whole rebuild.
+create or replace function rebuild_daily_price() returns bigint
+    language plpgsql as
+$$
+declare
+    rebuilt bigint;
+begin
+    lock table item in share mode;
+    delete from daily_price;
+    insert into daily_price (product_id, marketplace_id, day, category_id, item_id, price)
+    select item.product_id, item.marketplace_id, day::date, product.category_id, item.id, item.price
+    from item
+             join product on product.id = item.product_id,
+         generate_series(item.date_start::timestamp, (item.date_end::date - 1)::timestamp, interval '1 day') day
+    on conflict (product_id, marketplace_id, day) do nothing;
+    get diagnostics rebuilt = row_count;
+    return rebuilt;
+end;
+$$;
+
+-- daily_price is not filled here to keep the migration from blocking item writes;
+-- fill it with POST /api/items/daily-prices/rebuild once the application is up.
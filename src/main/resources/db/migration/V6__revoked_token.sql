@@ -0,0 +1,17 @@
+create table if not exists revoked_token
+(
+    token_id   varchar(64) not null
+        constraint revoked_token_pk
+            primary key,
+    expires_at timestamp   not null,
+    revoked_at timestamp   not null default now()
+);
+
+alter table revoked_token
+    owner to postgres;
+
+create index if not exists revoked_token_revoked_at_index
+    on revoked_token (revoked_at);
+
+create index if not exists revoked_token_expires_at_index
+    on revoked_token (expires_at);
@@ -0,0 +1,48 @@
+package ru.tokarev.security;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BoundedPasswordEncoderTest {
+
+    private final PasswordHashingExecutor passwordHashingExecutor = new PasswordHashingExecutor(1, 4, 5000);
+
+    private final BoundedPasswordEncoder boundedPasswordEncoder = new BoundedPasswordEncoder(5,
+            passwordHashingExecutor);
+
+    @AfterEach
+    void tearDown() {
+        passwordHashingExecutor.shutdown();
+    }
+
+    @Test
+    void givenEncodedPassword_whenMatches_thenReturnTrueOnlyForSamePassword() {
+
+        //arrange
+        String encodedPassword = boundedPasswordEncoder.encode("12345qwert");
+
+        //act
+        //assert
+        assertTrue(boundedPasswordEncoder.matches("12345qwert", encodedPassword));
+        assertFalse(boundedPasswordEncoder.matches("qwert12345", encodedPassword));
+        assertFalse(boundedPasswordEncoder.upgradeEncoding(encodedPassword));
+    }
+
+    @Test
+    void givenPasswordEncodedWithOtherCost_whenUpgradeEncoding_thenReturnTrue() {
+
+        //arrange
+        String lowerCostPassword = new BCryptPasswordEncoder(4).encode("12345qwert");
+        String higherCostPassword = new BCryptPasswordEncoder(6).encode("12345qwert");
+
+        //act
+        //assert
+        assertTrue(boundedPasswordEncoder.upgradeEncoding(lowerCostPassword));
+        assertTrue(boundedPasswordEncoder.upgradeEncoding(higherCostPassword));
+        assertTrue(boundedPasswordEncoder.matches("12345qwert", higherCostPassword));
+    }
+}
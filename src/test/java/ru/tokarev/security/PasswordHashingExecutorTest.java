@@ -0,0 +1,72 @@
+package ru.tokarev.security;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import ru.tokarev.exception.passwordexception.PasswordHashingRejectedException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PasswordHashingExecutorTest {
+
+    private final PasswordHashingExecutor passwordHashingExecutor = new PasswordHashingExecutor(1, 1, 5000);
+
+    @AfterEach
+    void tearDown() {
+        passwordHashingExecutor.shutdown();
+    }
+
+    @Test
+    void givenTask_whenExecute_thenReturnResultAndRecordStats() {
+
+        //arrange
+        //act
+        String result = passwordHashingExecutor.execute(() -> "hash");
+
+        //assert
+        PasswordHashingStats stats = passwordHashingExecutor.getStats();
+        assertEquals("hash", result);
+        assertEquals(1, stats.getCompletedCount());
+        assertEquals(0, stats.getRejectedCount());
+    }
+
+    @Test
+    void givenSaturatedExecutor_whenExecute_thenRejectWithoutWaiting() throws Exception {
+
+        //arrange
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> passwordHashingExecutor.execute(() -> {
+            started.countDown();
+            awaitQuietly(release);
+            return "running";
+        }));
+        started.await(5, TimeUnit.SECONDS);
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(
+                () -> passwordHashingExecutor.execute(() -> "queued"));
+        while (passwordHashingExecutor.getStats().getQueueDepth() == 0) {
+            Thread.onSpinWait();
+        }
+
+        //act
+        //assert
+        assertThrows(PasswordHashingRejectedException.class, () -> passwordHashingExecutor.execute(() -> "rejected"));
+        assertEquals(1, passwordHashingExecutor.getStats().getRejectedCount());
+
+        release.countDown();
+        assertEquals("running", running.get(5, TimeUnit.SECONDS));
+        assertEquals("queued", queued.get(5, TimeUnit.SECONDS));
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
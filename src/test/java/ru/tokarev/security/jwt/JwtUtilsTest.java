@@ -0,0 +1,74 @@
+package ru.tokarev.security.jwt;
+
+import io.jsonwebtoken.Claims;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import ru.tokarev.exception.jwtexception.RevokedJwtException;
+import ru.tokarev.security.UserDetailsImpl;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+@SpringBootTest
+class JwtUtilsTest {
+
+    private final TokenGenerationRegistry tokenGenerationRegistry = mock(TokenGenerationRegistry.class);
+
+    private final UserDetailsImpl userDetails = new UserDetailsImpl(1L, "oleg", "Oleg", "Tokarev",
+            "oleg@mail.ru", "12345qwert", List.of(new SimpleGrantedAuthority("ROLE_ADMIN")),
+            new Date(), new Date());
+
+    @Test
+    void givenStatelessToken_whenGetPrincipalFromClaims_thenBuildPrincipalFromClaims() {
+
+        //arrange
+        JwtUtils jwtUtils = new JwtUtils("secret_word", 60000, "stateless", true, tokenGenerationRegistry);
+        given(tokenGenerationRegistry.getCurrentGeneration(1L)).willReturn(3);
+        given(tokenGenerationRegistry.isCurrent(1L, 3)).willReturn(true);
+        String jwt = jwtUtils.generateJwtToken(new UsernamePasswordAuthenticationToken(userDetails, null));
+
+        //act
+        UserDetailsImpl principal = jwtUtils.getPrincipalFromClaims(jwtUtils.parseVerifiedClaims(jwt));
+
+        //assert
+        assertEquals(1L, principal.getId());
+        assertEquals("oleg", principal.getUsername());
+        assertEquals("ROLE_ADMIN", principal.getAuthorities().iterator().next().getAuthority());
+    }
+
+    @Test
+    void givenTokenOfOldGeneration_whenGetPrincipalFromClaims_ThrowRevokedJwtException() {
+
+        //arrange
+        JwtUtils jwtUtils = new JwtUtils("secret_word", 60000, "stateless", true, tokenGenerationRegistry);
+        given(tokenGenerationRegistry.getCurrentGeneration(1L)).willReturn(3);
+        given(tokenGenerationRegistry.isCurrent(1L, 3)).willReturn(false);
+        Claims claims = jwtUtils.parseVerifiedClaims(
+                jwtUtils.generateJwtToken(new UsernamePasswordAuthenticationToken(userDetails, null)));
+
+        //act
+        //assert
+        assertThrows(RevokedJwtException.class, () -> jwtUtils.getPrincipalFromClaims(claims));
+    }
+
+    @Test
+    void givenLookupMode_whenGetPrincipalFromClaims_thenReturnNull() {
+
+        //arrange
+        JwtUtils jwtUtils = new JwtUtils("secret_word", 60000, "lookup", false, tokenGenerationRegistry);
+        Claims claims = jwtUtils.parseVerifiedClaims(
+                jwtUtils.generateJwtToken(new UsernamePasswordAuthenticationToken(userDetails, null)));
+
+        //act
+        //assert
+        assertNull(jwtUtils.getPrincipalFromClaims(claims));
+    }
+}
@@ -0,0 +1,92 @@
+package ru.tokarev.security.jwt;
+
+import org.junit.jupiter.api.Test;
+import ru.tokarev.repository.RevokedTokenRepository;
+
+import java.time.Instant;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class TokenRevocationRegistryTest {
+
+    private final RevokedTokenRepository revokedTokenRepository = mock(RevokedTokenRepository.class);
+
+    private final TokenRevocationRegistry tokenRevocationRegistry = new TokenRevocationRegistry(
+            revokedTokenRepository, mock(ScheduledExecutorService.class), 1000, 0, 1440);
+
+    @Test
+    void givenSyncedFilter_whenIsRevokedForNotRevokedToken_thenReturnFalseWithoutDatabaseLookup() {
+
+        //arrange
+        tokenRevocationRegistry.sync();
+
+        //act
+        boolean revoked = tokenRevocationRegistry.isRevoked("not-revoked");
+
+        //assert
+        assertTrue(tokenRevocationRegistry.isReady());
+        assertFalse(revoked);
+        verify(revokedTokenRepository, never()).existsByTokenId(anyString());
+    }
+
+    @Test
+    void givenRevokedToken_whenIsRevoked_thenConfirmInDatabaseAndReturnTrue() {
+
+        //arrange
+        tokenRevocationRegistry.sync();
+        Instant expiresAt = Instant.now().plusSeconds(60);
+        given(revokedTokenRepository.existsByTokenId("revoked")).willReturn(true);
+
+        //act
+        tokenRevocationRegistry.revoke("revoked", expiresAt);
+        boolean revoked = tokenRevocationRegistry.isRevoked("revoked");
+
+        //assert
+        assertTrue(revoked);
+        verify(revokedTokenRepository).save("revoked", expiresAt);
+        verify(revokedTokenRepository).existsByTokenId("revoked");
+    }
+
+    @Test
+    void givenFilterNotLoaded_whenIsRevoked_thenReadFromDatabase() {
+
+        //arrange
+        given(revokedTokenRepository.existsByTokenId("token")).willReturn(false);
+
+        //act
+        boolean revoked = tokenRevocationRegistry.isRevoked("token");
+
+        //assert
+        assertFalse(tokenRevocationRegistry.isReady());
+        assertFalse(revoked);
+        verify(revokedTokenRepository).existsByTokenId("token");
+    }
+
+    @Test
+    void givenTokenRevokedDuringRebuild_whenIsRevoked_thenFindItInRebuiltFilter() {
+
+        //arrange
+        Instant expiresAt = Instant.now().plusSeconds(60);
+        willAnswer(invocation -> {
+            tokenRevocationRegistry.revoke("revoked-during-rebuild", expiresAt);
+            return null;
+        }).given(revokedTokenRepository).findActive(any());
+        given(revokedTokenRepository.existsByTokenId("revoked-during-rebuild")).willReturn(true);
+
+        //act
+        tokenRevocationRegistry.sync();
+        boolean revoked = tokenRevocationRegistry.isRevoked("revoked-during-rebuild");
+
+        //assert
+        assertTrue(revoked);
+    }
+}
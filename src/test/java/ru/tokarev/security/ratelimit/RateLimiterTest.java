@@ -0,0 +1,91 @@
+package ru.tokarev.security.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RateLimiterTest {
+
+    private static final String ANALYTICS_PATH = "/api/items/compare-prices";
+
+    private static final String CRUD_PATH = "/api/products/1";
+
+    private final AtomicLong nanoClock = new AtomicLong();
+
+    private final RateLimiter rateLimiter = new RateLimiter(true, 3, 1, 2, 1, List.of(ANALYTICS_PATH),
+            1000, 60, nanoClock::get);
+
+    @Test
+    void givenExhaustedAnalyticsBucket_whenTryAcquire_thenRejectOnlyAnalyticsWithRetryAfter() {
+
+        //arrange
+        rateLimiter.tryAcquire("oleg", ANALYTICS_PATH);
+        rateLimiter.tryAcquire("oleg", ANALYTICS_PATH);
+
+        //act
+        long analyticsRetryAfter = rateLimiter.tryAcquire("oleg", ANALYTICS_PATH);
+        long crudRetryAfter = rateLimiter.tryAcquire("oleg", CRUD_PATH);
+        long otherUserRetryAfter = rateLimiter.tryAcquire("ivan", ANALYTICS_PATH);
+
+        //assert
+        assertEquals(TimeUnit.SECONDS.toNanos(1), analyticsRetryAfter);
+        assertEquals(0, crudRetryAfter);
+        assertEquals(0, otherUserRetryAfter);
+        assertEquals(1, rateLimiter.getStats().getAnalyticsRejectedCount());
+        assertEquals(0, rateLimiter.getStats().getCrudRejectedCount());
+    }
+
+    @Test
+    void givenExhaustedBucket_whenRefillTimePassed_thenAllowAgain() {
+
+        //arrange
+        for (int i = 0; i < 3; i++) {
+            rateLimiter.tryAcquire("oleg", CRUD_PATH);
+        }
+        long retryAfter = rateLimiter.tryAcquire("oleg", CRUD_PATH);
+
+        //act
+        nanoClock.addAndGet(retryAfter);
+        long retryAfterRefill = rateLimiter.tryAcquire("oleg", CRUD_PATH);
+
+        //assert
+        assertTrue(retryAfter > 0);
+        assertEquals(0, retryAfterRefill);
+        assertTrue(rateLimiter.tryAcquire("oleg", CRUD_PATH) > 0);
+    }
+
+    @Test
+    void givenSlowRefill_whenGetFullRefillSeconds_thenReturnLongestBucketRefill() {
+
+        //arrange
+        RateLimiter slowRateLimiter = new RateLimiter(true, 100, 50, 10, 0.5, List.of(ANALYTICS_PATH),
+                1000, 1, nanoClock::get);
+
+        //act
+        long fullRefillSeconds = slowRateLimiter.getFullRefillSeconds();
+
+        //assert
+        assertEquals(20, fullRefillSeconds);
+    }
+
+    @Test
+    void givenTrailingSlash_whenTryAcquire_thenChargeAnalyticsBucket() {
+
+        //arrange
+        rateLimiter.tryAcquire("oleg", ANALYTICS_PATH + "/");
+        rateLimiter.tryAcquire("oleg", ANALYTICS_PATH + "/");
+
+        //act
+        long analyticsRetryAfter = rateLimiter.tryAcquire("oleg", ANALYTICS_PATH + "/");
+
+        //assert
+        assertTrue(analyticsRetryAfter > 0);
+        assertEquals(1, rateLimiter.getStats().getAnalyticsRejectedCount());
+        assertEquals(0, rateLimiter.getStats().getCrudRejectedCount());
+    }
+}
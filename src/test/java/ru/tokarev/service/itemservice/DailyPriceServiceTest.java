@@ -0,0 +1,71 @@
+package ru.tokarev.service.itemservice;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.tokarev.entity.item.DailyPriceStats;
+import ru.tokarev.exception.itemexception.ItemBadRequestException;
+import ru.tokarev.exception.itemexception.ItemNotFoundException;
+import ru.tokarev.repository.DailyPriceRepository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@SpringBootTest
+class DailyPriceServiceTest {
+
+    private final DailyPriceRepository dailyPriceRepository = mock(DailyPriceRepository.class);
+
+    private final DailyPriceService dailyPriceService = new DailyPriceServiceImpl(dailyPriceRepository);
+
+    @Test
+    void givenCategoryAndPeriod_whenGetCategoryDailyPrices_thenReturnStatsFromDailyPriceTable() {
+
+        //arrange
+        LocalDate dateStart = LocalDate.of(2022, 10, 1);
+        LocalDate dateEnd = LocalDate.of(2022, 10, 3);
+        List<DailyPriceStats> dailyPriceStatsList = List.of(
+                new DailyPriceStats(dateStart, 100L, 300L, 200.0, 3L),
+                new DailyPriceStats(dateStart.plusDays(1), 150L, 150L, 150.0, 1L));
+        given(dailyPriceRepository.findStatsByCategoryId(1L, dateStart, dateEnd)).willReturn(dailyPriceStatsList);
+
+        //act
+        List<DailyPriceStats> result = dailyPriceService.getCategoryDailyPrices(1L, dateStart, dateEnd);
+
+        //assert
+        assertEquals(dailyPriceStatsList, result);
+    }
+
+    @Test
+    void givenPeriodWithoutPrices_whenGetProductDailyPrices_ThrowItemNotFoundException() {
+
+        //arrange
+        LocalDate dateStart = LocalDate.of(2022, 10, 1);
+        given(dailyPriceRepository.findStatsByProductId(1L, dateStart, dateStart.plusDays(1))).willReturn(List.of());
+
+        //act
+        //assert
+        assertThrows(ItemNotFoundException.class,
+                () -> dailyPriceService.getProductDailyPrices(1L, dateStart, dateStart.plusDays(1)));
+    }
+
+    @Test
+    void givenReversedPeriod_whenGetProductDailyPrices_ThrowItemBadRequestException() {
+
+        //arrange
+        LocalDate dateStart = LocalDate.of(2022, 10, 1);
+
+        //act
+        //assert
+        assertThrows(ItemBadRequestException.class,
+                () -> dailyPriceService.getProductDailyPrices(1L, dateStart, dateStart.minusDays(1)));
+        verify(dailyPriceRepository, never()).findStatsByProductId(any(), any(), any());
+    }
+}
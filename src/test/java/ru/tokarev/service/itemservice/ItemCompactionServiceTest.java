@@ -0,0 +1,82 @@
+package ru.tokarev.service.itemservice;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.tokarev.entity.item.ItemInterval;
+import ru.tokarev.exception.jobexception.JobNotFoundException;
+import ru.tokarev.repository.ItemCompactionRepository;
+import ru.tokarev.repository.ItemJdbcRepository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@SpringBootTest
+class ItemCompactionServiceTest {
+
+    private final ItemCompactionRepository itemCompactionRepository = mock(ItemCompactionRepository.class);
+
+    private final ItemJdbcRepository itemJdbcRepository = mock(ItemJdbcRepository.class);
+
+    private final PriceHistoryIndex priceHistoryIndex = mock(PriceHistoryIndex.class);
+
+    private final ItemCompactionServiceImpl itemCompactionService = new ItemCompactionServiceImpl(
+            itemCompactionRepository, itemJdbcRepository, priceHistoryIndex, mock(PlatformTransactionManager.class),
+            mock(ScheduledExecutorService.class), 0, 100, 0);
+
+    @Test
+    void givenContiguousSamePriceRows_whenCompact_thenMergeRunsAndReportRemovedRows() {
+
+        //arrange
+        LocalDate day = LocalDate.of(2022, 10, 1);
+        List<Long> firstSeries = List.of(1L, 1L);
+        List<Long> secondSeries = List.of(1L, 2L);
+
+        given(itemCompactionRepository.findCheckpoint()).willReturn(List.of(0L, 0L));
+        given(itemCompactionRepository.findSeriesAfter(List.of(0L, 0L), 100))
+                .willReturn(List.of(firstSeries, secondSeries));
+        given(itemCompactionRepository.findSeriesAfter(secondSeries, 100)).willReturn(List.of());
+        given(itemCompactionRepository.findIntervalsForUpdate(List.of(0L, 0L), secondSeries)).willReturn(List.of(
+                new ItemInterval(1L, 1L, 1L, 100, day, day.plusDays(1)),
+                new ItemInterval(2L, 1L, 1L, 100, day.plusDays(1), day.plusDays(2)),
+                new ItemInterval(3L, 1L, 1L, 100, day.plusDays(2), day.plusDays(3)),
+                new ItemInterval(4L, 1L, 1L, 200, day.plusDays(3), day.plusDays(4)),
+                new ItemInterval(5L, 1L, 1L, 200, day.plusDays(5), day.plusDays(6)),
+                new ItemInterval(6L, 1L, 2L, 200, day.plusDays(6), day.plusDays(7)),
+                new ItemInterval(7L, 1L, 2L, 200, day.plusDays(7), day.plusDays(8))));
+        given(itemCompactionRepository.deleteReturningSize(List.of(2L, 3L, 7L))).willReturn(120L);
+
+        //act
+        ItemCompactionReport report = itemCompactionService.compact();
+
+        //assert
+        assertTrue(report.isCompleted());
+        assertEquals(2, report.getSeriesScanned());
+        assertEquals(3, report.getRowsRemoved());
+        assertEquals(120, report.getBytesReclaimed());
+        verify(itemJdbcRepository, times(1)).batchUpdatePeriods(argThat(intervalList ->
+                intervalList.size() == 2 &&
+                        intervalList.get(0).getId() == 1L &&
+                        intervalList.get(0).getDateEnd().equals(day.plusDays(3)) &&
+                        intervalList.get(1).getId() == 6L &&
+                        intervalList.get(1).getDateEnd().equals(day.plusDays(8))));
+        verify(itemCompactionRepository, times(1)).saveCheckpoint(secondSeries);
+        verify(itemCompactionRepository, times(1)).deleteCheckpoint();
+        assertEquals(report, itemCompactionService.getLastReport());
+    }
+
+    @Test
+    void givenNoFinishedPass_whenGetLastReport_ThrowJobNotFoundException() {
+        assertThrows(JobNotFoundException.class, itemCompactionService::getLastReport);
+    }
+}
@@ -0,0 +1,87 @@
+package ru.tokarev.service.itemservice;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.tokarev.exception.itemexception.ItemBadRequestException;
+import ru.tokarev.repository.ItemPartitionRepository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@SpringBootTest
+class ItemPartitionServiceTest {
+
+    private final ItemPartitionRepository itemPartitionRepository = mock(ItemPartitionRepository.class);
+
+    private final PriceHistoryIndex priceHistoryIndex = mock(PriceHistoryIndex.class);
+
+    private final ItemPartitionService itemPartitionService = new ItemPartitionServiceImpl(
+            itemPartitionRepository, priceHistoryIndex, mock(ScheduledExecutorService.class));
+
+    @Test
+    void givenNothing_whenCreateUpcomingPartitions_thenCreatePartitionsFromCurrentQuarterForOneYear() {
+
+        //arrange
+        LocalDate today = LocalDate.now();
+        LocalDate quarterStart = today.withMonth((today.getMonthValue() - 1) / 3 * 3 + 1).withDayOfMonth(1);
+        given(itemPartitionRepository.createPartitions(quarterStart, today.plusYears(1))).willReturn(2);
+
+        //act
+        int created = itemPartitionService.createUpcomingPartitions();
+
+        //assert
+        assertEquals(2, created);
+        verify(itemPartitionRepository, never()).splitDefaultPartition(any());
+    }
+
+    @Test
+    void givenDate_whenSplitDefaultPartition_thenReturnMovedRowsWithoutReloadingIndex() {
+
+        //arrange
+        LocalDate splitDate = LocalDate.of(2030, 2, 1);
+        given(itemPartitionRepository.splitDefaultPartition(splitDate)).willReturn(5L);
+
+        //act
+        long moved = itemPartitionService.splitDefaultPartition(splitDate);
+
+        //assert
+        assertEquals(5L, moved);
+        verify(priceHistoryIndex, never()).load();
+    }
+
+    @Test
+    void givenOldDate_whenDetachPartitionsBefore_thenReturnDetachedPartitionsAndReloadIndex() {
+
+        //arrange
+        LocalDate beforeDate = LocalDate.of(2020, 1, 1);
+        given(itemPartitionRepository.detachPartitionsBefore(beforeDate))
+                .willReturn(List.of("item_2019_q3", "item_2019_q4"));
+
+        //act
+        List<String> detachedPartitions = itemPartitionService.detachPartitionsBefore(beforeDate);
+
+        //assert
+        assertEquals(List.of("item_2019_q3", "item_2019_q4"), detachedPartitions);
+        verify(priceHistoryIndex, times(1)).load();
+    }
+
+    @Test
+    void givenCurrentDate_whenDetachPartitionsBefore_ThrowItemBadRequestException() {
+
+        //act
+        //assert
+        assertThrows(ItemBadRequestException.class,
+                () -> itemPartitionService.detachPartitionsBefore(LocalDate.now().plusDays(1)));
+        verify(itemPartitionRepository, never()).detachPartitionsBefore(any());
+    }
+}
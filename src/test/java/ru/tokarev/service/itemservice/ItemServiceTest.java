@@ -4,35 +4,55 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
 import ru.tokarev.dto.item.PriceByDayDto;
+import ru.tokarev.dto.item.PriceIntervalDto;
+import ru.tokarev.dto.item.ProductPriceColumnsDto;
 import ru.tokarev.dto.item.ProductPriceComparingDto;
 import ru.tokarev.dto.item.ProductPriceDifferenceDto;
+import ru.tokarev.dto.item.ProductPriceIntervalsDto;
 import ru.tokarev.entity.Category;
 import ru.tokarev.entity.Marketplace;
 import ru.tokarev.entity.Product;
 import ru.tokarev.entity.item.Item;
+import ru.tokarev.entity.item.ItemCsvMergeCount;
+import ru.tokarev.entity.item.ItemInterval;
+import ru.tokarev.entity.item.NamedItemInterval;
 import ru.tokarev.exception.categoryexception.CategoryNotFoundException;
+import ru.tokarev.exception.itemexception.ItemExistsException;
+import ru.tokarev.exception.itemexception.ItemImportInterruptedException;
 import ru.tokarev.exception.itemexception.ItemNotFoundException;
 import ru.tokarev.exception.marketplaceexception.MarketPlaceNotFoundException;
 import ru.tokarev.exception.productexception.ProductNotFoundException;
 import ru.tokarev.exception.userexception.UserNotFoundException;
+import ru.tokarev.repository.ItemJdbcRepository;
 import ru.tokarev.repository.ItemRepository;
 import ru.tokarev.repository.MarketplaceRepository;
 import ru.tokarev.repository.ProductRepository;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.BDDMockito.willDoNothing;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
@@ -48,6 +68,21 @@ class ItemServiceTest {
     @Mock
     private MarketplaceRepository marketplaceRepository;
 
+    @Mock
+    private PriceHistoryIndex priceHistoryIndex;
+
+    @Mock
+    private ItemJdbcRepository itemJdbcRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Spy
+    private StripedIngestionExecutor stripedIngestionExecutor = new StripedIngestionExecutor(1, Runnable::run);
+
+    @Spy
+    private ItemResultCache itemResultCache = new ItemResultCache(1000);
+
     @InjectMocks
     private ItemServiceImpl itemService;
 
@@ -178,10 +213,8 @@ class ItemServiceTest {
         given(productRepository.findById(1L)).willReturn(Optional.of(product));
         given(marketplaceRepository.findAll()).willReturn(List.of(marketplace1, marketplace2));
 
-        given(itemRepository.findAllByProductAndMarketplaceAndOrderByDateStartAsc(product, marketplace1)).willReturn(
-                Optional.of(List.of(existingItem1)));
-        given(itemRepository.findAllByProductAndMarketplaceAndOrderByDateStartAsc(product, marketplace2)).willReturn(
-                Optional.of(List.of(existingItem2)));
+        given(itemRepository.findAllIntervalsByProductIdOrderByMarketplaceAndDateStartAsc(1L)).willReturn(List.of(
+                toItemInterval(existingItem1), toItemInterval(existingItem2)));
 
         //act
         List<ProductPriceDifferenceDto> productPriceDifferenceDtoList =
@@ -191,6 +224,10 @@ class ItemServiceTest {
         //assert
         assertThat(productPriceDifferenceDtoList).usingRecursiveComparison()
                 .isEqualTo(createdProductPriceDifferenceDtoList);
+        verify(itemRepository, never()).findAllByProductAndMarketplaceAndOrderByDateStartAsc(any(), any());
+        assertThrows(UnsupportedOperationException.class, () -> productPriceDifferenceDtoList.remove(0));
+        assertThrows(UnsupportedOperationException.class,
+                () -> productPriceDifferenceDtoList.get(0).getPriceByDayDtoList().clear());
 
     }
 
@@ -241,6 +278,308 @@ class ItemServiceTest {
 
     }
 
+    @Test
+    void givenLoadedPriceHistoryIndex_whenGetPriceChangingForOneProductAndOneMarketplace_thenReadFromIndex() {
+
+        //arrange
+        Category category = new Category(1L, "drinks");
+        Product product = new Product(1L, "milk", category);
+        Marketplace marketplace = new Marketplace(1L, "Magnit");
+
+        LocalDate dateStart = LocalDate.now().minusDays(3);
+        LocalDate dateFirst = LocalDate.now().minusDays(2);
+        LocalDate dateSecond = LocalDate.now().minusDays(1);
+        LocalDate dateThird = LocalDate.now();
+        LocalDate dateEnd = LocalDate.now().plusDays(1);
+
+        PriceSeries priceSeries = PriceSeries.EMPTY
+                .with(2L, dateThird, dateEnd, 80)
+                .with(1L, dateStart, dateThird, 100);
+
+        List<PriceByDayDto> priceByDayDtoList = List.of(
+                new PriceByDayDto("100", dateStart),
+                new PriceByDayDto("100", dateFirst),
+                new PriceByDayDto("100", dateSecond),
+                new PriceByDayDto("80", dateThird));
+
+        ProductPriceDifferenceDto createdProductPriceDifferenceDto = new ProductPriceDifferenceDto(product.getName(),
+                marketplace.getName(), priceByDayDtoList);
+
+        given(productRepository.findById(1L)).willReturn(Optional.of(product));
+        given(marketplaceRepository.findById(1L)).willReturn(Optional.of(marketplace));
+        given(priceHistoryIndex.isReady()).willReturn(true);
+        given(priceHistoryIndex.getSeries(1L, 1L)).willReturn(priceSeries);
+
+        //act
+        ProductPriceDifferenceDto productPriceDifferenceDto =
+                itemService.checkPriceDynamicForOneItemAndOneMarketplace(
+                        product.getId(), dateStart, dateEnd, marketplace.getId());
+
+        //assert
+        assertThat(productPriceDifferenceDto).usingRecursiveComparison().isEqualTo(createdProductPriceDifferenceDto);
+        verify(itemRepository, never()).findAllByProductAndMarketplaceAndOrderByDateStartAsc(any(), any());
+    }
+
+    @Test
+    void givenItems_whenGetProductsPriceComparing_thenReturnProductPriceComparingDtosFromOneQuery() {
+
+        //arrange
+        LocalDate dateStart = LocalDate.now().minusDays(3);
+        LocalDate dateFirst = LocalDate.now().minusDays(2);
+        LocalDate dateSecond = LocalDate.now().minusDays(1);
+        LocalDate dateEnd = LocalDate.now();
+
+        Map<LocalDate, Map<String, Integer>> milkPricesMap = new HashMap<>();
+        milkPricesMap.put(dateStart, Map.of("Magnit", 100));
+        milkPricesMap.put(dateFirst, Map.of("Magnit", 100, "Perekrestok", 90));
+
+        Map<LocalDate, Map<String, Integer>> waterPricesMap = new HashMap<>();
+        waterPricesMap.put(dateSecond, Map.of("Magnit", 50));
+
+        List<ProductPriceComparingDto> createdProductPriceComparingDtoList = List.of(
+                new ProductPriceComparingDto("milk", milkPricesMap),
+                new ProductPriceComparingDto("water", waterPricesMap));
+
+        given(itemRepository.streamAllNamedIntervalsByDateStartAfterAndDateEndBeforeOrderByProductAndDateStartAsc(
+                dateStart, dateEnd)).willReturn(Stream.of(
+                new NamedItemInterval(1L, 1L, "milk", "Magnit", 100, dateStart, dateSecond),
+                new NamedItemInterval(2L, 1L, "milk", "Perekrestok", 90, dateFirst, dateSecond),
+                new NamedItemInterval(3L, 2L, "water", "Magnit", 50, dateSecond, dateEnd)));
+
+        //act
+        List<ProductPriceComparingDto> productPriceComparingDtoList =
+                itemService.getItemsPriceComparing(dateStart, dateEnd);
+
+        //assert
+        assertThat(productPriceComparingDtoList).usingRecursiveComparison()
+                .isEqualTo(createdProductPriceComparingDtoList);
+        verify(productRepository, never()).findAll();
+    }
+
+    @Test
+    void givenItems_whenStreamProductsPriceComparing_thenAcceptProductPriceComparingDtosAndCloseCursor() {
+
+        //arrange
+        LocalDate dateStart = LocalDate.now().minusDays(3);
+        LocalDate dateSecond = LocalDate.now().minusDays(1);
+        LocalDate dateEnd = LocalDate.now();
+
+        Map<LocalDate, Map<String, Integer>> milkPricesMap = new HashMap<>();
+        milkPricesMap.put(dateSecond, Map.of("Magnit", 100));
+
+        Map<LocalDate, Map<String, Integer>> waterPricesMap = new HashMap<>();
+        waterPricesMap.put(dateSecond, Map.of("Perekrestok", 50));
+
+        List<ProductPriceComparingDto> createdProductPriceComparingDtoList = List.of(
+                new ProductPriceComparingDto("milk", milkPricesMap),
+                new ProductPriceComparingDto("water", waterPricesMap));
+
+        AtomicBoolean cursorClosed = new AtomicBoolean();
+        given(itemRepository.streamAllNamedIntervalsByDateStartAfterAndDateEndBeforeOrderByProductAndDateStartAsc(
+                dateStart, dateEnd)).willReturn(Stream.of(
+                new NamedItemInterval(1L, 1L, "milk", "Magnit", 100, dateSecond, dateEnd),
+                new NamedItemInterval(2L, 2L, "water", "Perekrestok", 50, dateSecond, dateEnd))
+                .onClose(() -> cursorClosed.set(true)));
+
+        //act
+        List<ProductPriceComparingDto> productPriceComparingDtoList = new ArrayList<>();
+        itemService.streamItemsPriceComparing(dateStart, dateEnd, productPriceComparingDtoList::add);
+
+        //assert
+        assertThat(productPriceComparingDtoList).usingRecursiveComparison()
+                .isEqualTo(createdProductPriceComparingDtoList);
+        assertThat(cursorClosed).isTrue();
+    }
+
+    @Test
+    void givenItemsWithGap_whenGetPriceChangingForOneProductAndOneMarketplace_thenFillGapWithPreviousPrice() {
+
+        //arrange
+        Category category = new Category(1L, "drinks");
+        Product product = new Product(1L, "milk", category);
+        Marketplace marketplace = new Marketplace(1L, "Magnit");
+
+        LocalDate dateStart = LocalDate.now().minusDays(3);
+        LocalDate dateFirst = LocalDate.now().minusDays(2);
+        LocalDate dateSecond = LocalDate.now().minusDays(1);
+        LocalDate dateThird = LocalDate.now();
+        LocalDate dateEnd = LocalDate.now().plusDays(1);
+
+        PriceSeries priceSeries = PriceSeries.EMPTY
+                .with(1L, dateStart.minusDays(5), dateFirst, 100)
+                .with(2L, dateThird, dateEnd.plusDays(5), 80);
+
+        List<PriceByDayDto> priceByDayDtoList = List.of(
+                new PriceByDayDto("100", dateStart),
+                new PriceByDayDto("100", dateFirst),
+                new PriceByDayDto("100", dateSecond),
+                new PriceByDayDto("80", dateThird));
+
+        given(productRepository.findById(1L)).willReturn(Optional.of(product));
+        given(marketplaceRepository.findById(1L)).willReturn(Optional.of(marketplace));
+        given(priceHistoryIndex.isReady()).willReturn(true);
+        given(priceHistoryIndex.getSeries(1L, 1L)).willReturn(priceSeries);
+
+        //act
+        ProductPriceDifferenceDto productPriceDifferenceDto =
+                itemService.checkPriceDynamicForOneItemAndOneMarketplace(
+                        product.getId(), dateStart, dateEnd, marketplace.getId());
+
+        //assert
+        assertThat(productPriceDifferenceDto.getPriceByDayDtoList()).usingRecursiveComparison()
+                .isEqualTo(priceByDayDtoList);
+    }
+
+    @Test
+    void givenItems_whenGetPriceIntervalsForOneProductAndOneMarketplace_thenReturnRunLengthIntervals() {
+
+        //arrange
+        Category category = new Category(1L, "drinks");
+        Product product = new Product(1L, "milk", category);
+        Marketplace marketplace = new Marketplace(1L, "Magnit");
+
+        LocalDate dateStart = LocalDate.now().minusDays(3);
+        LocalDate dateSecond = LocalDate.now().minusDays(1);
+        LocalDate dateThird = LocalDate.now();
+        LocalDate dateEnd = LocalDate.now().plusDays(1);
+
+        PriceSeries priceSeries = PriceSeries.EMPTY
+                .with(1L, dateStart, dateSecond, 100)
+                .with(2L, dateSecond, dateThird, 100)
+                .with(3L, dateThird, dateEnd, 80);
+
+        ProductPriceIntervalsDto createdProductPriceIntervalsDto = new ProductPriceIntervalsDto(product.getName(),
+                marketplace.getName(), List.of(
+                new PriceIntervalDto(dateStart, dateSecond, 100),
+                new PriceIntervalDto(dateThird, dateThird, 80)));
+
+        given(productRepository.findById(1L)).willReturn(Optional.of(product));
+        given(marketplaceRepository.findById(1L)).willReturn(Optional.of(marketplace));
+        given(priceHistoryIndex.isReady()).willReturn(true);
+        given(priceHistoryIndex.getSeries(1L, 1L)).willReturn(priceSeries);
+
+        //act
+        ProductPriceIntervalsDto productPriceIntervalsDto =
+                itemService.checkPriceIntervalsForOneItemAndOneMarketplace(
+                        product.getId(), dateStart, dateEnd, marketplace.getId());
+
+        //assert
+        assertThat(productPriceIntervalsDto).usingRecursiveComparison().isEqualTo(createdProductPriceIntervalsDto);
+    }
+
+    @Test
+    void givenItems_whenGetPriceColumnsForOneProductAndOneMarketplace_thenReturnEpochDaysAndPrices() {
+
+        //arrange
+        Category category = new Category(1L, "drinks");
+        Product product = new Product(1L, "milk", category);
+        Marketplace marketplace = new Marketplace(1L, "Magnit");
+
+        LocalDate dateStart = LocalDate.now().minusDays(3);
+        LocalDate dateSecond = LocalDate.now().minusDays(1);
+        LocalDate dateEnd = LocalDate.now();
+
+        PriceSeries priceSeries = PriceSeries.EMPTY
+                .with(1L, dateStart, dateSecond, 100)
+                .with(2L, dateSecond, dateEnd, 80);
+
+        int startDay = (int) dateStart.toEpochDay();
+        ProductPriceColumnsDto createdProductPriceColumnsDto = new ProductPriceColumnsDto(product.getName(),
+                marketplace.getName(), new int[]{startDay, startDay + 1, startDay + 2}, new int[]{100, 100, 80});
+
+        given(productRepository.findById(1L)).willReturn(Optional.of(product));
+        given(marketplaceRepository.findById(1L)).willReturn(Optional.of(marketplace));
+        given(priceHistoryIndex.isReady()).willReturn(true);
+        given(priceHistoryIndex.getSeries(1L, 1L)).willReturn(priceSeries);
+
+        //act
+        ProductPriceColumnsDto productPriceColumnsDto =
+                itemService.checkPriceColumnsForOneItemAndOneMarketplace(
+                        product.getId(), dateStart, dateEnd, marketplace.getId());
+
+        //assert
+        assertThat(productPriceColumnsDto).usingRecursiveComparison().isEqualTo(createdProductPriceColumnsDto);
+    }
+
+    @Test
+    void givenLoadedPriceHistoryIndex_whenGetProductPriceComparing_thenReadFromIndex() {
+
+        //arrange
+        Category category = new Category(1L, "drinks");
+        Product product = new Product(1L, "milk", category);
+
+        Marketplace marketplace1 = new Marketplace(1L, "Magnit");
+        Marketplace marketplace2 = new Marketplace(2L, "Perekrestok");
+
+        LocalDate dateStart = LocalDate.now().minusDays(3);
+        LocalDate dateFirst = LocalDate.now().minusDays(2);
+        LocalDate dateSecond = LocalDate.now().minusDays(1);
+        LocalDate dateThird = LocalDate.now();
+        LocalDate dateEnd = LocalDate.now().plusDays(1);
+
+        Map<LocalDate, Map<String, Integer>> marketplaceEverydayPricesMap = new HashMap<>();
+        marketplaceEverydayPricesMap.put(dateStart, Map.of("Magnit", 100));
+        marketplaceEverydayPricesMap.put(dateFirst, Map.of("Magnit", 100));
+        marketplaceEverydayPricesMap.put(dateSecond, Map.of("Magnit", 100, "Perekrestok", 80));
+        marketplaceEverydayPricesMap.put(dateThird, Map.of("Perekrestok", 80));
+
+        ProductPriceComparingDto createdProductPriceComparingDto = new ProductPriceComparingDto(product.getName(),
+                marketplaceEverydayPricesMap);
+
+        given(productRepository.findById(1L)).willReturn(Optional.of(product));
+        given(marketplaceRepository.findAll()).willReturn(List.of(marketplace1, marketplace2));
+        given(priceHistoryIndex.isReady()).willReturn(true);
+        given(priceHistoryIndex.getSeriesByMarketplace(1L)).willReturn(Map.of(
+                1L, PriceSeries.EMPTY.with(1L, dateStart, dateThird, 100),
+                2L, PriceSeries.EMPTY.with(2L, dateSecond, dateEnd, 80)));
+
+        //act
+        ProductPriceComparingDto productPriceComparingDto = itemService.getItemPriceComparing(
+                product.getId(), dateStart, dateEnd
+        );
+
+        //assert
+        assertThat(productPriceComparingDto).usingRecursiveComparison()
+                .isEqualTo(createdProductPriceComparingDto);
+        verify(itemRepository, never()).findAllByDateStartAfterAndDateEndBeforeAndProductOrderByDateStartAsc(
+                any(), any(), any());
+    }
+
+    @Test
+    void givenRepeatedQuery_whenGetProductPriceComparing_thenServeFromCacheUntilProductVersionChanges() {
+
+        //arrange
+        Category category = new Category(1L, "drinks");
+        Product product = new Product(1L, "milk", category);
+        Marketplace marketplace = new Marketplace(1L, "Magnit");
+
+        LocalDate dateStart = LocalDate.now().minusDays(3);
+        LocalDate dateEnd = LocalDate.now().plusDays(1);
+
+        given(productRepository.findById(1L)).willReturn(Optional.of(product));
+        given(marketplaceRepository.findAll()).willReturn(List.of(marketplace));
+        given(priceHistoryIndex.isReady()).willReturn(true);
+        given(priceHistoryIndex.getSeriesByMarketplace(1L))
+                .willReturn(Map.of(1L, PriceSeries.EMPTY.with(1L, dateStart, dateEnd, 100)));
+
+        //act
+        ProductPriceComparingDto firstResult = itemService.getItemPriceComparing(1L, dateStart, dateEnd);
+        ProductPriceComparingDto cachedResult = itemService.getItemPriceComparing(1L, dateStart, dateEnd);
+        itemResultCache.incrementProductVersion(1L);
+        ProductPriceComparingDto recomputedResult = itemService.getItemPriceComparing(1L, dateStart, dateEnd);
+
+        //assert
+        assertThat(cachedResult).isSameAs(firstResult);
+        assertThat(recomputedResult).isNotSameAs(firstResult);
+        assertThrows(UnsupportedOperationException.class,
+                () -> cachedResult.getMarketplaceEverydayPricesMap().clear());
+        assertThrows(UnsupportedOperationException.class,
+                () -> cachedResult.getMarketplaceEverydayPricesMap().values().iterator().next().clear());
+        verify(productRepository, times(2)).findById(1L);
+        assertEquals(1, itemResultCache.getStats().getHitCount());
+        assertEquals(2, itemResultCache.getStats().getMissCount());
+    }
+
     @Test
     void givenProductAndDatesAndMarketplaceAndPrice_whenCreateItem_thenReturnCreatedItem() {
 
@@ -252,14 +591,9 @@ class ItemServiceTest {
 
         LocalDate dateStart1 = LocalDate.now().minusDays(3);
         LocalDate dateEnd1 = LocalDate.now().minusDays(1);
-        LocalDate dateStart2 = LocalDate.now().plusDays(1);
-        LocalDate dateEnd2 = LocalDate.now().plusDays(3);
 
         Item item1 = new Item(null, 100, dateStart1, dateEnd1, product, marketplace);
-        Item item2 = new Item(1L, 100, dateStart2, dateEnd2, product, marketplace);
 
-        given(itemRepository.findAllByProductAndMarketplaceAndOrderByDateStartAsc(product, marketplace))
-                .willReturn(Optional.of(List.of(item2)));
         given(productRepository.findById(product.getId())).willReturn(Optional.of(product));
         given(marketplaceRepository.findById(marketplace.getId())).willReturn(Optional.of(marketplace));
         given(itemRepository.save(item1)).willReturn(item1);
@@ -269,6 +603,8 @@ class ItemServiceTest {
 
         //assert
         assertThat(actualItem).usingRecursiveComparison().isEqualTo(item1);
+        verify(priceHistoryIndex, times(1)).add(item1);
+        verify(itemRepository, never()).findAllByProductAndMarketplaceAndOrderByDateStartAsc(any(), any());
     }
 
     @Test
@@ -287,27 +623,257 @@ class ItemServiceTest {
         LocalDate dateStart3 = LocalDate.now().plusDays(5);
         LocalDate dateEnd3 = LocalDate.now().plusDays(8);
 
-        Item item1 = new Item(1L, 100, dateStart1, dateEnd1, product, marketplace);
-        Item item2 = new Item(2L, 100, dateStart2, dateEnd2, product, marketplace);
+        Item item1 = new Item(null, 100, dateStart1, dateEnd1, new Product(1L, null, null),
+                new Marketplace(1L, null));
+        Item item2 = new Item(null, 100, dateStart2, dateEnd2, new Product(1L, null, null),
+                new Marketplace(1L, null));
         Item item3 = new Item(3L, 100, dateStart3, dateEnd3, product, marketplace);
 
-        given(itemRepository.findAllByProductAndMarketplaceAndOrderByDateStartAsc(product, marketplace)).
-                willReturn(Optional.of(List.of(item3)));
-        given(productRepository.findById(product.getId())).willReturn(Optional.of(product));
-        given(marketplaceRepository.findById(marketplace.getId())).willReturn(Optional.of(marketplace));
-        given(itemRepository.save(item1)).willReturn(item1);
-
-        given(itemRepository.findAllByProductAndMarketplaceAndOrderByDateStartAsc(product, marketplace)).
-                willReturn(Optional.of(List.of(item3)));
-        given(productRepository.findById(product.getId())).willReturn(Optional.of(product));
-        given(marketplaceRepository.findById(marketplace.getId())).willReturn(Optional.of(marketplace));
-        given(itemRepository.save(item2)).willReturn(item2);
+        given(productRepository.findAllById(Set.of(1L))).willReturn(List.of(product));
+        given(marketplaceRepository.findAllById(Set.of(1L))).willReturn(List.of(marketplace));
+        given(itemRepository.findAllIntervalsByProductIdInAndOverlappingOrderByProductAndMarketplaceAndDateStartAsc(
+                Set.of(1L), dateStart1, dateEnd2)).willReturn(List.of(toItemInterval(item3)));
+        given(itemJdbcRepository.allocateIds(2)).willReturn(List.of(1L, 2L));
 
         //act
         List<Item> actualItems = itemService.createItems(List.of(item1, item2));
 
         //assert
-        assertThat(actualItems).usingRecursiveComparison().isEqualTo(List.of(item1, item2));
+        assertThat(actualItems).usingRecursiveComparison().isEqualTo(List.of(
+                new Item(1L, 100, dateStart1, dateEnd1, product, marketplace),
+                new Item(2L, 100, dateStart2, dateEnd2, product, marketplace)));
+        verify(itemJdbcRepository, times(1)).batchInsert(actualItems);
+        verify(priceHistoryIndex, times(1)).addAll(actualItems);
+        verify(itemRepository, never()).save(any());
+    }
+
+    @Test
+    void givenItemChunks_whenCreateItemsInChunks_thenReturnCreatedItemCount() {
+
+        //arrange
+        Category category = new Category(1L, "drinks");
+        Product product = new Product(1L, "milk", category);
+
+        Marketplace marketplace = new Marketplace(1L, "Magnit");
+
+        LocalDate dateStart1 = LocalDate.now().minusDays(3);
+        LocalDate dateEnd1 = LocalDate.now().minusDays(1);
+        LocalDate dateStart2 = LocalDate.now().plusDays(1);
+        LocalDate dateEnd2 = LocalDate.now().plusDays(3);
+
+        Item item1 = new Item(null, 100, dateStart1, dateEnd1, product, marketplace);
+        Item item2 = new Item(null, 90, dateStart2, dateEnd2, product, marketplace);
+
+        given(productRepository.findAllById(Set.of(1L))).willReturn(List.of(product));
+        given(marketplaceRepository.findAllById(Set.of(1L))).willReturn(List.of(marketplace));
+        given(itemJdbcRepository.allocateIds(1)).willReturn(List.of(1L), List.of(2L));
+
+        //act
+        long createdItemCount = itemService.createItemsInChunks(List.of(List.of(item1), List.of(item2)).iterator());
+
+        //assert
+        assertEquals(2, createdItemCount);
+        verify(itemJdbcRepository, times(1)).batchInsert(List.of(item1));
+        verify(itemJdbcRepository, times(1)).batchInsert(List.of(item2));
+        verify(priceHistoryIndex, times(2)).addAll(any());
+        verify(transactionManager, times(2)).commit(any());
+    }
+
+    @Test
+    void givenChunkWithUnknownProduct_whenCreateItemsInChunks_ThrowItemImportInterruptedExceptionWithImportedCount() {
+
+        //arrange
+        Category category = new Category(1L, "drinks");
+        Product product = new Product(1L, "milk", category);
+        Product unknownProduct = new Product(2L, "kefir", category);
+
+        Marketplace marketplace = new Marketplace(1L, "Magnit");
+
+        LocalDate dateStart = LocalDate.now().minusDays(3);
+        LocalDate dateEnd = LocalDate.now().minusDays(1);
+
+        Item item1 = new Item(null, 100, dateStart, dateEnd, product, marketplace);
+        Item item2 = new Item(null, 90, dateStart, dateEnd, unknownProduct, marketplace);
+
+        given(productRepository.findAllById(Set.of(1L))).willReturn(List.of(product));
+        given(productRepository.findAllById(Set.of(2L))).willReturn(List.of());
+        given(marketplaceRepository.findAllById(Set.of(1L))).willReturn(List.of(marketplace));
+        given(itemJdbcRepository.allocateIds(1)).willReturn(List.of(1L));
+
+        //act
+        ItemImportInterruptedException exception = assertThrows(ItemImportInterruptedException.class,
+                () -> itemService.createItemsInChunks(List.of(List.of(item1), List.of(item2)).iterator()));
+
+        //assert
+        assertEquals(1, exception.getRowsImported());
+        assertThat(exception.getCause()).isInstanceOf(ProductNotFoundException.class);
+        verify(itemJdbcRepository, times(1)).batchInsert(List.of(item1));
+        verify(transactionManager, times(1)).commit(any());
+        verify(transactionManager, times(1)).rollback(any());
+    }
+
+    @Test
+    void givenRowChunk_whenImportItemsInChunks_thenReturnResultForEveryRow() {
+
+        //arrange
+        Category category = new Category(1L, "drinks");
+        Product product = new Product(1L, "milk", category);
+
+        Marketplace marketplace = new Marketplace(1L, "Magnit");
+
+        LocalDate dateStart1 = LocalDate.now().minusDays(3);
+        LocalDate dateEnd1 = LocalDate.now().minusDays(1);
+        LocalDate dateStart2 = LocalDate.now().plusDays(1);
+        LocalDate dateEnd2 = LocalDate.now().plusDays(3);
+
+        Item acceptedItem = new Item(null, 100, dateStart1, dateEnd1, product, marketplace);
+        Item overlappingItem = new Item(null, 90, dateStart2, dateEnd2, product, marketplace);
+        Item itemWithUnknownProduct = new Item(null, 90, dateStart1, dateEnd1,
+                new Product(2L, null, null), marketplace);
+        Item existingItem = new Item(7L, 80, dateStart2, dateEnd2, product, marketplace);
+
+        given(productRepository.findAllById(Set.of(1L, 2L))).willReturn(List.of(product));
+        given(marketplaceRepository.findAllById(Set.of(1L))).willReturn(List.of(marketplace));
+        given(itemRepository.findAllIntervalsByProductIdInAndOverlappingOrderByProductAndMarketplaceAndDateStartAsc(
+                Set.of(1L, 2L), dateStart1, dateEnd2)).willReturn(List.of(toItemInterval(existingItem)));
+        given(itemJdbcRepository.allocateIds(1)).willReturn(List.of(100L));
+
+        List<ItemImportRow> rowList = List.of(
+                ItemImportRow.valid(0, acceptedItem),
+                ItemImportRow.valid(1, overlappingItem),
+                ItemImportRow.invalid(2, "price: must be greater than or equal to 1"),
+                ItemImportRow.valid(3, itemWithUnknownProduct));
+
+        //act
+        List<ItemImportRowResult> rowResultList = itemService.importItemsInChunks(List.of(rowList).iterator());
+
+        //assert
+        assertThat(rowResultList).usingRecursiveComparison().isEqualTo(List.of(
+                new ItemImportRowResult(0, ItemImportRowStatus.ACCEPTED, 100L, null),
+                new ItemImportRowResult(1, ItemImportRowStatus.OVERLAP, null,
+                        "Product for this period already added"),
+                new ItemImportRowResult(2, ItemImportRowStatus.INVALID, null,
+                        "price: must be greater than or equal to 1"),
+                new ItemImportRowResult(3, ItemImportRowStatus.PRODUCT_NOT_FOUND, null,
+                        "Product with this id doesn't exist")));
+        verify(itemJdbcRepository, times(1)).batchInsert(List.of(acceptedItem));
+        verify(priceHistoryIndex, times(1)).addAll(List.of(acceptedItem));
+    }
+
+    @Test
+    void givenResentAndAdjacentRows_whenUpsertItems_thenSkipUnchangedAndMergeSamePriceIntervals() {
+
+        //arrange
+        Category category = new Category(1L, "drinks");
+        Product product = new Product(1L, "milk", category);
+
+        Marketplace marketplace = new Marketplace(1L, "Magnit");
+
+        LocalDate day = LocalDate.of(2022, 10, 1);
+
+        Item existingItem1 = new Item(7L, 100, day, day.plusDays(2), product, marketplace);
+        Item existingItem2 = new Item(8L, 100, day.plusDays(4), day.plusDays(6), product, marketplace);
+        Item existingItem3 = new Item(9L, 200, day.plusDays(6), day.plusDays(8), product, marketplace);
+
+        Item resentItem = new Item(null, 100, day, day.plusDays(2), product, marketplace);
+        Item bridgingItem = new Item(null, 100, day.plusDays(2), day.plusDays(4), product, marketplace);
+        Item extendingItem = new Item(null, 200, day.plusDays(8), day.plusDays(9), product, marketplace);
+        Item overlappingItem = new Item(null, 150, day.plusDays(7), day.plusDays(8), product, marketplace);
+        Item newItem = new Item(null, 100, day.plusDays(11), day.plusDays(12), product, marketplace);
+        Item newItemExtension = new Item(null, 100, day.plusDays(12), day.plusDays(13), product, marketplace);
+
+        given(productRepository.findAllById(Set.of(1L))).willReturn(List.of(product));
+        given(marketplaceRepository.findAllById(Set.of(1L))).willReturn(List.of(marketplace));
+        given(itemRepository.findAllIntervalsByProductIdInAndOverlappingOrderByProductAndMarketplaceAndDateStartAsc(
+                Set.of(1L), day.minusDays(1), day.plusDays(14))).willReturn(List.of(
+                toItemInterval(existingItem1), toItemInterval(existingItem2), toItemInterval(existingItem3)));
+        given(itemJdbcRepository.allocateIds(1)).willReturn(List.of(100L));
+
+        List<ItemImportRow> rowList = List.of(
+                ItemImportRow.valid(0, resentItem),
+                ItemImportRow.valid(1, bridgingItem),
+                ItemImportRow.valid(2, extendingItem),
+                ItemImportRow.valid(3, overlappingItem),
+                ItemImportRow.valid(4, newItem),
+                ItemImportRow.valid(5, newItemExtension));
+
+        //act
+        List<ItemImportRowResult> rowResultList = itemService.upsertItems(rowList);
+
+        //assert
+        assertThat(rowResultList).usingRecursiveComparison().isEqualTo(List.of(
+                new ItemImportRowResult(0, ItemImportRowStatus.UNCHANGED, 7L, null),
+                new ItemImportRowResult(1, ItemImportRowStatus.MERGED, 7L, null),
+                new ItemImportRowResult(2, ItemImportRowStatus.MERGED, 9L, null),
+                new ItemImportRowResult(3, ItemImportRowStatus.OVERLAP, null,
+                        "Product for this period already added"),
+                new ItemImportRowResult(4, ItemImportRowStatus.ACCEPTED, 100L, null),
+                new ItemImportRowResult(5, ItemImportRowStatus.MERGED, 100L, null)));
+        verify(itemJdbcRepository, times(1)).batchDelete(argThat(intervalList ->
+                intervalList.size() == 1 && intervalList.get(0).getId() == 8L));
+        verify(itemJdbcRepository, times(1)).batchUpdatePeriods(argThat(intervalList ->
+                intervalList.size() == 2 &&
+                        intervalList.get(0).getId() == 7L &&
+                        intervalList.get(0).getDateEnd().equals(day.plusDays(6)) &&
+                        intervalList.get(1).getId() == 9L &&
+                        intervalList.get(1).getDateEnd().equals(day.plusDays(9))));
+        verify(itemJdbcRepository, times(1)).batchInsert(List.of(newItem));
+        assertEquals(day.plusDays(13), newItem.getDateEnd());
+    }
+
+    @Test
+    void givenOverlappingItems_whenCreateItems_ThrowItemExistsException() {
+
+        //arrange
+        Category category = new Category(1L, "drinks");
+        Product product = new Product(1L, "milk", category);
+
+        Marketplace marketplace = new Marketplace(1L, "Magnit");
+
+        LocalDate dateStart1 = LocalDate.now().minusDays(3);
+        LocalDate dateEnd1 = LocalDate.now().minusDays(1);
+        LocalDate dateStart2 = LocalDate.now().minusDays(2);
+        LocalDate dateEnd2 = LocalDate.now().plusDays(3);
+
+        Item item1 = new Item(null, 100, dateStart1, dateEnd1, product, marketplace);
+        Item item2 = new Item(null, 100, dateStart2, dateEnd2, product, marketplace);
+
+        given(productRepository.findAllById(Set.of(1L))).willReturn(List.of(product));
+        given(marketplaceRepository.findAllById(Set.of(1L))).willReturn(List.of(marketplace));
+
+        //act
+        //assert
+        assertThrows(ItemExistsException.class, () -> itemService.createItems(List.of(item1, item2)));
+        verify(itemJdbcRepository, never()).batchInsert(any());
+    }
+
+    @Test
+    void givenCsv_whenImportItemsFromCsv_thenReturnImportResult() {
+
+        //arrange
+        InputStream inputStream = new ByteArrayInputStream(new byte[0]);
+
+        List<ItemCsvMergeCount> mergeCountList = List.of(
+                new ItemCsvMergeCount(ItemCsvMergeCount.IMPORTED, 1L, 2L),
+                new ItemCsvMergeCount(ItemCsvMergeCount.IMPORTED, 2L, 1L),
+                new ItemCsvMergeCount(ItemCsvMergeCount.NON_POSITIVE_PRICE, null, 1L),
+                new ItemCsvMergeCount(ItemCsvMergeCount.UNKNOWN_PRODUCT, null, 2L));
+
+        given(itemJdbcRepository.copyIntoStagingTable(inputStream)).willReturn(7L);
+        given(itemJdbcRepository.mergeStagingTable()).willReturn(mergeCountList);
+
+        //act
+        ItemCsvImportResult itemCsvImportResult = itemService.importItemsFromCsv(inputStream);
+
+        //assert
+        assertEquals(7L, itemCsvImportResult.getRowsReceived());
+        assertEquals(3L, itemCsvImportResult.getRowsImported());
+        assertEquals(4L, itemCsvImportResult.getRowsRejected());
+        assertEquals(1L, itemCsvImportResult.getRowsNonPositivePrice());
+        assertEquals(2L, itemCsvImportResult.getRowsUnknownProduct());
+        assertEquals(1L, itemCsvImportResult.getRowsOverlapping());
+        assertEquals(0L, itemCsvImportResult.getRowsMissingValue());
+        verify(priceHistoryIndex, times(1)).reloadProducts(Set.of(1L, 2L));
     }
 
     @Test
@@ -331,6 +897,7 @@ class ItemServiceTest {
 
         //assert
         verify(itemRepository, times(1)).deleteById(1L);
+        verify(priceHistoryIndex, times(1)).remove(existingItem);
     }
 
     @Test
@@ -375,4 +942,9 @@ class ItemServiceTest {
             itemService.getItemPriceComparing(null, null, null);
         });
     }
-}
\ No newline at end of file
+
+    private ItemInterval toItemInterval(Item item) {
+        return new ItemInterval(item.getId(), item.getProduct().getId(), item.getMarketplace().getId(),
+                item.getPrice(), item.getDateStart(), item.getDateEnd());
+    }
+}
@@ -0,0 +1,203 @@
+package ru.tokarev.service.itemservice;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import ru.tokarev.entity.Marketplace;
+import ru.tokarev.entity.Product;
+import ru.tokarev.entity.item.Item;
+import ru.tokarev.exception.jobexception.JobNotFoundException;
+import ru.tokarev.exception.jobexception.JobRejectedException;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@SpringBootTest
+class ItemWriteBehindServiceTest {
+
+    @AfterEach
+    void clearSecurityContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void givenSubmittedItems_whenFlush_thenCompleteTicketsInOneGroupCommit() {
+
+        //arrange
+        ItemService itemService = mock(ItemService.class);
+        ItemWriteBehindServiceImpl itemWriteBehindService =
+                new ItemWriteBehindServiceImpl(itemService, mock(ScheduledExecutorService.class),
+                        10000, 500, 200, 60, 100000);
+
+        given(itemService.importItemsInChunks(any())).willReturn(List.of(
+                new ItemImportRowResult(0, ItemImportRowStatus.ACCEPTED, 10L, null),
+                new ItemImportRowResult(1, ItemImportRowStatus.OVERLAP, null, "Product for this period already added")));
+
+        ItemWriteTicket acceptedTicket = submitAs(itemWriteBehindService, "oleg", createItem(1L));
+        ItemWriteTicket rejectedTicket = submitAs(itemWriteBehindService, "oleg", createItem(2L));
+
+        //act
+        itemWriteBehindService.flush();
+        authenticate("oleg", "ROLE_USER");
+
+        //assert
+        verify(itemService, times(1)).importItemsInChunks(any());
+        assertEquals(ItemWriteTicketStatus.ACCEPTED, acceptedTicket.getStatus());
+        assertEquals(10L, acceptedTicket.getItemId());
+        assertEquals(ItemWriteTicketStatus.REJECTED, rejectedTicket.getStatus());
+        assertNull(rejectedTicket.getItemId());
+        assertEquals("Product for this period already added", rejectedTicket.getMessage());
+        assertEquals(acceptedTicket, itemWriteBehindService.getTicket(acceptedTicket.getId()));
+    }
+
+    @Test
+    void givenItemsOfTwoSubmitters_whenFlush_thenImportEachUnderItsSubmitter() {
+
+        //arrange
+        ItemService itemService = mock(ItemService.class);
+        ItemWriteBehindServiceImpl itemWriteBehindService =
+                new ItemWriteBehindServiceImpl(itemService, mock(ScheduledExecutorService.class),
+                        10000, 500, 200, 60, 100000);
+        List<String> importingUserList = new ArrayList<>();
+
+        given(itemService.importItemsInChunks(any())).willAnswer(invocation -> {
+            importingUserList.add(SecurityContextHolder.getContext().getAuthentication().getName());
+            return List.of(new ItemImportRowResult(0, ItemImportRowStatus.ACCEPTED, 10L, null));
+        });
+
+        submitAs(itemWriteBehindService, "oleg", createItem(1L));
+        submitAs(itemWriteBehindService, "ivan", createItem(2L));
+
+        //act
+        itemWriteBehindService.flush();
+
+        //assert
+        assertEquals(List.of("oleg", "ivan"), importingUserList);
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    @Test
+    void givenFullQueue_whenSubmit_ThrowJobRejectedException() {
+
+        //arrange
+        ItemWriteBehindServiceImpl itemWriteBehindService =
+                new ItemWriteBehindServiceImpl(mock(ItemService.class), mock(ScheduledExecutorService.class),
+                        10000, 500, 200, 60, 100000);
+        for (long i = 0; i < 10000; i++) {
+            itemWriteBehindService.submit(createItem(i));
+        }
+
+        //act
+        //assert
+        assertThrows(JobRejectedException.class, () -> itemWriteBehindService.submit(createItem(10000L)));
+    }
+
+    @Test
+    void givenTicketsAboveMaximumSize_whenFlushWithEmptyQueue_thenEvictTickets() {
+
+        //arrange
+        ItemWriteBehindServiceImpl itemWriteBehindService =
+                new ItemWriteBehindServiceImpl(mock(ItemService.class), mock(ScheduledExecutorService.class),
+                        10000, 500, 200, 60, 10);
+        List<ItemWriteTicket> ticketList = new ArrayList<>();
+        for (long i = 0; i < 100; i++) {
+            ticketList.add(submitAs(itemWriteBehindService, "oleg", createItem(i)));
+        }
+
+        itemWriteBehindService.flush();
+
+        //act
+        itemWriteBehindService.flush();
+        authenticate("oleg", "ROLE_USER");
+
+        //assert
+        long readableTicketCount = ticketList.stream().filter(ticket -> {
+            try {
+                itemWriteBehindService.getTicket(ticket.getId());
+                return true;
+            } catch (JobNotFoundException e) {
+                return false;
+            }
+        }).count();
+        assertThat(readableTicketCount).isBetween(1L, 10L);
+    }
+
+    @Test
+    void givenTicketOfAnotherUser_whenGetTicket_ThrowJobNotFoundException() {
+
+        //arrange
+        ItemWriteBehindServiceImpl itemWriteBehindService =
+                new ItemWriteBehindServiceImpl(mock(ItemService.class), mock(ScheduledExecutorService.class),
+                        10000, 500, 200, 60, 100000);
+        ItemWriteTicket ticket = submitAs(itemWriteBehindService, "oleg", createItem(1L));
+        authenticate("ivan", "ROLE_USER");
+
+        //act
+        //assert
+        assertThrows(JobNotFoundException.class, () -> itemWriteBehindService.getTicket(ticket.getId()));
+    }
+
+    @Test
+    void givenTicketOfAnotherUser_whenGetTicketAsAdmin_thenReturnTicket() {
+
+        //arrange
+        ItemWriteBehindServiceImpl itemWriteBehindService =
+                new ItemWriteBehindServiceImpl(mock(ItemService.class), mock(ScheduledExecutorService.class),
+                        10000, 500, 200, 60, 100000);
+        ItemWriteTicket ticket = submitAs(itemWriteBehindService, "oleg", createItem(1L));
+        authenticate("admin", "ROLE_ADMIN");
+
+        //act
+        ItemWriteTicket foundTicket = itemWriteBehindService.getTicket(ticket.getId());
+
+        //assert
+        assertEquals(ticket, foundTicket);
+    }
+
+    @Test
+    void givenNothing_whenGetTicket_ThrowJobNotFoundException() {
+        assertThrows(JobNotFoundException.class, () -> {
+            new ItemWriteBehindServiceImpl(mock(ItemService.class), mock(ScheduledExecutorService.class),
+                    10000, 500, 200, 60, 100000)
+                    .getTicket("1");
+        });
+    }
+
+    private static ItemWriteTicket submitAs(ItemWriteBehindService itemWriteBehindService, String username,
+                                            Item item) {
+        authenticate(username, "ROLE_USER");
+        try {
+            return itemWriteBehindService.submit(item);
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    private static void authenticate(String username, String role) {
+        SecurityContext securityContext = SecurityContextHolder.createEmptyContext();
+        securityContext.setAuthentication(new UsernamePasswordAuthenticationToken(username, null,
+                AuthorityUtils.createAuthorityList(role)));
+        SecurityContextHolder.setContext(securityContext);
+    }
+
+    private static Item createItem(Long productId) {
+        return new Item(null, 100, LocalDate.now(), LocalDate.now().plusDays(1),
+                new Product(productId, null, null), new Marketplace(1L, null));
+    }
+}
@@ -0,0 +1,51 @@
+package ru.tokarev.service.itemservice;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PriceSeriesTest {
+
+    @Test
+    void givenRemovedAndAddedItems_whenMerge_thenReturnSeriesSortedByDateStartInOnePass() {
+
+        //arrange
+        PriceSeries series = new PriceSeries.Builder()
+                .add(1L, LocalDate.of(2022, 1, 1), LocalDate.of(2022, 1, 5), 100)
+                .add(2L, LocalDate.of(2022, 1, 5), LocalDate.of(2022, 1, 10), 200)
+                .add(3L, LocalDate.of(2022, 1, 10), LocalDate.of(2022, 1, 15), 300)
+                .build();
+        PriceSeries addedSeries = new PriceSeries.Builder()
+                .add(4L, LocalDate.of(2022, 1, 20), LocalDate.of(2022, 1, 25), 400)
+                .add(1L, LocalDate.of(2022, 1, 1), LocalDate.of(2022, 1, 10), 100)
+                .build();
+
+        //act
+        PriceSeries mergedSeries = series.merge(Set.of(2L), addedSeries);
+
+        //assert
+        assertEquals(3, mergedSeries.size());
+        assertEquals(1L, mergedSeries.getItemId(0));
+        assertEquals(LocalDate.of(2022, 1, 10), mergedSeries.getDateEnd(0));
+        assertEquals(3L, mergedSeries.getItemId(1));
+        assertEquals(4L, mergedSeries.getItemId(2));
+    }
+
+    @Test
+    void givenAllItemsRemoved_whenMerge_thenReturnEmptySeries() {
+
+        //arrange
+        PriceSeries series = new PriceSeries.Builder()
+                .add(1L, LocalDate.of(2022, 1, 1), LocalDate.of(2022, 1, 5), 100)
+                .build();
+
+        //act
+        PriceSeries mergedSeries = series.merge(Set.of(1L), PriceSeries.EMPTY);
+
+        //assert
+        assertEquals(PriceSeries.EMPTY, mergedSeries);
+    }
+}
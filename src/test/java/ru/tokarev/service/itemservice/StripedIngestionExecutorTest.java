@@ -0,0 +1,78 @@
+package ru.tokarev.service.itemservice;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+class StripedIngestionExecutorTest {
+
+    @Test
+    void givenRowsOfSeveralSeries_whenExecute_thenHandleEverySeriesInOneLaneConcurrently() {
+
+        //arrange
+        ExecutorService executorService = Executors.newFixedThreadPool(4);
+        StripedIngestionExecutor stripedIngestionExecutor = new StripedIngestionExecutor(4, executorService);
+        List<Integer> rowList = IntStream.range(0, 1000).boxed().collect(Collectors.toList());
+        Map<Integer, String> laneBySeries = new ConcurrentHashMap<>();
+        CountDownLatch concurrentLanes = new CountDownLatch(2);
+        List<Boolean> laneOverlaps = new CopyOnWriteArrayList<>();
+
+        //act
+        List<Integer> resultList = stripedIngestionExecutor.execute(rowList, row -> row % 2, laneRows -> {
+            concurrentLanes.countDown();
+            laneOverlaps.add(awaitQuietly(concurrentLanes));
+            for (Integer row : laneRows) {
+                laneBySeries.merge(row % 2, Thread.currentThread().getName(), (first, second) -> {
+                    assertEquals(first, second);
+                    return first;
+                });
+            }
+            return new ArrayList<>(laneRows);
+        });
+        executorService.shutdown();
+
+        //assert
+        assertThat(resultList).containsExactlyInAnyOrderElementsOf(rowList);
+        assertThat(laneBySeries).containsOnlyKeys(0, 1);
+        assertEquals(List.of(true, true), laneOverlaps);
+    }
+
+    @Test
+    void givenFailingLane_whenExecute_thenRethrowLaneException() {
+
+        //arrange
+        StripedIngestionExecutor stripedIngestionExecutor = new StripedIngestionExecutor(2, Runnable::run);
+
+        //act
+        //assert
+        assertThrows(IllegalStateException.class, () -> stripedIngestionExecutor.execute(List.of(1, 2),
+                row -> row, laneRows -> {
+                    throw new IllegalStateException("Product for this period already added");
+                }));
+    }
+
+    private static boolean awaitQuietly(CountDownLatch latch) {
+        try {
+            return latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package ru.tokarev.service.jobservice;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import ru.tokarev.exception.jobexception.JobNotFoundException;
+import ru.tokarev.exception.jobexception.JobRejectedException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+class ImportJobServiceTest {
+
+    @AfterEach
+    void clearSecurityContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void givenRows_whenSubmit_thenProcessRowsInChunksAndCompleteJob() {
+
+        //arrange
+        ImportJobService importJobService = new ImportJobServiceImpl(Runnable::run, 1000, 10000);
+        List<Integer> rowList = IntStream.range(0, 2500).boxed().collect(Collectors.toList());
+        List<Integer> chunkSizeList = new ArrayList<>();
+        authenticate("oleg", "ROLE_USER");
+
+        //act
+        ImportJob importJob = importJobService.submit("items", rowList, chunk -> chunkSizeList.add(chunk.size()));
+
+        //assert
+        assertEquals(ImportJobStatus.COMPLETED, importJob.getStatus());
+        assertEquals(2500, importJob.getRowsProcessed());
+        assertEquals(List.of(1000, 1000, 500), chunkSizeList);
+        assertThat(importJob.getErrors()).isEmpty();
+        assertThat(importJobService.getById(importJob.getId())).isSameAs(importJob);
+    }
+
+    @Test
+    void givenFailingChunk_whenSubmit_thenFailJobWithError() {
+
+        //arrange
+        ImportJobService importJobService = new ImportJobServiceImpl(Runnable::run, 1000, 10000);
+        List<Integer> rowList = IntStream.range(0, 2500).boxed().collect(Collectors.toList());
+
+        //act
+        ImportJob importJob = importJobService.submit("items", rowList, chunk -> {
+            if (chunk.contains(1500)) {
+                throw new IllegalStateException("Product for this period already added");
+            }
+        });
+
+        //assert
+        assertEquals(ImportJobStatus.FAILED, importJob.getStatus());
+        assertEquals(1000, importJob.getRowsProcessed());
+        assertEquals("0-999", importJob.getCommittedRowRange());
+        assertEquals(List.of("Rows 1000-1999: Product for this period already added"), importJob.getErrors());
+    }
+
+    @Test
+    void givenFullQueue_whenSubmit_ThrowJobRejectedException() {
+
+        //arrange
+        ImportJobService importJobService = new ImportJobServiceImpl(task -> {
+            throw new RejectedExecutionException();
+        }, 1000, 10000);
+
+        //act
+        //assert
+        assertThrows(JobRejectedException.class, () -> importJobService.submit("items", List.of(1), chunk -> {
+        }));
+    }
+
+    @Test
+    void givenTooManyPendingRows_whenSubmit_ThrowJobRejectedException() {
+
+        //arrange
+        List<Runnable> queuedTaskList = new ArrayList<>();
+        ImportJobService importJobService = new ImportJobServiceImpl(queuedTaskList::add, 1000, 2000);
+        List<Integer> rowList = IntStream.range(0, 1500).boxed().collect(Collectors.toList());
+        importJobService.submit("items", rowList, chunk -> {
+        });
+
+        //act
+        //assert
+        assertThrows(JobRejectedException.class, () -> importJobService.submit("items", rowList, chunk -> {
+        }));
+    }
+
+    @Test
+    void givenJobOfAnotherUser_whenGetById_ThrowJobNotFoundException() {
+
+        //arrange
+        ImportJobService importJobService = new ImportJobServiceImpl(Runnable::run, 1000, 10000);
+        authenticate("oleg", "ROLE_USER");
+        ImportJob importJob = importJobService.submit("items", List.of(1), chunk -> {
+        });
+        authenticate("ivan", "ROLE_USER");
+
+        //act
+        //assert
+        assertThrows(JobNotFoundException.class, () -> importJobService.getById(importJob.getId()));
+    }
+
+    @Test
+    void givenJobOfAnotherUser_whenGetByIdAsAdmin_thenReturnJob() {
+
+        //arrange
+        ImportJobService importJobService = new ImportJobServiceImpl(Runnable::run, 1000, 10000);
+        authenticate("oleg", "ROLE_USER");
+        ImportJob importJob = importJobService.submit("items", List.of(1), chunk -> {
+        });
+        authenticate("admin", "ROLE_ADMIN");
+
+        //act
+        ImportJob foundImportJob = importJobService.getById(importJob.getId());
+
+        //assert
+        assertThat(foundImportJob).isSameAs(importJob);
+    }
+
+    @Test
+    void givenNothing_whenGetById_ThrowJobNotFoundException() {
+        assertThrows(JobNotFoundException.class, () -> {
+            new ImportJobServiceImpl(Runnable::run, 1000, 10000).getById("1");
+        });
+    }
+
+    private static void authenticate(String username, String role) {
+        SecurityContext securityContext = SecurityContextHolder.createEmptyContext();
+        securityContext.setAuthentication(new UsernamePasswordAuthenticationToken(username, null,
+                AuthorityUtils.createAuthorityList(role)));
+        SecurityContextHolder.setContext(securityContext);
+    }
+}
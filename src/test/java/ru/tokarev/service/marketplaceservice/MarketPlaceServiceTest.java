@@ -11,6 +11,7 @@ import ru.tokarev.entity.Product;
 import ru.tokarev.exception.marketplaceexception.MarketPlaceNotFoundException;
 import ru.tokarev.exception.productexception.ProductNotFoundException;
 import ru.tokarev.repository.MarketplaceRepository;
+import ru.tokarev.service.itemservice.ItemResultCache;
 
 import java.util.List;
 import java.util.Optional;
@@ -28,6 +29,9 @@ class MarketPlaceServiceTest {
     @Mock
     private MarketplaceRepository marketplaceRepository;
 
+    @Mock
+    private ItemResultCache itemResultCache;
+
     @InjectMocks
     private MarketPlaceServiceImpl marketPlaceService;
 
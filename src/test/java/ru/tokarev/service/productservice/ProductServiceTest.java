@@ -13,7 +13,9 @@ import ru.tokarev.exception.productexception.ProductNotFoundException;
 import ru.tokarev.exception.userexception.UserNotFoundException;
 import ru.tokarev.repository.CategoryRepository;
 import ru.tokarev.repository.ProductRepository;
+import ru.tokarev.service.itemservice.ItemResultCache;
 
+import javax.persistence.EntityManager;
 import java.util.List;
 import java.util.Optional;
 
@@ -33,6 +35,12 @@ class ProductServiceTest {
     @Mock
     private CategoryRepository categoryRepository;
 
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private ItemResultCache itemResultCache;
+
     @InjectMocks
     private ProductServiceImpl productService;
 
@@ -107,6 +115,30 @@ class ProductServiceTest {
         assertEquals(productList, List.of(productToCreate1, productToCreate2));
     }
 
+    @Test
+    void givenProductChunks_whenCreateProductsInChunks_thenReturnCountAndClearBetweenChunks() {
+
+        //arrange
+        Category waterCategory = new Category(1L, "drinks");
+        Product productToCreate1 = new Product(null, "water", waterCategory);
+        Product productToCreate2 = new Product(null, "juice", waterCategory);
+        Product productToCreate3 = new Product(null, "milk", waterCategory);
+
+        given(categoryRepository.findById(1L)).willReturn(Optional.of(waterCategory));
+        given(productRepository.save(productToCreate1)).willReturn(productToCreate1);
+        given(productRepository.save(productToCreate2)).willReturn(productToCreate2);
+        given(productRepository.save(productToCreate3)).willReturn(productToCreate3);
+
+        //act
+        long createdProductCount = productService.createProductsInChunks(List.of(
+                List.of(productToCreate1, productToCreate2), List.of(productToCreate3)).iterator());
+
+        //assert
+        assertEquals(3, createdProductCount);
+        verify(entityManager, times(2)).flush();
+        verify(entityManager, times(2)).clear();
+    }
+
     @Test
     void givenProductToUpdate_whenUpdateProduct_thenReturnUpdatedProduct() {
 
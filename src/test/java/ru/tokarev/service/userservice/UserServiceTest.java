@@ -14,6 +14,8 @@ import ru.tokarev.exception.userexception.UserExistsException;
 import ru.tokarev.exception.userexception.UserNotFoundException;
 import ru.tokarev.repository.RoleRepository;
 import ru.tokarev.repository.UserRepository;
+import ru.tokarev.security.PrincipalCache;
+import ru.tokarev.security.jwt.TokenGenerationRegistry;
 
 import java.util.Date;
 import java.util.List;
@@ -39,6 +41,12 @@ class UserServiceTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private PrincipalCache principalCache;
+
+    @Mock
+    private TokenGenerationRegistry tokenGenerationRegistry;
+
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -151,6 +159,28 @@ class UserServiceTest {
         verify(userRepository, times(1)).deleteById(1L);
     }
 
+    @Test
+    void givenUserRoleToUpdate_whenUpdateUserRole_thenInvalidateCachedPrincipalAndIssuedTokens() {
+
+        //arrange
+        Role role = new Role(1L, "ADMIN");
+        User existingUser = new User(1L, "oleg", "Oleg", "Tokarev",
+                "oleg@mail.ru", "12345qwert", new Role(2L, "USER"),
+                new Date(), new Date());
+
+        given(userRepository.findById(1L)).willReturn(Optional.of(existingUser));
+        given(roleRepository.findById(1L)).willReturn(Optional.of(role));
+        given(userRepository.save(existingUser)).willReturn(existingUser);
+
+        //act
+        userService.updateUserRole(1L, new User(1L, "oleg", "Oleg", "Tokarev",
+                "oleg@mail.ru", "12345qwert", role, new Date(), new Date()));
+
+        //assert
+        verify(principalCache, times(1)).invalidate("oleg");
+        verify(tokenGenerationRegistry, times(1)).increment(1L);
+    }
+
     @Test
     void givenNothing_whenFindUser_ThrowNotFoundException() {
         assertThrows(UserNotFoundException.class, () -> {
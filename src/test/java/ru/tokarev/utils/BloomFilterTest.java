@@ -0,0 +1,49 @@
+package ru.tokarev.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BloomFilterTest {
+
+    @Test
+    void givenPutValues_whenMightContain_thenReturnTrueForEveryValue() {
+
+        //arrange
+        BloomFilter bloomFilter = new BloomFilter(1000, 0.001);
+        String[] values = new String[1000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = UUID.randomUUID().toString();
+            bloomFilter.put(values[i]);
+        }
+
+        //act
+        //assert
+        for (String value : values) {
+            assertTrue(bloomFilter.mightContain(value));
+        }
+    }
+
+    @Test
+    void givenFilledFilter_whenMightContainAbsentValues_thenFalsePositiveRateStaysNearConfigured() {
+
+        //arrange
+        BloomFilter bloomFilter = new BloomFilter(10000, 0.001);
+        for (int i = 0; i < 10000; i++) {
+            bloomFilter.put(UUID.randomUUID().toString());
+        }
+
+        //act
+        int falsePositives = 0;
+        for (int i = 0; i < 100000; i++) {
+            if (bloomFilter.mightContain(UUID.randomUUID().toString())) {
+                falsePositives++;
+            }
+        }
+
+        //assert
+        assertTrue(falsePositives < 500, "false positives: " + falsePositives);
+    }
+}
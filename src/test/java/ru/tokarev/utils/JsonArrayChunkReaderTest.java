@@ -0,0 +1,80 @@
+package ru.tokarev.utils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+import ru.tokarev.dto.CategoryDto;
+
+import javax.validation.ConstraintViolationException;
+import javax.validation.Validation;
+import javax.validation.Validator;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class JsonArrayChunkReaderTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    private final Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    @Test
+    void givenJsonArray_whenReadChunks_thenReturnConvertedChunksOfFixedSize() {
+
+        //arrange
+        InputStream inputStream = toInputStream("[{\"name\":\"drinks\"},{\"name\":\"fruits\"},{\"name\":\"milk\"}]");
+
+        //act
+        JsonArrayChunkReader<CategoryDto, String> chunkReader = new JsonArrayChunkReader<>(
+                objectMapper, validator, inputStream, CategoryDto.class, CategoryDto::getName, 2);
+        List<List<String>> chunkList = new ArrayList<>();
+        chunkReader.forEachRemaining(chunkList::add);
+
+        //assert
+        assertEquals(List.of(List.of("drinks", "fruits"), List.of("milk")), chunkList);
+    }
+
+    @Test
+    void givenInvalidElement_whenReadChunks_ThrowConstraintViolationException() {
+
+        //arrange
+        InputStream inputStream = toInputStream("[{\"name\":\"drinks\"},{\"name\":\"\"}]");
+
+        //act
+        JsonArrayChunkReader<CategoryDto, String> chunkReader = new JsonArrayChunkReader<>(
+                objectMapper, validator, inputStream, CategoryDto.class, CategoryDto::getName, 10);
+
+        //assert
+        assertThrows(ConstraintViolationException.class, chunkReader::next);
+    }
+
+    @Test
+    void givenNotClosedArray_whenReadChunks_ThrowUncheckedIOException() {
+
+        //arrange
+        InputStream inputStream = toInputStream("[{\"name\":\"drinks\"}");
+
+        //act
+        JsonArrayChunkReader<CategoryDto, String> chunkReader = new JsonArrayChunkReader<>(
+                objectMapper, validator, inputStream, CategoryDto.class, CategoryDto::getName, 10);
+
+        //assert
+        assertThrows(UncheckedIOException.class, chunkReader::next);
+    }
+
+    @Test
+    void givenJsonObject_whenCreateChunkReader_ThrowUncheckedIOException() {
+        assertThrows(UncheckedIOException.class, () -> new JsonArrayChunkReader<>(
+                objectMapper, validator, toInputStream("{}"), CategoryDto.class, CategoryDto::getName, 10));
+    }
+
+    private InputStream toInputStream(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+}